@@ -3,11 +3,15 @@ package com.dkostin.avro_viewer.app.config;
 import com.dkostin.avro_viewer.app.domain.state.ViewerState;
 import com.dkostin.avro_viewer.app.service.api.ExportFacade;
 import com.dkostin.avro_viewer.app.service.api.FileLoader;
+import com.dkostin.avro_viewer.app.service.api.FollowFacade;
 import com.dkostin.avro_viewer.app.service.api.PageNavigator;
+import com.dkostin.avro_viewer.app.service.api.SampleFacade;
 import com.dkostin.avro_viewer.app.service.api.SearchFacade;
 import com.dkostin.avro_viewer.app.service.impl.AvroFileServiceImpl;
 import com.dkostin.avro_viewer.app.service.impl.ExportServiceImpl;
+import com.dkostin.avro_viewer.app.service.impl.SeekableInputFactory;
 import com.dkostin.avro_viewer.app.service.impl.ViewerServiceImpl;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndexStore;
 import com.dkostin.avro_viewer.app.ui.component.RowViewWindow;
 
 public final class AppContext {
@@ -20,11 +24,16 @@ public final class AppContext {
         this.viewerState = new ViewerState();
         this.rowViewWindow = new RowViewWindow();
 
+        var readerConfig = ReaderConfig.fromSystemProperties();
+        var inputFactory = SeekableInputFactory.of(readerConfig.inputMode());
+
         var filterPredicateFactory = new FilterPredicateFactory();
-        var avroFileService = new AvroFileServiceImpl(filterPredicateFactory);
+        var indexStore = new BlockIndexStore(BlockIndexStore.defaultDirectory());
+        var avroFileService = new AvroFileServiceImpl(filterPredicateFactory, indexStore, inputFactory,
+                readerConfig.pageCacheBytes(), readerConfig.softPageCache());
         var exportService = new ExportServiceImpl();
 
-        this.viewerService = new ViewerServiceImpl(avroFileService, exportService, viewerState, filterPredicateFactory);
+        this.viewerService = new ViewerServiceImpl(avroFileService, exportService, viewerState, filterPredicateFactory, inputFactory);
     }
 
     public RowViewWindow jsonWindow() {
@@ -43,6 +52,14 @@ public final class AppContext {
         return viewerService;
     }
 
+    public SampleFacade sampleFacade() {
+        return viewerService;
+    }
+
+    public FollowFacade followFacade() {
+        return viewerService;
+    }
+
     public ExportFacade exportFacade() {
         return viewerService;
     }
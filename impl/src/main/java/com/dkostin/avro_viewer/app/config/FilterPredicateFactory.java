@@ -1,19 +1,39 @@
 package com.dkostin.avro_viewer.app.config;
 
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
+import com.dkostin.avro_viewer.app.domain.model.filter.RangeBounds;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockBloomFilter;
+import com.dkostin.avro_viewer.app.service.impl.index.BloomFilterBuilder;
+import com.dkostin.avro_viewer.app.service.impl.index.LookupFilter;
+import com.dkostin.avro_viewer.app.service.impl.index.ZoneFilter;
+import com.dkostin.avro_viewer.app.service.impl.index.ZoneMapBuilder;
+import com.dkostin.avro_viewer.app.util.BlockFilter;
+import com.dkostin.avro_viewer.app.util.BytePattern;
 import com.dkostin.avro_viewer.app.util.DeepSearchEngine;
 import com.dkostin.avro_viewer.app.util.PreparedMatcher;
+import com.dkostin.avro_viewer.app.util.SchemaMatcher;
+import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.IndexedRecord;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
 public final class FilterPredicateFactory {
 
+    // operations whose literal a matching string value contains
+    private static final Set<MatchOperation> TEXT_OPS =
+            EnumSet.of(MatchOperation.EQUALS, MatchOperation.CONTAINS, MatchOperation.STARTS_WITH, MatchOperation.ENDS_WITH);
+
     private record ResolvedNode(Object value, Schema schema) {}
 
     /**
@@ -28,15 +48,45 @@ public final class FilterPredicateFactory {
      *   <li>Specific field: passes {@code rec.get(field)} as the DFS root,
      *       enabling deep search into nested records, arrays, and maps.</li>
      * </ul>
+     * The returned predicate compiles itself against the schema of the records it sees (see
+     * {@link #compile(List, Schema)}) and recompiles when a record of another schema instance comes along,
+     * so it suits scans of one file at a time. Scans over files with different schemas should compile per file.
      */
     public Predicate<GenericRecord> compile(List<FilterCriterion> criteria) {
         if (criteria == null || criteria.isEmpty()) {
             return _ -> true;
         }
+        return new Predicate<>() {
+            private volatile SchemaBound bound;
+
+            @Override
+            public boolean test(GenericRecord rec) {
+                SchemaBound b = bound;
+                if (b == null || b.schema() != rec.getSchema()) {
+                    b = new SchemaBound(rec.getSchema(), compile(criteria, rec.getSchema()));
+                    bound = b;
+                }
+                return b.predicate().test(rec);
+            }
+        };
+    }
+
+    /**
+     * Compiles filter criteria for records of {@code schema}: field positions, union branches and map / array
+     * element schemas are resolved here, once, instead of per record. Same results as the schema-less
+     * evaluation, for records whose {@code getSchema()} is {@code schema}.
+     */
+    public Predicate<GenericRecord> compile(List<FilterCriterion> criteria, Schema schema) {
+        if (criteria == null || criteria.isEmpty()) {
+            return _ -> true;
+        }
 
         List<Predicate<GenericRecord>> preds = new java.util.ArrayList<>();
         for (FilterCriterion c : criteria) {
-            preds.add(toPredicate(c));
+            preds.add(toPredicate(c, schema));
+        }
+        if (preds.size() == 1) {
+            return preds.getFirst();
         }
 
         return rec -> {
@@ -47,6 +97,223 @@ public final class FilterPredicateFactory {
         };
     }
 
+    /**
+     * @return the top-level fields the criteria read, or {@code null} if a wildcard criterion reads all of them
+     */
+    public Set<String> referencedFields(List<FilterCriterion> criteria) {
+        Set<String> fields = new HashSet<>();
+        if (criteria == null) {
+            return fields;
+        }
+        for (FilterCriterion c : criteria) {
+            if (c.isWildcard()) {
+                return null;
+            }
+            if (c.fieldName() != null) {
+                int dot = c.fieldName().indexOf('.');
+                fields.add(dot < 0 ? c.fieldName() : c.fieldName().substring(0, dot));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * The per-record resolving evaluation that {@link #compile(List, Schema)} replaces; kept as the reference
+     * for equivalence tests and benchmarks.
+     */
+    Predicate<GenericRecord> compileSchemaless(List<FilterCriterion> criteria) {
+        List<Predicate<GenericRecord>> preds = criteria.stream().map(this::toPredicate).toList();
+        return rec -> preds.stream().allMatch(p -> p.test(rec));
+    }
+
+    private record SchemaBound(Schema schema, Predicate<GenericRecord> predicate) {}
+
+    /**
+     * Compiles a byte-level pre-filter for blocks of a file written with {@code schema}.
+     * <p>
+     * Avro stores strings as raw UTF-8, so the literal of a CONTAINS / EQUALS / STARTS_WITH / ENDS_WITH
+     * criterion occurs in the decompressed bytes of every block holding a match, as long as only a string
+     * value can produce it. Numbers, booleans and enum symbols are matched by their text but stored in binary,
+     * so a literal one of them could render to (e.g. "42", "rue", or a symbol name) in the searched subtree
+     * is not required.
+     *
+     * @return the filter, or {@code null} if no criterion yields a required literal
+     */
+    public BlockFilter compileBlockFilter(List<FilterCriterion> criteria, Schema schema) {
+        if (criteria == null || schema == null) {
+            return null;
+        }
+        List<BytePattern> required = new java.util.ArrayList<>();
+        for (FilterCriterion c : criteria) {
+            String literal = requiredLiteral(c, schema);
+            if (literal != null) {
+                required.add(new BytePattern(literal.getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        return required.isEmpty() ? null : new BlockFilter(required);
+    }
+
+    /**
+     * Compiles the range criteria on top-level int, long, float and double fields (timestamps included) of
+     * {@code schema} into a block-level pre-filter on the per-block min/max of those fields.
+     * Decimals and nested fields are left to the record predicate.
+     *
+     * @return the filter, or {@code null} if no criterion can use zone maps
+     */
+    public ZoneFilter compileZoneFilter(List<FilterCriterion> criteria, Schema schema) {
+        if (criteria == null || schema == null || schema.getType() != Schema.Type.RECORD) {
+            return null;
+        }
+        List<ZoneFilter.Condition> conditions = new java.util.ArrayList<>();
+        for (FilterCriterion c : criteria) {
+            if (!c.op().isRange() || c.isWildcard() || c.fieldName() == null) {
+                continue;
+            }
+            Schema.Field f = schema.getField(c.fieldName());
+            RangeBounds bounds = RangeBounds.of(c.op(), c.value());
+            if (f != null && bounds != null && ZoneMapBuilder.supports(f.schema())) {
+                conditions.add(new ZoneFilter.Condition(f.name(), bounds,
+                        DeepSearchEngine.timestampUnit(unwrapUnion(f.schema()))));
+            }
+        }
+        return conditions.isEmpty() ? null : new ZoneFilter(conditions);
+    }
+
+    /**
+     * Compiles the {@code EQUALS} criteria on top-level string, enum, int and long fields of {@code schema} into
+     * a block-level pre-filter on the Bloom filters of those fields, for files indexed for lookups.
+     *
+     * @return the filter, or {@code null} if no criterion can use Bloom filters
+     */
+    public LookupFilter compileLookupFilter(List<FilterCriterion> criteria, Schema schema) {
+        if (criteria == null || schema == null || schema.getType() != Schema.Type.RECORD) {
+            return null;
+        }
+        List<LookupFilter.Condition> conditions = new java.util.ArrayList<>();
+        for (FilterCriterion c : criteria) {
+            if (c.op() != MatchOperation.EQUALS || c.isWildcard() || c.fieldName() == null) {
+                continue;
+            }
+            Schema.Field f = schema.getField(c.fieldName());
+            String key = f != null && BloomFilterBuilder.supports(f.schema())
+                    ? BloomFilterBuilder.lookupKey(f.schema(), c.value()) : null;
+            if (key != null) {
+                conditions.add(new LookupFilter.Condition(f.name(), BlockBloomFilter.hash(key)));
+            }
+        }
+        return conditions.isEmpty() ? null : new LookupFilter(conditions);
+    }
+
+    private static String requiredLiteral(FilterCriterion c, Schema schema) {
+        if (!TEXT_OPS.contains(c.op()) || c.value() == null) {
+            return null;
+        }
+        String literal = c.value() instanceof BigDecimal bd ? bd.stripTrailingZeros().toPlainString() : c.value().toString();
+        if (literal.isEmpty()) {
+            return null;
+        }
+
+        Schema subtree;
+        if (c.isWildcard()) {
+            subtree = schema;
+        } else if (c.fieldName() == null) {
+            return null;
+        } else {
+            subtree = schema;
+            for (String segment : c.fieldName().split("\\.")) {
+                // only plain record paths; arrays and maps resolve per value
+                Schema record = unwrapUnion(subtree);
+                Schema.Field f = record != null && record.getType() == Schema.Type.RECORD ? record.getField(segment) : null;
+                if (f == null) {
+                    return null;
+                }
+                subtree = f.schema();
+            }
+        }
+
+        LeafKinds leaves = new LeafKinds();
+        leaves.collect(subtree, new HashSet<>());
+        if (leaves.numbers && couldBeNumber(literal)) return null;
+        if (leaves.booleans && ("true".contains(literal) || "false".contains(literal))) return null;
+        for (String symbol : leaves.enumSymbols) {
+            if (symbol.contains(literal)) return null;
+        }
+        return literal;
+    }
+
+    /**
+     * Whether any rendering of a number (including EQUALS' numeric comparison) could satisfy the literal.
+     */
+    private static boolean couldBeNumber(String literal) {
+        try {
+            new BigDecimal(literal.trim());
+            return true;
+        } catch (NumberFormatException ignored) {
+        }
+        return literal.chars().allMatch(ch -> "0123456789.-+eE".indexOf(ch) >= 0)
+                || "-Infinity".contains(literal) || "NaN".contains(literal);
+    }
+
+    /**
+     * Kinds of searchable leaves under a schema that are not stored as text.
+     */
+    private static final class LeafKinds {
+        boolean numbers;
+        boolean booleans;
+        final Set<String> enumSymbols = new HashSet<>();
+
+        void collect(Schema schema, Set<String> visitedRecords) {
+            switch (schema.getType()) {
+                case RECORD -> {
+                    if (visitedRecords.add(schema.getFullName())) {
+                        schema.getFields().forEach(f -> collect(f.schema(), visitedRecords));
+                    }
+                }
+                case UNION -> schema.getTypes().forEach(t -> collect(t, visitedRecords));
+                case ARRAY -> collect(schema.getElementType(), visitedRecords);
+                case MAP -> collect(schema.getValueType(), visitedRecords); // keys are not searched
+                case ENUM -> enumSymbols.addAll(schema.getEnumSymbols());
+                case INT, LONG, FLOAT, DOUBLE -> numbers = true;
+                case BOOLEAN -> booleans = true;
+                case BYTES, FIXED -> numbers |= schema.getLogicalType() instanceof LogicalTypes.Decimal;
+                default -> {
+                    // STRING is stored as UTF-8; NULL never matches a literal
+                }
+            }
+        }
+    }
+
+    private Predicate<GenericRecord> toPredicate(FilterCriterion c, Schema schema) {
+        PreparedMatcher matcher = new PreparedMatcher(c.op(), c.value());
+
+        if (c.isWildcard()) {
+            SchemaMatcher root = SchemaMatcher.compile(schema);
+            return rec -> root.matches(rec, matcher);
+        }
+
+        String fieldName = c.fieldName();
+        if (fieldName == null) {
+            return _ -> false;
+        }
+
+        if (fieldName.contains(".")) {
+            PathStep root = PathStep.compile(schema, fieldName.split("\\."), 0);
+            return rec -> root.matches(rec, matcher);
+        }
+
+        Schema.Field f = schema.getField(fieldName);
+        if (f == null) {
+            // rec.get(name) rejects the unknown field per record, keep that
+            return toPredicate(c);
+        }
+        int pos = f.pos();
+        SchemaMatcher field = SchemaMatcher.compile(f.schema());
+        return rec -> field.matches(rec.get(pos), matcher);
+    }
+
+    /**
+     * Schema-less evaluation: resolves fields and unions on every record.
+     */
     private Predicate<GenericRecord> toPredicate(FilterCriterion c) {
         var op = c.op();
         Object raw = c.value();
@@ -130,6 +397,134 @@ public final class FilterPredicateFactory {
         return new ResolvedNode(null, null);
     }
 
+    /**
+     * {@link #resolvePath} compiled for one position: resolves {@code path[index]} under {@code schema},
+     * with the steps below it and the matcher for the schema a resolution ends on built ahead of time.
+     * Without a schema the step defers to {@code resolvePath} itself.
+     */
+    private static final class PathStep {
+        private final Schema schema;
+        private final String[] path;
+        private final int index;
+        private final SchemaMatcher target;
+
+        private boolean dynamic;
+        private boolean record;
+        private int fieldPos = -1;  // -1 = no such field
+        private PathStep field;
+        private PathStep mapValue;
+        private int listIndex = -1; // -1 = segment is not an index
+        private PathStep listElement;
+        private PathStep fanOut;
+        private SchemaMatcher fanOutTarget;
+
+        private PathStep(Schema schema, String[] path, int index) {
+            this.schema = schema;
+            this.path = path;
+            this.index = index;
+            this.target = SchemaMatcher.compile(schema);
+        }
+
+        static PathStep compile(Schema schema, String[] path, int index) {
+            PathStep step = new PathStep(schema, path, index);
+            Schema unwrapped = unwrapUnion(schema);
+            if (unwrapped == null) {
+                step.dynamic = true;
+                return step;
+            }
+            if (index >= path.length) {
+                return step;
+            }
+            String segment = path[index];
+
+            step.record = unwrapped.getType() == Schema.Type.RECORD;
+            if (step.record) {
+                Schema.Field f = unwrapped.getField(segment);
+                if (f != null) {
+                    step.fieldPos = f.pos();
+                    step.field = compile(f.schema(), path, index + 1);
+                }
+            }
+            step.mapValue = compile(unwrapped.getType() == Schema.Type.MAP ? unwrapped.getValueType() : null, path, index + 1);
+
+            Schema elemSchema = unwrapped.getType() == Schema.Type.ARRAY ? unwrapped.getElementType() : null;
+            try {
+                step.listIndex = Math.max(-1, Integer.parseInt(segment));
+            } catch (NumberFormatException ignored) {
+            }
+            if (step.listIndex >= 0) {
+                step.listElement = compile(elemSchema, path, index + 1);
+            }
+            step.fanOut = compile(elemSchema, path, index);
+            step.fanOutTarget = SchemaMatcher.compile(elemSchema);
+            return step;
+        }
+
+        boolean matches(Object node, PreparedMatcher matcher) {
+            if (node == null || index >= path.length) {
+                return target.matches(node, matcher);
+            }
+            if (dynamic || node instanceof IndexedRecord && !record) {
+                // no schema here, or a record the schema does not describe
+                ResolvedNode resolved = resolvePath(node, schema, path, index);
+                return DeepSearchEngine.matches(resolved.value(), resolved.schema(), matcher);
+            }
+            if (node instanceof IndexedRecord rec) {
+                return fieldPos >= 0 ? field.matches(rec.get(fieldPos), matcher) : matcher.matches(null);
+            }
+            if (node instanceof Map<?, ?> map) {
+                return mapValue.matches(map.get(path[index]), matcher);
+            }
+            if (node instanceof List<?> list && listIndex >= 0 && listIndex < list.size()) {
+                return listElement.matches(list.get(listIndex), matcher);
+            }
+            if (node instanceof Collection<?> coll) {
+                return fanOutTarget.matches(collect(coll), matcher);
+            }
+            return matcher.matches(null);
+        }
+
+        /**
+         * The value {@code resolvePath} would return.
+         */
+        Object resolve(Object node) {
+            if (node == null || index >= path.length) {
+                return node;
+            }
+            if (dynamic || node instanceof IndexedRecord && !record) {
+                return resolvePath(node, schema, path, index).value();
+            }
+            if (node instanceof IndexedRecord rec) {
+                return fieldPos >= 0 ? field.resolve(rec.get(fieldPos)) : null;
+            }
+            if (node instanceof Map<?, ?> map) {
+                return mapValue.resolve(map.get(path[index]));
+            }
+            if (node instanceof List<?> list && listIndex >= 0 && listIndex < list.size()) {
+                return listElement.resolve(list.get(listIndex));
+            }
+            if (node instanceof Collection<?> coll) {
+                return collect(coll);
+            }
+            return null;
+        }
+
+        private Object collect(Collection<?> coll) {
+            List<Object> results = new java.util.ArrayList<>();
+            for (Object item : coll) {
+                Object value = fanOut.resolve(item);
+                if (value != null) {
+                    if (value instanceof Collection<?> subColl) {
+                        results.addAll(subColl);
+                    } else {
+                        results.add(value);
+                    }
+                }
+            }
+            return results.isEmpty() ? null : results;
+        }
+    }
+
     private static Schema unwrapUnion(Schema schema) {
         if (schema != null && schema.getType() == Schema.Type.UNION) {
             for (Schema s : schema.getTypes()) {
@@ -0,0 +1,77 @@
+package com.dkostin.avro_viewer.app.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+
+/**
+ * Tuning options for reading Avro files, resolved from system properties at startup.
+ *
+ * @param inputMode      how file bytes are read ({@code -Davroviewer.input=file|mmap}, default {@code file})
+ * @param pageCacheBytes heap budget for cached (Avro-encoded) pages ({@code -Davroviewer.pageCacheMb=N}, default 64 MB)
+ * @param softPageCache  let the GC drop cached pages under memory pressure ({@code -Davroviewer.pageCacheSoft=true})
+ */
+@Slf4j
+public record ReaderConfig(
+        InputMode inputMode,
+        long pageCacheBytes,
+        boolean softPageCache
+) {
+    public static final long DEFAULT_PAGE_CACHE_BYTES = 64L * 1024 * 1024;
+
+    public enum InputMode {
+        FILE, MMAP
+    }
+
+    public ReaderConfig {
+        if (inputMode == null) {
+            inputMode = InputMode.FILE;
+        }
+        if (pageCacheBytes <= 0) {
+            pageCacheBytes = DEFAULT_PAGE_CACHE_BYTES;
+        }
+    }
+
+    /**
+     * Reads the options from system properties; a mistyped or out-of-range value is logged and replaced by its
+     * default rather than failing startup.
+     */
+    public static ReaderConfig fromSystemProperties() {
+        return from(System.getProperty("avroviewer.input"), System.getProperty("avroviewer.pageCacheMb"),
+                Boolean.getBoolean("avroviewer.pageCacheSoft"));
+    }
+
+    static ReaderConfig from(String input, String cacheMb, boolean softPageCache) {
+        return new ReaderConfig(parseInputMode(input), parsePageCacheBytes(cacheMb), softPageCache);
+    }
+
+    private static InputMode parseInputMode(String input) {
+        if (input == null || input.isBlank()) {
+            return InputMode.FILE;
+        }
+        try {
+            return InputMode.valueOf(input.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown avroviewer.input '{}', using file", input);
+            return InputMode.FILE;
+        }
+    }
+
+    private static long parsePageCacheBytes(String cacheMb) {
+        if (cacheMb == null || cacheMb.isBlank()) {
+            return DEFAULT_PAGE_CACHE_BYTES;
+        }
+        long mb;
+        try {
+            mb = Long.parseLong(cacheMb.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid avroviewer.pageCacheMb '{}', using {} MB", cacheMb, DEFAULT_PAGE_CACHE_BYTES >> 20);
+            return DEFAULT_PAGE_CACHE_BYTES;
+        }
+        if (mb <= 0) {
+            log.warn("avroviewer.pageCacheMb must be positive, got {}; using {} MB", mb, DEFAULT_PAGE_CACHE_BYTES >> 20);
+            return DEFAULT_PAGE_CACHE_BYTES;
+        }
+        return Math.min(mb, Long.MAX_VALUE >> 20) << 20; // no overflow into a negative budget
+    }
+}
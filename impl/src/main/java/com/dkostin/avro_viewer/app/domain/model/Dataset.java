@@ -0,0 +1,41 @@
+package com.dkostin.avro_viewer.app.domain.model;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * What the viewer has open: a single Avro file, or a directory whose part files (matched by a glob,
+ * relative to the directory) are read as one logical dataset in name order.
+ *
+ * @param root    the Avro file, or the dataset directory
+ * @param pattern glob for part files (e.g. {@code part-*.avro}, {@code **}{@code /*.avro}); {@code null} for a single file
+ */
+public record Dataset(Path root, String pattern) {
+
+    public static final String DEFAULT_PART_PATTERN = "*.avro";
+
+    public Dataset {
+        Objects.requireNonNull(root, "root");
+        root = root.toAbsolutePath().normalize();
+        if (pattern != null && pattern.isBlank()) {
+            pattern = null;
+        }
+    }
+
+    /**
+     * A file opens as itself, a directory as all its {@value #DEFAULT_PART_PATTERN} parts.
+     */
+    public static Dataset of(Path path) {
+        return Files.isDirectory(path) ? new Dataset(path, DEFAULT_PART_PATTERN) : new Dataset(path, null);
+    }
+
+    public boolean isSingleFile() {
+        return pattern == null;
+    }
+
+    public String displayName() {
+        String name = root.getFileName() == null ? root.toString() : root.getFileName().toString();
+        return isSingleFile() ? name : name + "/" + pattern;
+    }
+}
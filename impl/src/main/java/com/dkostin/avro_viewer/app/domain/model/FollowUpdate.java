@@ -0,0 +1,19 @@
+package com.dkostin.avro_viewer.app.domain.model;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records appended to a followed file since the previous update.
+ *
+ * @param firstRecord  position of the first appended record within the file
+ * @param records      the appended records (projected to the visible fields while browsing)
+ * @param matches      the appended records matching the active search, normalized; empty while browsing
+ * @param totalRecords records in the complete blocks of the file when the update was read
+ */
+public record FollowUpdate(Dataset dataset, Schema schema, long firstRecord, List<GenericRecord> records,
+                           List<Map<String, Object>> matches, long totalRecords) {
+}
@@ -5,5 +5,8 @@ import org.apache.avro.generic.GenericRecord;
 
 import java.util.List;
 
-public record Page(Schema schema, List<GenericRecord> records, boolean hasNext) {
+/**
+ * @param firstRecord index of {@code records.get(0)} within the file
+ */
+public record Page(Schema schema, List<GenericRecord> records, boolean hasNext, long firstRecord) {
 }
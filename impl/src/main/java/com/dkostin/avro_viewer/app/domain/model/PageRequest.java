@@ -0,0 +1,16 @@
+package com.dkostin.avro_viewer.app.domain.model;
+
+import java.util.Set;
+
+/**
+ * A browse page the user navigated to, captured at navigation time so it can be read off the UI thread.
+ *
+ * @param generation increases with every navigation; only the newest request may be shown
+ * @param pageIndex  0-based page, or {@link #LAST_PAGE} while the record count is still unknown
+ * @param fields     projection of the page, {@code null} = all fields
+ */
+public record PageRequest(long generation, Dataset dataset, int pageIndex, int pageSize, Set<String> fields) {
+
+    /** Page index placeholder resolved from the block indexes when the page is loaded. */
+    public static final int LAST_PAGE = -1;
+}
@@ -0,0 +1,23 @@
+package com.dkostin.avro_viewer.app.domain.model;
+
+import lombok.Getter;
+
+import java.io.Serial;
+import java.util.LinkedHashMap;
+
+/**
+ * Shallow table row: scalar fields as values, nested fields pre-formatted as (truncated) strings.
+ * Carries the record's position in the file so the full structure can be decoded on demand.
+ */
+@Getter
+public class RecordSummary extends LinkedHashMap<String, Object> {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long recordIndex;
+
+    public RecordSummary(int fieldCount, long recordIndex) {
+        super(Math.max(16, fieldCount * 4 / 3 + 1));
+        this.recordIndex = recordIndex;
+    }
+}
@@ -0,0 +1,16 @@
+package com.dkostin.avro_viewer.app.domain.model;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+
+import java.util.List;
+
+/**
+ * Records drawn at random from the whole file (or dataset), in file order.
+ *
+ * @param recordIndexes position of each record within the file, parallel to {@code records}
+ * @param totalRecords  records the sample was drawn from
+ * @param blocksRead    blocks that were decoded to draw it
+ */
+public record Sample(Schema schema, List<GenericRecord> records, long[] recordIndexes, long totalRecords, int blocksRead) {
+}
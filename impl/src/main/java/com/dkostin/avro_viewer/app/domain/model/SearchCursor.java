@@ -0,0 +1,17 @@
+package com.dkostin.avro_viewer.app.domain.model;
+
+/**
+ * Where a search stopped after filling its result limit, so the next batch of matches can be read without
+ * scanning the records before it again. Only valid for the dataset version it was taken from.
+ *
+ * @param dataset        the searched dataset
+ * @param datasetVersion last-modified millis of the dataset when the search ran
+ * @param part           index of the part file holding the last returned match
+ * @param blockOffset    file offset of the block holding the last returned match
+ * @param ordinal        position of the last returned match inside its block
+ * @param scanned        records checked up to and including the last returned match, over all batches
+ * @param matched        matches returned so far, over all batches
+ */
+public record SearchCursor(Dataset dataset, long datasetVersion, int part, long blockOffset, long ordinal,
+                           long scanned, int matched) {
+}
@@ -0,0 +1,17 @@
+package com.dkostin.avro_viewer.app.domain.model;
+
+import org.apache.avro.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches a running search found since its previous progress report, in file order.
+ *
+ * @param schema  schema of the matches, {@code null} while nothing has matched yet
+ * @param hits    the new matches only, normalized
+ * @param scanned records checked so far
+ * @param matched matches reported so far, {@code hits} included
+ */
+public record SearchProgress(Schema schema, List<Map<String, Object>> hits, long scanned, int matched) {
+}
@@ -9,7 +9,11 @@ public record SearchResult(
         Schema schema,
         List<Map<String, Object>> records,
         boolean truncated,   // true if stop for maxResults
-        long scanned         // how much record were checked
+        long scanned,        // how much record were checked
+        SearchCursor next    // where the next batch starts; null when nothing is left to resume
 ) {
-}
 
+    public SearchResult(Schema schema, List<Map<String, Object>> records, boolean truncated, long scanned) {
+        this(schema, records, truncated, scanned, null);
+    }
+}
@@ -38,6 +38,37 @@ public enum MatchOperation {
             return normalize(actual).endsWith(normalize(expected));
         }
     },
+    GREATER_THAN(">") {
+        @Override
+        public boolean matches(Object actual, Object expected) {
+            return inRange(actual, expected);
+        }
+    },
+    GREATER_OR_EQUAL(">=") {
+        @Override
+        public boolean matches(Object actual, Object expected) {
+            return inRange(actual, expected);
+        }
+    },
+    LESS_THAN("<") {
+        @Override
+        public boolean matches(Object actual, Object expected) {
+            return inRange(actual, expected);
+        }
+    },
+    LESS_OR_EQUAL("<=") {
+        @Override
+        public boolean matches(Object actual, Object expected) {
+            return inRange(actual, expected);
+        }
+    },
+    /** Value {@code from..to}, both ends inclusive, see {@link RangeBounds}. */
+    BETWEEN("between") {
+        @Override
+        public boolean matches(Object actual, Object expected) {
+            return inRange(actual, expected);
+        }
+    },
     IS_NULL("is null") {
         @Override
         public boolean matches(Object actual, Object expected) {
@@ -58,11 +89,26 @@ public enum MatchOperation {
      */
     public abstract boolean matches(Object actual, Object expected);
 
+    /**
+     * Whether this operation compares the value with {@link RangeBounds} instead of matching it.
+     */
+    public boolean isRange() {
+        return switch (this) {
+            case GREATER_THAN, GREATER_OR_EQUAL, LESS_THAN, LESS_OR_EQUAL, BETWEEN -> true;
+            default -> false;
+        };
+    }
+
     @Override
     public String toString() {
         return label;
     }
 
+    boolean inRange(Object actual, Object expected) {
+        RangeBounds bounds = RangeBounds.of(this, expected);
+        return bounds != null && bounds.contains(actual);
+    }
+
     /**
      * Normalizes any value to a plain String for lexical comparison.
      * Handles BigDecimal (strips trailing zeros), CharSequence (Avro Utf8), and Enum.
@@ -0,0 +1,190 @@
+package com.dkostin.avro_viewer.app.domain.model.filter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Bounds of a range operation ({@code >, >=, <, <=, between}), parsed once from the criterion's value.
+ * <p>
+ * A {@link MatchOperation#BETWEEN} value is written {@code from..to}, both ends inclusive; either end may be
+ * left out. Each bound keeps its text, its number if it parses as one, and its instant if it parses as an
+ * ISO-8601 date-time or date (UTC unless an offset is given). Numbers are compared with numeric bounds,
+ * instants with instant bounds and anything else by text, so {@code 2024-05-01T10:00..2024-05-01T10:05}
+ * selects both timestamps and ISO strings in that window.
+ *
+ * @param lower {@code null} = unbounded
+ * @param upper {@code null} = unbounded
+ */
+public record RangeBounds(Bound lower, Bound upper) {
+
+    public static final String BETWEEN_SEPARATOR = "..";
+
+    /**
+     * @return the bounds, or {@code null} if {@code op} is not a range operation or there is no value
+     */
+    public static RangeBounds of(MatchOperation op, Object expected) {
+        if (expected == null || !op.isRange()) {
+            return null;
+        }
+        String text = expected instanceof BigDecimal bd ? bd.toPlainString() : expected.toString().trim();
+        return switch (op) {
+            case GREATER_THAN -> new RangeBounds(Bound.parse(text, false), null);
+            case GREATER_OR_EQUAL -> new RangeBounds(Bound.parse(text, true), null);
+            case LESS_THAN -> new RangeBounds(null, Bound.parse(text, false));
+            case LESS_OR_EQUAL -> new RangeBounds(null, Bound.parse(text, true));
+            case BETWEEN -> {
+                int sep = text.indexOf(BETWEEN_SEPARATOR);
+                if (sep < 0) {
+                    yield new RangeBounds(Bound.parse(text, true), Bound.parse(text, true));
+                }
+                String from = text.substring(0, sep).trim();
+                String to = text.substring(sep + BETWEEN_SEPARATOR.length()).trim();
+                yield new RangeBounds(from.isEmpty() ? null : Bound.parse(from, true),
+                        to.isEmpty() ? null : Bound.parse(to, true));
+            }
+            default -> null;
+        };
+    }
+
+    /**
+     * Whether instants can be compared with these bounds: every bound is an instant.
+     */
+    public boolean hasInstants() {
+        return (lower != null || upper != null)
+                && (lower == null || lower.instant() != null) && (upper == null || upper.instant() != null);
+    }
+
+    /**
+     * Whether numbers can be compared with these bounds: every bound is a number.
+     */
+    public boolean hasNumbers() {
+        return (lower != null || upper != null)
+                && (lower == null || lower.number() != null) && (upper == null || upper.number() != null);
+    }
+
+    public boolean contains(Object actual) {
+        if (actual == null) {
+            return false;
+        }
+        if (actual instanceof Instant t) {
+            return hasInstants()
+                    && (lower == null || above(t.compareTo(lower.instant()), lower))
+                    && (upper == null || below(t.compareTo(upper.instant()), upper));
+        }
+        if (actual instanceof Number n) {
+            if (!hasNumbers() || isNaN(n)) {
+                return false;
+            }
+            return (lower == null || above(compare(n, lower), lower))
+                    && (upper == null || below(compare(n, upper), upper));
+        }
+        String s = actual instanceof CharSequence cs ? cs.toString()
+                : actual instanceof Enum<?> e ? e.name() : String.valueOf(actual);
+        return (lower == null || above(s.compareTo(lower.text()), lower))
+                && (upper == null || below(s.compareTo(upper.text()), upper));
+    }
+
+    /**
+     * Whether some number between {@code min} and {@code max} (inclusive) lies within the numeric bounds.
+     */
+    public boolean overlaps(Number min, Number max) {
+        if (!hasNumbers()) {
+            return true;
+        }
+        return (lower == null || above(compare(max, lower), lower))
+                && (upper == null || below(compare(min, upper), upper));
+    }
+
+    /**
+     * Whether some instant between {@code min} and {@code max} (inclusive) lies within the instant bounds.
+     */
+    public boolean overlaps(Instant min, Instant max) {
+        if (!hasInstants()) {
+            return true;
+        }
+        return (lower == null || above(max.compareTo(lower.instant()), lower))
+                && (upper == null || below(min.compareTo(upper.instant()), upper));
+    }
+
+    private static boolean above(int cmp, Bound lower) {
+        return cmp > 0 || cmp == 0 && lower.inclusive();
+    }
+
+    private static boolean below(int cmp, Bound upper) {
+        return cmp < 0 || cmp == 0 && upper.inclusive();
+    }
+
+    private static boolean isNaN(Number n) {
+        return n instanceof Double d && d.isNaN() || n instanceof Float f && f.isNaN();
+    }
+
+    /**
+     * Compares a number with a numeric bound: long arithmetic for integral values against an integral bound,
+     * exact decimal arithmetic otherwise.
+     */
+    private static int compare(Number n, Bound bound) {
+        if ((n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte) && bound.integral()) {
+            return Long.compare(n.longValue(), bound.longValue());
+        }
+        if (n instanceof Double || n instanceof Float) {
+            double d = n.doubleValue();
+            if (Double.isInfinite(d)) {
+                return d > 0 ? 1 : -1;
+            }
+            return BigDecimal.valueOf(d).compareTo(bound.number());
+        }
+        BigDecimal bd = n instanceof BigDecimal b ? b
+                : n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte
+                ? BigDecimal.valueOf(n.longValue()) : new BigDecimal(n.toString());
+        return bd.compareTo(bound.number());
+    }
+
+    /**
+     * @param number    the bound as a number, {@code null} if it is not one
+     * @param instant   the bound as an instant, {@code null} if it is not one
+     * @param longValue the number as a long, valid when {@code integral}
+     */
+    public record Bound(String text, BigDecimal number, Instant instant, boolean inclusive,
+                        boolean integral, long longValue) {
+
+        static Bound parse(String text, boolean inclusive) {
+            BigDecimal number = null;
+            try {
+                number = new BigDecimal(text);
+            } catch (NumberFormatException ignored) {
+            }
+            boolean integral = false;
+            long longValue = 0;
+            if (number != null) {
+                try {
+                    longValue = number.longValueExact();
+                    integral = true;
+                } catch (ArithmeticException ignored) {
+                    // fraction or out of range: compared as decimals
+                }
+            }
+            return new Bound(text, number, number == null ? parseInstant(text) : null, inclusive, integral, longValue);
+        }
+
+        private static Instant parseInstant(String text) {
+            try {
+                return OffsetDateTime.parse(text).toInstant();
+            } catch (DateTimeParseException ignored) {
+            }
+            try {
+                return LocalDateTime.parse(text).toInstant(ZoneOffset.UTC);
+            } catch (DateTimeParseException ignored) {
+            }
+            try {
+                return LocalDate.parse(text).atStartOfDay(ZoneOffset.UTC).toInstant();
+            } catch (DateTimeParseException ignored) {
+            }
+            return null;
+        }
+    }
+}
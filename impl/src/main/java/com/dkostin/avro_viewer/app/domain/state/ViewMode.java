@@ -1,5 +1,5 @@
 package com.dkostin.avro_viewer.app.domain.state;
 
 public enum ViewMode {
-    BROWSE, SEARCH
+    BROWSE, SEARCH, SAMPLE
 }
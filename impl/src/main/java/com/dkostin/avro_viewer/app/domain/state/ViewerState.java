@@ -1,16 +1,17 @@
 package com.dkostin.avro_viewer.app.domain.state;
 
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.avro.Schema;
 
-import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 @Getter
 public final class ViewerState {
-    private Path file;
+    private Dataset dataset;
 
     @Setter
     private Schema schema;
@@ -22,18 +23,30 @@ public final class ViewerState {
     @Setter
     private boolean hasNext;
 
+    // -1 until the background count for the current dataset finishes; written by the counting thread
+    @Setter
+    private volatile long totalRecords = -1;
+
+    private Set<String> visibleFields; // top-level fields decoded for browse pages, null = all
+
     private ViewMode mode = ViewMode.BROWSE;
     private List<FilterCriterion> criteria = List.of();
     private int maxResults = 500;
 
-    public void openFile(Path file) {
-        this.file = file;
+    public void open(Dataset dataset) {
+        this.dataset = dataset;
         this.schema = null;
         this.pageIndex = 0;
         this.hasNext = true;
+        this.totalRecords = -1;
+        this.visibleFields = null;
         this.mode = ViewMode.BROWSE;
     }
 
+    public void setVisibleFields(Set<String> visibleFields) {
+        this.visibleFields = visibleFields == null ? null : Set.copyOf(visibleFields);
+    }
+
     public void setPageSize(int pageSize) {
         if (pageSize <= 0) {
             throw new IllegalArgumentException("pageSize must be > 0");
@@ -56,6 +69,13 @@ public final class ViewerState {
         }
     }
 
+    public void goToPage(int pageIndex) {
+        if (pageIndex < 0) {
+            throw new IllegalArgumentException("pageIndex must be >= 0");
+        }
+        this.pageIndex = pageIndex;
+    }
+
     public void setSearch(List<FilterCriterion> criteria, int maxResults) {
         this.criteria = List.copyOf(criteria);
         this.maxResults = maxResults;
@@ -63,6 +83,20 @@ public final class ViewerState {
         resetToFirstPage();
     }
 
+    /**
+     * Shows a random sample instead of a page; the page position is kept for returning to browse mode.
+     */
+    public void setSampleMode() {
+        this.mode = ViewMode.SAMPLE;
+    }
+
+    public void clearSample() {
+        if (mode == ViewMode.SAMPLE) {
+            this.mode = ViewMode.BROWSE;
+            this.hasNext = true;
+        }
+    }
+
     public void clearSearch() {
         this.criteria = List.of();
         this.maxResults = 500;
@@ -70,10 +104,24 @@ public final class ViewerState {
         resetToFirstPage();
     }
 
+    /**
+     * Number of pages for the current page size, or -1 while the total record count is unknown.
+     */
+    public long getPageCount() {
+        if (totalRecords < 0) {
+            return -1;
+        }
+        return Math.max(1, (totalRecords + pageSize - 1) / pageSize);
+    }
+
     public boolean isSearchMode() {
         return mode == ViewMode.SEARCH;
     }
 
+    public boolean isSampleMode() {
+        return mode == ViewMode.SAMPLE;
+    }
+
     // pageSize updated => reset paging
     public void resetToFirstPage() {
         this.pageIndex = 0;
@@ -1,15 +1,92 @@
 package com.dkostin.avro_viewer.app.service.api;
 
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
 import com.dkostin.avro_viewer.app.domain.model.Page;
+import com.dkostin.avro_viewer.app.domain.model.Sample;
+import com.dkostin.avro_viewer.app.domain.model.SearchCursor;
+import com.dkostin.avro_viewer.app.domain.model.SearchProgress;
 import com.dkostin.avro_viewer.app.domain.model.SearchResult;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import org.apache.avro.generic.GenericRecord;
 
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 public interface AvroFileService {
-    Page readPage(Path file, int pageIndex, int pageSize) throws IOException;
+    default Page readPage(Dataset dataset, int pageIndex, int pageSize, Set<String> fields) throws IOException {
+        return readPage(dataset, pageIndex, pageSize, fields, () -> false);
+    }
 
-    SearchResult search(Path file, List<FilterCriterion> criteria, int maxResults) throws Exception;
+    /**
+     * @param cancelled polled while decoding; once it returns {@code true} the read stops
+     * @return the page, or {@code null} if the read was cancelled before the page was complete
+     */
+    Page readPage(Dataset dataset, int pageIndex, int pageSize, Set<String> fields, BooleanSupplier cancelled) throws IOException;
+
+    long countRecords(Dataset dataset) throws IOException;
+
+    GenericRecord readRecord(Dataset dataset, long recordIndex) throws IOException;
+
+    /**
+     * Reads up to {@code maxRecords} records starting at {@code fromRecord}, e.g. the ones appended to a file
+     * since it was last read. Only complete blocks are read: a block still being written is left for later.
+     *
+     * @param fields projection of the records, {@code null} = all fields
+     * @return the records; {@link Page#hasNext()} tells whether more complete records follow them
+     */
+    Page readRecords(Dataset dataset, long fromRecord, int maxRecords, Set<String> fields) throws IOException;
+
+    /**
+     * Draws about {@code count} records at random from the whole dataset, decoding only a few blocks.
+     *
+     * @param fields projection of the sampled records, {@code null} = all fields
+     * @param seed   seed of the random choices
+     */
+    Sample sample(Dataset dataset, int count, Set<String> fields, long seed) throws IOException;
+
+    void cancelReadAhead();
+
+    default SearchResult search(Dataset dataset, List<FilterCriterion> criteria, int maxResults) throws Exception {
+        return search(dataset, criteria, maxResults, _ -> {});
+    }
+
+    /**
+     * Searches the dataset and reports matches while the scan runs: every match of the result reaches
+     * {@code progress} before the call returns, in file order and batched, on the searching thread.
+     */
+    default SearchResult search(Dataset dataset, List<FilterCriterion> criteria, int maxResults,
+                                Consumer<SearchProgress> progress) throws Exception {
+        return search(dataset, criteria, maxResults, null, progress);
+    }
+
+    /**
+     * Continues a search after the match {@code from} points at, with the same criteria it was taken with.
+     * Counters of the result and of the progress reports include the earlier batches.
+     *
+     * @param from {@link SearchResult#next()} of the previous batch, {@code null} = from the start
+     * @throws IllegalStateException if the dataset was modified since {@code from} was taken
+     */
+    default SearchResult search(Dataset dataset, List<FilterCriterion> criteria, int maxResults, SearchCursor from,
+                                Consumer<SearchProgress> progress) throws Exception {
+        return search(dataset, criteria, maxResults, from, progress, () -> false);
+    }
+
+    /**
+     * Like {@link #search(Dataset, List, int, SearchCursor, Consumer)}, stopping early once {@code cancelled}
+     * returns {@code true}: the matches found so far are returned as a truncated result without a cursor.
+     */
+    SearchResult search(Dataset dataset, List<FilterCriterion> criteria, int maxResults, SearchCursor from,
+                        Consumer<SearchProgress> progress, BooleanSupplier cancelled) throws Exception;
+
+    /**
+     * Indexes top-level fields for {@code EQUALS} lookups: records which values every block holds, so a search
+     * for one value reads only the blocks that may contain it. Opt-in, as the index takes about 10 bits per
+     * record and field.
+     *
+     * @return the fields that were indexed; only string, enum, int and long fields can be
+     */
+    Set<String> indexForLookups(Dataset dataset, Set<String> fields) throws IOException;
 }
@@ -1,5 +1,6 @@
 package com.dkostin.avro_viewer.app.service.api;
 
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
 import com.dkostin.avro_viewer.app.domain.model.Page;
 
 import java.nio.file.Path;
@@ -8,5 +9,9 @@ public interface FileLoader {
 
     Page openFile(Path filePath) throws Exception;
 
+    Page openDataset(Dataset dataset) throws Exception;
+
     boolean isFileOpen();
+
+    long countRecords() throws Exception;
 }
@@ -0,0 +1,31 @@
+package com.dkostin.avro_viewer.app.service.api;
+
+import com.dkostin.avro_viewer.app.domain.model.FollowUpdate;
+
+public interface FollowFacade {
+
+    /**
+     * Starts following the open file, which must be a single file.
+     *
+     * @param fromRecord first record to report, or -1 for whatever gets appended after the first poll
+     */
+    void startFollowing(long fromRecord);
+
+    /**
+     * Reads the records appended since the last applied update; safe to call off the UI thread.
+     *
+     * @return the update, or null if nothing was appended or following stopped
+     */
+    FollowUpdate pollAppended() throws Exception;
+
+    /**
+     * Takes a polled update into the state (UI thread).
+     *
+     * @return false if the update is stale and must not be shown
+     */
+    boolean applyFollowUpdate(FollowUpdate update);
+
+    void stopFollowing();
+
+    boolean isFollowing();
+}
@@ -1,14 +1,61 @@
 package com.dkostin.avro_viewer.app.service.api;
 
 import com.dkostin.avro_viewer.app.domain.model.Page;
+import com.dkostin.avro_viewer.app.domain.model.PageRequest;
 
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Browse-mode paging. Navigation is split so that no file I/O happens on the UI thread:
+ * the navigation methods only move the state and return a {@link PageRequest},
+ * {@link #loadPage(PageRequest)} reads it on any thread, and {@link #applyPage(PageRequest, Page)}
+ * takes the result back on the UI thread. Each navigation supersedes the pending ones.
+ */
 public interface PageNavigator {
 
-    Page nextPage() throws Exception;
+    /** @return the request for the next page, or null if there is none */
+    PageRequest nextPage();
+
+    /** @return the request for the previous page, or null on the first page */
+    PageRequest prevPage();
+
+    PageRequest changePageSize(int newPageSize);
+
+    /**
+     * @param pageIndex 0-based; clamped to the last page once the record count is known
+     * @return the request for that page, or null if no file is browsed
+     */
+    PageRequest goToPage(int pageIndex);
+
+    /** @return the request for the last page, or null if no file is browsed */
+    PageRequest goToLastPage();
 
-    Page prevPage() throws Exception;
+    /**
+     * @param recordIndex 0-based position of the record in the file (or dataset)
+     * @return the request for the page holding the record, or null if no file is browsed
+     * @throws IllegalArgumentException if the record is out of range
+     */
+    PageRequest goToRecord(long recordIndex);
 
-    Page changePageSize(int newPageSize) throws Exception;
+    /** @return the request for the current page with the new projection, or null if nothing to reload */
+    PageRequest setVisibleFields(Set<String> fields);
+
+    /**
+     * Reads the requested page; safe to call off the UI thread.
+     *
+     * @return the page, or null if a newer navigation superseded the request (possibly mid-decode)
+     */
+    Page loadPage(PageRequest request) throws Exception;
+
+    /**
+     * Records a loaded page in the viewer state.
+     *
+     * @return false if the page is stale and must not be shown
+     */
+    boolean applyPage(PageRequest request, Page page);
+
+    Map<String, Object> readRecord(long recordIndex) throws Exception;
 
     int getPageIndex();
 
@@ -17,4 +64,8 @@ public interface PageNavigator {
     void setPageSize(int pageSize);
 
     boolean hasNextPage();
+
+    long getTotalRecords();
+
+    long getPageCount();
 }
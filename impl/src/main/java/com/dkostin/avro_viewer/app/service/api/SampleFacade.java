@@ -0,0 +1,26 @@
+package com.dkostin.avro_viewer.app.service.api;
+
+import com.dkostin.avro_viewer.app.domain.model.PageRequest;
+import com.dkostin.avro_viewer.app.domain.model.Sample;
+
+public interface SampleFacade {
+
+    /**
+     * Switches to sample mode; browse pages still loading are dropped.
+     */
+    void enterSampleMode();
+
+    /**
+     * Draws {@code count} random records from the whole open file; safe to call off the UI thread.
+     */
+    Sample sample(int count) throws Exception;
+
+    /**
+     * Leaves sample mode.
+     *
+     * @return the request for the browse page that was shown before, or null if not sampling
+     */
+    PageRequest exitSample();
+
+    boolean isSampleMode();
+}
@@ -1,15 +1,56 @@
 package com.dkostin.avro_viewer.app.service.api;
 
 import com.dkostin.avro_viewer.app.domain.model.Page;
+import com.dkostin.avro_viewer.app.domain.model.SearchProgress;
 import com.dkostin.avro_viewer.app.domain.model.SearchResult;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
 import javafx.beans.property.IntegerProperty;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 public interface SearchFacade {
 
-    SearchResult search(List<FilterCriterion> criteria, int maxResults) throws Exception;
+    default SearchResult search(List<FilterCriterion> criteria, int maxResults) throws Exception {
+        return search(criteria, maxResults, _ -> {});
+    }
+
+    default SearchResult search(List<FilterCriterion> criteria, int maxResults, Consumer<SearchProgress> progress) throws Exception {
+        return search(criteria, maxResults, progress, () -> false);
+    }
+
+    /**
+     * @param progress  receives the matches in batches while the scan runs, see {@link AvroFileService#search}
+     * @param cancelled stops the scan early, keeping the matches found so far
+     */
+    SearchResult search(List<FilterCriterion> criteria, int maxResults, Consumer<SearchProgress> progress,
+                        BooleanSupplier cancelled) throws Exception;
+
+    default SearchResult searchMore(Consumer<SearchProgress> progress) throws Exception {
+        return searchMore(progress, () -> false);
+    }
+
+    /**
+     * Reads the next {@code maxResults} matches of the current search, starting after the last one returned.
+     *
+     * @param cancelled stops the scan early, keeping the matches found so far
+     * @return the next batch only; {@code null} if there is nothing to continue
+     */
+    SearchResult searchMore(Consumer<SearchProgress> progress, BooleanSupplier cancelled) throws Exception;
+
+    /**
+     * @return whether the last search batch stopped at its limit and can be continued by {@link #searchMore}
+     */
+    boolean hasMoreResults();
+
+    /**
+     * Indexes {@code fields} of the open dataset for {@code EQUALS} lookups, see {@link AvroFileService#indexForLookups}.
+     *
+     * @return the fields that were indexed
+     */
+    Set<String> indexForLookups(Set<String> fields) throws Exception;
 
     Page clearSearch() throws Exception;
 
@@ -1,45 +1,201 @@
 package com.dkostin.avro_viewer.app.service.impl;
 
 import com.dkostin.avro_viewer.app.config.FilterPredicateFactory;
+import com.dkostin.avro_viewer.app.config.ReaderConfig;
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
 import com.dkostin.avro_viewer.app.domain.model.Page;
+import com.dkostin.avro_viewer.app.domain.model.Sample;
+import com.dkostin.avro_viewer.app.domain.model.SearchCursor;
+import com.dkostin.avro_viewer.app.domain.model.SearchProgress;
 import com.dkostin.avro_viewer.app.domain.model.SearchResult;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
 import com.dkostin.avro_viewer.app.service.api.AvroFileService;
-import lombok.RequiredArgsConstructor;
+import com.dkostin.avro_viewer.app.service.impl.cache.CacheStats;
+import com.dkostin.avro_viewer.app.service.impl.cache.EncodedPage;
+import com.dkostin.avro_viewer.app.service.impl.cache.SearchResultCache;
+import com.dkostin.avro_viewer.app.service.impl.cache.WeightedLruCache;
+import com.dkostin.avro_viewer.app.service.impl.dataset.DatasetIndex;
+import com.dkostin.avro_viewer.app.service.impl.dataset.DatasetParts;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockBloomFilter;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndex;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndexStore;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndexer;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockSampler;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockScanner;
+import com.dkostin.avro_viewer.app.service.impl.index.BloomFilterBuilder;
+import com.dkostin.avro_viewer.app.service.impl.index.FileIdentity;
+import com.dkostin.avro_viewer.app.service.impl.index.LookupFilter;
+import com.dkostin.avro_viewer.app.service.impl.index.ZoneFilter;
+import com.dkostin.avro_viewer.app.service.impl.index.ZoneMapBuilder;
+import com.dkostin.avro_viewer.app.util.AvroNormalizer;
+import com.dkostin.avro_viewer.app.util.BlockFilter;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileReader;
-import org.apache.avro.file.SeekableFileInput;
+import org.apache.avro.file.SeekableInput;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
- * Optimized for sequential paging (Prev/Next):
- * - keeps a single open DataFileReader session for current file+pageSize
- * - caches last N pages (LRU) to make Prev instant and reduce repeated reads
+ * Optimized for sequential paging (Prev/Next), safe for concurrent callers:
+ * - keeps a bounded pool of open readers per dataset ({@link PagingSessionPool}); each read borrows one exclusively,
+ *   so the UI, read-ahead and other loaders never wait on each other, and every reader remembers its position
+ * - caches recent pages (LRU within a byte budget) to make Prev instant and reduce repeated reads; pages are held
+ *   Avro-encoded ({@link EncodedPage}) and decoded per hit, which packs several times more pages into the budget
+ * - page jumps seek straight to the containing block via a {@link BlockIndex} built from the block headers
+ * - the block index is persisted by {@link BlockIndexStore}, so reopening a known file needs no scan at all
+ * - after each served page, the next {@value #READ_AHEAD_PAGES} pages are decoded into the cache on a background thread
+ * - pages can be read with a projection onto visible fields; the reader schema then skips the rest in the decoder
+ * - a {@link Dataset} of many part files pages globally: a session walks the parts in order, and jumps go
+ *   through a {@link DatasetIndex} of per-part record counts (taken from the parts' block indexes)
  * <p>
  * Notes:
- * - Not designed for heavy multi-thread concurrent reads. Controller should not call readPage concurrently.
- * - search() intentionally opens its own reader (separate flow).
+ * - Concurrent reads of the same uncached page both decode it; the page cache dedupes only finished pages.
+ * - Read-ahead borrows its own session; every foreground call supersedes it via a generation token
+ *   (no thread interrupts: interrupting a FileChannel read would close the session's file).
+ * - search() intentionally opens its own readers (separate flow); files are cut into block ranges that are
+ *   scanned concurrently, one reader each, and merged in file order. Their matches are cached with their
+ *   positions: the same or a narrower search over unchanged files re-tests those instead of scanning again.
+ *   Range criteria on numeric fields skip the blocks whose zone maps (per-block min/max, kept with the block
+ *   index) rule out a match; lookups on fields indexed by {@link #indexForLookups} skip the blocks whose Bloom
+ *   filters do not contain the value.
+ * - A dataset's part list is re-read when its root's modification time changes (parts added or removed); cached
+ *   pages and part counts are keyed by the identities (path, size, modification time) of all parts, so a part
+ *   rewritten in place is read again as well.
  */
-@RequiredArgsConstructor
 public class AvroFileServiceImpl implements AvroFileService {
 
-    private static final int DEFAULT_PAGE_CACHE_SIZE = 4;
+    private static final int READ_AHEAD_PAGES = 2;
+
+    private static final int PART_PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    // idle readers kept open per dataset, and datasets that keep idle readers at all
+    private static final int READER_POOL_SIZE = 4;
+    private static final int POOLED_DATASETS = 8;
+
+    // blocks decoded for one sample: enough spread for small samples, a bounded cost for large ones
+    private static final int MIN_SAMPLE_BLOCKS = 8;
+    private static final int MAX_SAMPLE_BLOCKS = 64;
+
+    // block indexes take 16 bytes per block (and as much per zone map), so this holds indexes of many large files;
+    // Bloom filters take about 10 bits per record and indexed field
+    private static final long BLOCK_INDEX_CACHE_BYTES = 8L << 20;
+
+    // zone maps and Bloom filters are built in chunks of at least this many blocks (a reader and a seek per chunk)
+    private static final int MIN_BLOCK_SCAN_CHUNK = 16;
+
+    // search splits files into block ranges: at least this big (a reader and a seek per range)...
+    private static final long MIN_SEARCH_RANGE_BYTES = 8L << 20;
+    // ...and about this many per worker, so uneven match density still keeps every core busy
+    private static final int SEARCH_RANGES_PER_THREAD = 4;
+
+    // matches found by a running search are reported at most this often; the scan count every so many records
+    private static final long SEARCH_PROGRESS_MILLIS = 200;
+    private static final int SEARCH_PROGRESS_RECORDS = 4_096;
+
+    // encoded matches of recent searches, for repeated and narrowed searches over unchanged files
+    private static final long SEARCH_CACHE_BYTES = 32L << 20;
 
     private final FilterPredicateFactory predicateFactory;
 
-    private final Object lock = new Object();
+    private final BlockIndexStore indexStore;
+
+    private final SeekableInputFactory inputFactory;
+
+    // guard the part list and the per-part record counts of the last dataset; a running count holds only
+    // datasetLock, so opening a session (which needs just the part list) does not wait for it
+    private final Object partsLock = new Object();
+    private final Object datasetLock = new Object();
+
+    // LRU cache of encoded pages bounded by their byte size (history for Prev + pages read ahead for Next)
+    private final WeightedLruCache<PageKey, EncodedPage> pageCache;
 
-    // small LRU cache of pages
-    private final LruCache<PageKey, Page> pageCache = new LruCache<>(DEFAULT_PAGE_CACHE_SIZE);
+    private final SearchResultCache searchCache = new SearchResultCache(SEARCH_CACHE_BYTES);
 
-    // open reading session for sequential Next
-    private Session session;
+    private final ExecutorService readAheadExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "avro-read-ahead");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // per-part work of a dataset: block-index scans for counting and concurrent search
+    private final ExecutorService partExecutor = Executors.newFixedThreadPool(PART_PARALLELISM, r -> {
+        Thread t = new Thread(r, "avro-parts");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // bumped by every foreground call: a running read-ahead stops as soon as it sees a newer generation
+    private final AtomicLong readAheadGeneration = new AtomicLong();
+    // scheduled by page reads on the caller's thread, cancelled from any thread
+    private volatile Future<?> readAhead;
+
+    // open readers, positioned where their last read stopped
+    private final PagingSessionPool sessions = new PagingSessionPool(READER_POOL_SIZE, POOLED_DATASETS);
+
+    // smallest search range; package-private so tests can split small files
+    long minSearchRangeBytes = MIN_SEARCH_RANGE_BYTES;
+
+    // block index of the latest seen version of recently jumped-into files (sidecar or header scan, loaded lazily)
+    private final WeightedLruCache<Path, VersionedIndex> blockIndexes =
+            new WeightedLruCache<>(BLOCK_INDEX_CACHE_BYTES,
+                    v -> 64L + 16L * v.index().blockCount() * (1 + v.index().zoneMaps().size())
+                            + v.index().bloomFilters().stream().mapToLong(BlockBloomFilter::byteSize).sum(), false);
+
+    // parts (directory listing) and per-part record counts of the last dataset, for its current version
+    private DatasetVersion partsVersion;
+    private List<Path> parts;
+    private List<FileIdentity> datasetIndexParts;
+    private DatasetIndex datasetIndex;
+
+    public AvroFileServiceImpl(FilterPredicateFactory predicateFactory, BlockIndexStore indexStore,
+                               SeekableInputFactory inputFactory) {
+        this(predicateFactory, indexStore, inputFactory, ReaderConfig.DEFAULT_PAGE_CACHE_BYTES, false);
+    }
+
+    /**
+     * @param pageCacheBytes approximate heap budget for cached pages
+     * @param softPageCache  let the GC reclaim cached pages under memory pressure
+     */
+    public AvroFileServiceImpl(FilterPredicateFactory predicateFactory, BlockIndexStore indexStore,
+                               SeekableInputFactory inputFactory, long pageCacheBytes, boolean softPageCache) {
+        this.predicateFactory = predicateFactory;
+        this.indexStore = indexStore;
+        this.inputFactory = inputFactory;
+        this.pageCache = new WeightedLruCache<>(pageCacheBytes, EncodedPage::weight, softPageCache);
+    }
+
+    /**
+     * Hit/miss/eviction counters of the page cache.
+     */
+    public CacheStats pageCacheStats() {
+        return pageCache.stats();
+    }
+
+    /**
+     * Hit/miss/eviction counters of the search result cache; a narrowed search probes it once per criteria subset.
+     */
+    public CacheStats searchCacheStats() {
+        return searchCache.stats();
+    }
 
     private static long safeLastModifiedMillis(Path file) {
         try {
@@ -49,232 +205,1155 @@ public class AvroFileServiceImpl implements AvroFileService {
         }
     }
 
-    @Override
     public Page readPage(Path file, int pageIndex, int pageSize) throws IOException {
-        Objects.requireNonNull(file, "file");
+        return readPage(Dataset.of(file), pageIndex, pageSize, null);
+    }
+
+    /**
+     * Reads a page; records are decoded with a reader schema limited to {@code fields}
+     * ({@code null} = all fields). {@link Page#schema()} is always the full writer schema
+     * (of the first part, for a multi-part dataset).
+     * <p>
+     * A cancelled read stops between two records, leaves its reader pooled and schedules no read-ahead.
+     */
+    @Override
+    public Page readPage(Dataset dataset, int pageIndex, int pageSize, Set<String> fields,
+                         BooleanSupplier cancelled) throws IOException {
+        Objects.requireNonNull(dataset, "dataset");
         if (pageIndex < 0) throw new IllegalArgumentException("pageIndex must be >= 0");
         if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be > 0");
 
-        long lastModified = safeLastModifiedMillis(file);
-        PageKey key = new PageKey(file.normalize(), lastModified, pageIndex, pageSize);
+        if (cancelled.getAsBoolean()) {
+            return null; // superseded before it started: leave the newer request's read-ahead alone
+        }
+        cancelReadAhead();
+
+        long lastModified = safeLastModifiedMillis(dataset.root());
+        List<FileIdentity> identities = identities(parts(dataset, lastModified));
+        Set<String> projection = fields == null ? null : Set.copyOf(fields);
+        Page page = loadPage(dataset, lastModified, identities, pageIndex, pageSize, projection, cancelled);
+        if (page != null && page.hasNext()) {
+            scheduleReadAhead(dataset, lastModified, identities, pageIndex + 1, pageSize, projection);
+        }
+        return page;
+    }
+
+    /**
+     * Total number of records, taken from the block indexes (sidecar or block-header scan, no payload decoding).
+     */
+    @Override
+    public long countRecords(Dataset dataset) throws IOException {
+        Objects.requireNonNull(dataset, "dataset");
+        return datasetIndex(dataset, safeLastModifiedMillis(dataset.root())).totalRecords();
+    }
+
+    /**
+     * Decodes a single full record (writer schema, no projection) by its index in the dataset.
+     * Borrows a pooled reader and seeks through the indexes to the containing part and block.
+     */
+    @Override
+    public GenericRecord readRecord(Dataset dataset, long recordIndex) throws IOException {
+        Objects.requireNonNull(dataset, "dataset");
+        long lastModified = safeLastModifiedMillis(dataset.root());
+        DatasetIndex partIndex = datasetIndex(dataset, lastModified);
+        if (recordIndex < 0 || recordIndex >= partIndex.totalRecords()) {
+            throw new IOException("Record " + recordIndex + " is out of range for " + dataset.displayName()
+                    + " (" + partIndex.totalRecords() + " records)");
+        }
+
+        PagingSession session = borrowSession(dataset, lastModified, recordIndex);
+        boolean reusable = false;
+        try {
+            session.project(null);
+            if (session.nextRecord != recordIndex) {
+                reposition(session, recordIndex);
+            }
+            if (!session.hasNextRecord()) {
+                throw new IOException("Record " + recordIndex + " is missing from " + dataset.displayName());
+            }
+            GenericRecord record = session.next();
+            reusable = true;
+            return record;
+        } finally {
+            releaseSession(session, reusable);
+        }
+    }
+
+    /**
+     * Reads a record range through a pooled reader: a tail read costs one seek to the block holding
+     * {@code fromRecord} plus the decoding of what follows. The range is clipped to the indexed (complete)
+     * blocks, so the reader never touches a partially written tail. Not cached: the range moves as the file grows.
+     */
+    @Override
+    public Page readRecords(Dataset dataset, long fromRecord, int maxRecords, Set<String> fields) throws IOException {
+        Objects.requireNonNull(dataset, "dataset");
+        if (fromRecord < 0) throw new IllegalArgumentException("fromRecord must be >= 0");
+        if (maxRecords <= 0) throw new IllegalArgumentException("maxRecords must be > 0");
+
+        long lastModified = safeLastModifiedMillis(dataset.root());
+        long total = datasetIndex(dataset, lastModified).totalRecords();
+        int count = (int) Math.max(0, Math.min(maxRecords, total - fromRecord));
 
-        synchronized (lock) {
-            Page cached = pageCache.get(key);
-            if (cached != null) {
-                // Update session to follow cached page if it matches current file/pageSize
-                // (optional, but improves "jump then Next" if cache hit)
-                ensureSessionAtEndOfPage(file, lastModified, pageIndex, pageSize);
-                return cached;
+        PagingSession session = borrowSession(dataset, lastModified, fromRecord);
+        boolean reusable = false;
+        try {
+            session.project(fields == null ? null : Set.copyOf(fields));
+            List<GenericRecord> out = new ArrayList<>(count);
+            if (count > 0) {
+                if (session.nextRecord != fromRecord) {
+                    reposition(session, fromRecord);
+                }
+                while (out.size() < count && session.hasNextRecord()) {
+                    out.add(session.next());
+                }
+            }
+            reusable = true;
+            return new Page(session.schema, out, fromRecord + out.size() < total, fromRecord);
+        } finally {
+            releaseSession(session, reusable);
+        }
+    }
+
+    /**
+     * Draws {@code count} records from the whole dataset at the cost of a few blocks: blocks are picked at random,
+     * weighted by record count ({@link BlockSampler}), each is reached with one seek to its sync position, and
+     * the records of the picked blocks are reservoir-sampled. The result is in file order.
+     */
+    @Override
+    public Sample sample(Dataset dataset, int count, Set<String> fields, long seed) throws IOException {
+        Objects.requireNonNull(dataset, "dataset");
+        if (count <= 0) throw new IllegalArgumentException("count must be > 0");
+
+        long lastModified = safeLastModifiedMillis(dataset.root());
+        DatasetIndex partIndex = datasetIndex(dataset, lastModified);
+
+        // all blocks of all parts, as one weighted population
+        List<BlockIndex> indexes = new ArrayList<>(partIndex.partCount());
+        int totalBlocks = 0;
+        for (int p = 0; p < partIndex.partCount(); p++) {
+            BlockIndex index = blockIndex(partIndex.part(p));
+            indexes.add(index);
+            totalBlocks += index.blockCount();
+        }
+        long[] blockCounts = new long[totalBlocks];
+        int[] blockPart = new int[totalBlocks];
+        int[] blockInPart = new int[totalBlocks];
+        for (int p = 0, b = 0; p < indexes.size(); p++) {
+            for (int local = 0; local < indexes.get(p).blockCount(); local++, b++) {
+                blockCounts[b] = indexes.get(p).recordCount(local);
+                blockPart[b] = p;
+                blockInPart[b] = local;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        int wanted = Math.min(MAX_SAMPLE_BLOCKS, Math.max(MIN_SAMPLE_BLOCKS, (count + 3) / 4));
+        int[] chosen = BlockSampler.choose(blockCounts, wanted, random);
+
+        List<GenericRecord> reservoir = new ArrayList<>(Math.min(count, 1024));
+        List<Long> positions = new ArrayList<>(Math.min(count, 1024));
+        PagingSession session = borrowSession(dataset, lastModified, -1);
+        boolean reusable = false;
+        try {
+            session.project(fields == null ? null : Set.copyOf(fields));
+            session.nextRecord = -1; // left between sampled blocks
+            long seen = 0;
+            GenericRecord scratch = null;
+            for (int b : chosen) {
+                int part = blockPart[b];
+                BlockIndex index = indexes.get(part);
+                int block = blockInPart[b];
+                session.moveToPart(part);
+                session.reader.seek(index.blockOffset(block));
+
+                long first = partIndex.firstRecord(part) + index.firstRecord(block);
+                for (long i = 0; i < index.recordCount(block) && session.reader.hasNext(); i++, seen++) {
+                    if (seen < count) {
+                        reservoir.add(session.reader.next());
+                        positions.add(first + i);
+                        continue;
+                    }
+                    // Algorithm R: the record replaces a random slot with probability count / (seen + 1)
+                    long slot = random.nextLong(seen + 1);
+                    scratch = session.reader.next(scratch);
+                    if (slot < count) {
+                        scratch = reservoir.set((int) slot, scratch);
+                        positions.set((int) slot, first + i);
+                    }
+                }
             }
+            reusable = true;
+        } finally {
+            releaseSession(session, reusable);
+        }
 
-            // Ensure we have a session for this file + pageSize + lastModified
-            ensureSession(file, lastModified, pageSize);
+        Integer[] order = new Integer[reservoir.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(positions::get));
+        List<GenericRecord> records = new ArrayList<>(order.length);
+        long[] recordIndexes = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            records.add(reservoir.get(order[i]));
+            recordIndexes[i] = positions.get(order[i]);
+        }
+        return new Sample(session.schema, records, recordIndexes, partIndex.totalRecords(), chosen.length);
+    }
 
-            // Fast path: sequential read
-            if (session.nextPageIndex == pageIndex) {
-                Page page = readNextPageFromSession(pageIndex, pageSize);
-                pageCache.put(key, page);
-                return page;
+    /**
+     * Stops any background read-ahead; called on every foreground read and whenever the view mode changes.
+     */
+    @Override
+    public void cancelReadAhead() {
+        readAheadGeneration.incrementAndGet();
+        Future<?> running = readAhead;
+        if (running != null) {
+            running.cancel(false);
+        }
+    }
+
+    /**
+     * Returns the requested page from the cache or a pooled session.
+     *
+     * @return the page, or {@code null} if {@code aborted} fired before the page was complete
+     */
+    private Page loadPage(Dataset dataset, long lastModified, List<FileIdentity> identities, int pageIndex, int pageSize,
+                          Set<String> projection, BooleanSupplier aborted) throws IOException {
+        PageKey key = new PageKey(identities, pageIndex, pageSize, projection);
+
+        EncodedPage cached = pageCache.get(key);
+        if (cached != null) {
+            return cached.decode();
+        }
+
+        long startRecord = (long) pageIndex * pageSize;
+        PagingSession session = borrowSession(dataset, lastModified, startRecord);
+        boolean reusable = false;
+        try {
+            // decode only the projected fields
+            session.project(projection);
+
+            // Jump path: seek to the block holding the page start; sequential Next finds a session already there
+            if (session.nextRecord != startRecord) {
+                reposition(session, startRecord);
             }
 
-            // Jump path: re-position by reopening and skipping, then keep session open at the end of requested page
-            repositionSessionToPage(file, lastModified, pageIndex, pageSize);
-            Page page = readNextPageFromSession(pageIndex, pageSize); // after reposition, nextPageIndex == pageIndex
-            pageCache.put(key, page);
+            Page page = readPageFromSession(session, startRecord, pageSize, aborted);
+            reusable = true;
+            if (page != null) {
+                pageCache.put(key, EncodedPage.encode(page));
+            }
             return page;
+        } finally {
+            releaseSession(session, reusable);
         }
     }
 
+    private void scheduleReadAhead(Dataset dataset, long lastModified, List<FileIdentity> identities, int firstPageIndex,
+                                   int pageSize, Set<String> projection) {
+        long generation = readAheadGeneration.get();
+        BooleanSupplier superseded = () -> readAheadGeneration.get() != generation;
+
+        readAhead = readAheadExecutor.submit(() -> {
+            for (int p = firstPageIndex; p < firstPageIndex + READ_AHEAD_PAGES; p++) {
+                if (superseded.getAsBoolean()) {
+                    return;
+                }
+                try {
+                    Page page = loadPage(dataset, lastModified, identities, p, pageSize, projection, superseded);
+                    if (page == null || !page.hasNext()) {
+                        return;
+                    }
+                } catch (Exception e) {
+                    // Best effort: the foreground read will retry and report the error
+                    return;
+                }
+            }
+        });
+    }
+
     // -------------------- internals --------------------
 
     @Override
-    public SearchResult search(Path file, List<FilterCriterion> criteria, int maxResults) throws Exception {
-        if (file == null) throw new IllegalArgumentException("file is null");
+    public SearchResult search(Dataset dataset, List<FilterCriterion> criteria, int maxResults, SearchCursor from,
+                               Consumer<SearchProgress> progress, BooleanSupplier cancelled) throws Exception {
+        if (dataset == null) throw new IllegalArgumentException("dataset is null");
         if (maxResults <= 0) throw new IllegalArgumentException("maxResults must be > 0");
 
-        var predicate = predicateFactory.compile(criteria);
+        long version = safeLastModifiedMillis(dataset.root());
+        if (from != null && (!from.dataset().equals(dataset) || from.datasetVersion() != version)) {
+            throw new IllegalStateException("The dataset changed since the search was started; search again");
+        }
+        List<Path> files = parts(dataset, version);
+        if (from != null) {
+            return scan(dataset, version, files, criteria, maxResults, from, progress, cancelled).result();
+        }
+
+        List<FileIdentity> identities = identities(files);
+        List<FilterCriterion> canonical = SearchResultCache.canonical(criteria);
+        SearchResultCache.Lookup cached = searchCache.find(identities, canonical);
+        if (cached != null) {
+            return searchCached(dataset, version, files, identities, canonical, maxResults, cached, progress, cancelled);
+        }
+
+        ScanOutcome outcome = scan(dataset, version, files, criteria, maxResults, null, progress, cancelled);
+        cacheOutcome(files, identities, canonical, outcome);
+        return outcome.result();
+    }
+
+    /**
+     * Records per-block Bloom filters of {@code fields} in the block index of every part; fields that are not
+     * top-level string, enum, int or long fields of a part are left out for it. Later searches keep the filters
+     * up to date over appended blocks.
+     */
+    @Override
+    public Set<String> indexForLookups(Dataset dataset, Set<String> fields) throws IOException {
+        if (dataset == null) throw new IllegalArgumentException("dataset is null");
+
+        Set<String> indexed = new LinkedHashSet<>();
+        for (Path file : parts(dataset, safeLastModifiedMillis(dataset.root()))) {
+            Schema schema = fileSchema(file);
+            List<String> supported = fields.stream()
+                    .filter(f -> schema.getField(f) != null && BloomFilterBuilder.supports(schema.getField(f).schema()))
+                    .toList();
+            if (!supported.isEmpty()) {
+                withBlockStats(file, schema, Set.of(), supported);
+                indexed.addAll(supported);
+            }
+        }
+        return indexed;
+    }
+
+    /**
+     * Answers a search from the matches of an earlier one over the same files: the same criteria take them as
+     * they are, more criteria test them again. When they run out before {@code maxResults}, and the earlier
+     * search had stopped at its own limit, the scan resumes right after its last match.
+     */
+    private SearchResult searchCached(Dataset dataset, long version, List<Path> files, List<FileIdentity> identities,
+                                      List<FilterCriterion> criteria, int maxResults, SearchResultCache.Lookup cached,
+                                      Consumer<SearchProgress> progress, BooleanSupplier cancelled) throws Exception {
+        SearchResultCache.Entry entry = cached.entry();
+        Predicate<GenericRecord> predicate = cached.exact() ? null : predicateFactory.compile(criteria);
+        SearchResultCache.RecordDecoder decoder = new SearchResultCache.RecordDecoder();
+
+        List<SearchResultCache.Match> matches = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (SearchResultCache.Match m : entry.matches()) {
+            if (rows.size() == maxResults) {
+                break;
+            }
+            GenericRecord rec = decoder.decode(m);
+            if (predicate == null || predicate.test(rec)) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> normalized = (Map<String, Object>) AvroNormalizer.normalize(rec, m.schema());
+                matches.add(m);
+                rows.add(normalized);
+            }
+        }
+
+        if (rows.size() == maxResults || entry.complete()) {
+            SearchResultCache.Match last = matches.isEmpty() ? null : matches.getLast();
+            boolean truncated = rows.size() == maxResults;
+            long scanned = truncated ? last.scanned() : entry.scanned();
+            SearchCursor next = truncated ? cursorAfter(dataset, version, last, rows.size()) : null;
+            progress.accept(new SearchProgress(rows.isEmpty() ? null : entry.schema(), rows, scanned, rows.size()));
+            if (!cached.exact()) {
+                searchCache.put(identities, criteria, new SearchResultCache.Entry(entry.schema(), matches, !truncated, scanned));
+            }
+            return new SearchResult(entry.schema(), rows, truncated, scanned, next);
+        }
+
+        // the earlier search stopped at its limit: go on from its last match for the rest
+        SearchCursor from = cursorAfter(dataset, version, entry.matches().getLast(), rows.size());
+        if (!rows.isEmpty()) {
+            progress.accept(new SearchProgress(entry.schema(), List.copyOf(rows), from.scanned(), rows.size()));
+        }
+        ScanOutcome rest = scan(dataset, version, files, criteria, maxResults - rows.size(), from, progress, cancelled);
+        rows.addAll(rest.result().records());
+        matches.addAll(rest.matches());
+
+        SearchResult result = rest.result();
+        ScanOutcome outcome = new ScanOutcome(
+                new SearchResult(entry.schema(), rows, result.truncated(), result.scanned(), result.next()),
+                matches, rest.conclusive());
+        cacheOutcome(files, identities, criteria, outcome);
+        return outcome.result();
+    }
+
+    private static SearchCursor cursorAfter(Dataset dataset, long version, SearchResultCache.Match m, int matched) {
+        return new SearchCursor(dataset, version, m.part(), m.blockOffset(), m.ordinal(), m.scanned(), matched);
+    }
+
+    /**
+     * Keeps the matches of a scan from the start, unless it was cancelled or a file changed while it ran.
+     */
+    private void cacheOutcome(List<Path> files, List<FileIdentity> identities, List<FilterCriterion> criteria,
+                              ScanOutcome outcome) throws IOException {
+        SearchResult result = outcome.result();
+        if (!outcome.conclusive() || result.schema() == null || !identities.equals(identities(files))) {
+            return;
+        }
+        searchCache.put(identities, criteria,
+                new SearchResultCache.Entry(result.schema(), outcome.matches(), !result.truncated(), result.scanned()));
+    }
+
+    private static List<FileIdentity> identities(List<Path> files) throws IOException {
+        List<FileIdentity> identities = new ArrayList<>(files.size());
+        for (Path file : files) {
+            identities.add(FileIdentity.of(file));
+        }
+        return identities;
+    }
+
+    /**
+     * Scans the files from the start, or after the match {@code from} points at.
+     */
+    private ScanOutcome scan(Dataset dataset, long version, List<Path> files, List<FilterCriterion> criteria,
+                             int maxResults, SearchCursor from, Consumer<SearchProgress> progress,
+                             BooleanSupplier cancelled) throws Exception {
+        List<ScanRange> ranges = scanRanges(files, criteria, from);
+        SearchContext ctx = new SearchContext(dataset, version, from, new ProgressPublisher(progress, from), cancelled);
+
+        if (ranges.size() == 1) {
+            ScanRange range = ranges.getFirst();
+            RangeScan scan = new RangeScan();
+            // checked between records: the caller cancels without interrupting, which would close the channel
+            searchRange(range, criteria, maxResults, ctx::stopped, scan,
+                    () -> ctx.publisher().offer(scan.schema, rows(scan.takeNew()), ctx.scanned(scan.scanned), false));
+            ctx.publisher().offer(scan.schema, rows(scan.takeNew()), ctx.scanned(scan.scanned), true);
+
+            List<Hit> hits = scan.all();
+            SearchCursor next = hits.size() >= maxResults ? ctx.cursor(range, hits.getLast(), 0, hits.size()) : null;
+            List<SearchResultCache.Match> matches = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                matches.add(ctx.match(range, hit, 0, scan.schema));
+            }
+            SearchResult result = new SearchResult(scan.schema, rows(hits), !scan.complete, ctx.scanned(scan.scanned), next);
+            return new ScanOutcome(result, matches, scan.complete || next != null);
+        }
+        return searchRanges(files, ranges, criteria, maxResults, ctx);
+    }
+
+    /**
+     * Cuts the files into ranges of whole blocks of roughly equal byte size, enough of them to spread a single
+     * large file over all workers as well as many small parts. A file below the range size stays one range
+     * (read with pipelined decompression); a larger one is cut along its block index.
+     * <p>
+     * Range criteria on numeric fields prune blocks by their zone maps (built here on first use), lookups on fields
+     * indexed for them by their Bloom filters: a file pruned that way is always cut along its index, into runs of
+     * the blocks that may hold a match.
+     *
+     * @param from where a resumed search continues, {@code null} = from the start
+     */
+    private List<ScanRange> scanRanges(List<Path> files, List<FilterCriterion> criteria, SearchCursor from)
+            throws IOException {
+        int firstPart = from == null ? 0 : from.part();
+        if (firstPart >= files.size()) {
+            throw new IllegalStateException("The dataset changed since the search was started; search again");
+        }
+        long[] sizes = new long[files.size()];
+        long totalBytes = 0;
+        for (int i = firstPart; i < sizes.length; i++) {
+            sizes[i] = Files.size(files.get(i));
+            totalBytes += sizes[i];
+        }
+        long target = Math.max(minSearchRangeBytes, totalBytes / ((long) PART_PARALLELISM * SEARCH_RANGES_PER_THREAD));
+        boolean prunable = criteria != null
+                && criteria.stream().anyMatch(c -> c.op().isRange() || c.op() == MatchOperation.EQUALS);
+
+        List<ScanRange> ranges = new ArrayList<>();
+        for (int i = firstPart; i < sizes.length; i++) {
+            Path file = files.get(i);
+            boolean resumed = from != null && i == firstPart;
+            CandidateBlocks selected = prunable ? candidateBlocks(file, criteria) : null;
+            if (selected == null && sizes[i] <= target) {
+                ranges.add(resumed
+                        ? new ScanRange(i, file, from.blockOffset(), Long.MAX_VALUE, from.ordinal() + 1, 0)
+                        : ScanRange.whole(i, file));
+                continue;
+            }
+            BlockIndex index = selected != null ? selected.index() : blockIndex(file);
+            if (index.blockCount() == 0) {
+                ranges.add(ScanRange.whole(i, file));
+                continue;
+            }
+            BitSet candidates = selected != null ? selected.blocks() : null;
+            int first = resumed ? blockAt(index, from.blockOffset()) : 0;
+            long skip = resumed ? from.ordinal() + 1 : 0;
+            long pruned = 0; // records of the dropped blocks since the last range
+            int start = -1;  // first block of the range being collected
+            for (int b = first; b < index.blockCount(); b++) {
+                if (candidates != null && !candidates.get(b)) {
+                    if (start >= 0) {
+                        ranges.add(blockRange(i, file, index, start, b, skip, pruned));
+                        start = -1;
+                        skip = 0;
+                        pruned = 0;
+                    }
+                    pruned += index.recordCount(b) - skip; // a resumed block's first records were counted before
+                    skip = 0;
+                } else if (start < 0) {
+                    start = b;
+                } else if (index.blockOffset(b) - index.blockOffset(start) >= target) {
+                    ranges.add(blockRange(i, file, index, start, b, skip, pruned));
+                    start = b;
+                    skip = 0;
+                    pruned = 0;
+                }
+            }
+            if (start >= 0) {
+                ranges.add(blockRange(i, file, index, start, index.blockCount(), skip, pruned));
+            } else {
+                ranges.add(new ScanRange(i, file, index.dataEnd(), 0, 0, pruned)); // only dropped blocks left
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Blocks {@code start} (inclusive) to {@code end} (exclusive) of {@code file}.
+     */
+    private static ScanRange blockRange(int part, Path file, BlockIndex index, int start, int end, long skip,
+                                        long pruned) {
+        long endRecord = end == index.blockCount() ? index.totalRecords() : index.firstRecord(end);
+        return new ScanRange(part, file, index.blockOffset(start), endRecord - index.firstRecord(start), skip, pruned);
+    }
+
+    private static int blockAt(BlockIndex index, long offset) {
+        int block = index.findBlockAt(offset);
+        if (block < 0) {
+            throw new IllegalStateException("No block at offset " + offset + "; search again");
+        }
+        return block;
+    }
+
+    /**
+     * Scans the ranges concurrently, each with its own reader, and merges the matches in file order, so
+     * results are the same as a sequential scan. Matches of the first unfinished range are published while
+     * it runs; once the merged prefix holds {@code maxResults} matches, the remaining scans stop.
+     */
+    private ScanOutcome searchRanges(List<Path> files, List<ScanRange> ranges, List<FilterCriterion> criteria,
+                                      int maxResults, SearchContext ctx) throws Exception {
+        AtomicBoolean stop = new AtomicBoolean();
+        List<RangeScan> states = new ArrayList<>(ranges.size());
+        List<Future<?>> scans = new ArrayList<>(ranges.size());
+        for (ScanRange range : ranges) {
+            RangeScan state = new RangeScan();
+            states.add(state);
+            scans.add(partExecutor.submit(() -> {
+                searchRange(range, criteria, maxResults, stop::get, state, () -> {});
+                return null;
+            }));
+        }
 
         List<Map<String, Object>> out = new ArrayList<>(Math.min(maxResults, 1024));
-        long scanned = 0;
+        List<SearchResultCache.Match> matches = new ArrayList<>(Math.min(maxResults, 1024));
+        long scanned = 0; // records of the finished ranges
         boolean truncated = false;
+        SearchCursor next = null;
+        try {
+            int head = 0;
+            while (head < scans.size() && !truncated) {
+                if (ctx.stopped()) {
+                    truncated = true; // cancelled: keep the matches taken so far
+                    break;
+                }
+                RangeScan state = states.get(head);
+                boolean done = awaitScan(scans.get(head));
 
-        // Search is its own flow; do not reuse paging session (keeps logic simpler & safe)
-        try (DataFileReader<GenericRecord> reader = open(file)) {
+                List<Hit> hits = state.takeNew();
+                int room = maxResults - out.size();
+                if (hits.size() >= room) {
+                    hits = hits.subList(0, room);
+                    truncated = true;
+                    next = ctx.cursor(ranges.get(head), hits.getLast(), scanned, maxResults);
+                }
+                out.addAll(rows(hits));
+                for (Hit hit : hits) {
+                    matches.add(ctx.match(ranges.get(head), hit, scanned, state.schema));
+                }
+
+                long live = scanned;
+                for (int i = head; i < states.size(); i++) {
+                    live += states.get(i).scanned;
+                }
+                ctx.publisher().offer(state.schema, rows(hits), ctx.scanned(live), false);
+                if (done || truncated) {
+                    scanned += state.scanned;
+                    head++;
+                }
+            }
+        } catch (InterruptedException e) {
+            // cancelled from the UI: return partial results collected so far
+            Thread.currentThread().interrupt();
+            truncated = true;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            stop.set(true);
+            scans.forEach(scan -> scan.cancel(false));
+        }
+        // a resumed search continues right after the last match, so it counts only the records up to it
+        long total = next != null ? next.scanned() : ctx.scanned(scanned);
+        ctx.publisher().offer(null, List.of(), total, true);
+
+        Schema schema = states.getFirst().schema;
+        if (schema == null) {
+            try (DataFileReader<GenericRecord> reader = open(files.getFirst())) {
+                schema = reader.getSchema();
+            }
+        }
+        return new ScanOutcome(new SearchResult(schema, out, truncated, total, next), matches, !truncated || next != null);
+    }
+
+    /**
+     * @return whether the scan finished; {@code false} after {@link #SEARCH_PROGRESS_MILLIS} without finishing
+     */
+    private static boolean awaitScan(Future<?> scan) throws InterruptedException, ExecutionException {
+        try {
+            scan.get(SEARCH_PROGRESS_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Scans one range into {@code scan}. {@code scanned} counts the records of blocks dropped by the block filter
+     * or by zone maps too, so it does not depend on whether a criterion could be pushed down.
+     *
+     * @param tick called every {@value #SEARCH_PROGRESS_RECORDS} records and after each match, on the scanning thread
+     */
+    private void searchRange(ScanRange range, List<FilterCriterion> criteria, int maxResults,
+                             BooleanSupplier stopped, RangeScan scan, Runnable tick) throws IOException {
+        if (range.records() == 0) {
+            // blocks dropped by their zone maps only
+            scan.schema = fileSchema(range.file());
+            scan.scanned = range.pruned();
+            scan.complete = true;
+            return;
+        }
+        long tested = range.pruned(); // records of the dropped blocks before the range count as checked
+
+        // Search is its own flow; do not reuse paging session (keeps logic simpler & safe).
+        // Blocks without the searched literals are dropped before decoding; both filters compile per file schema.
+        try (RecordStream reader = openRange(range, schema -> predicateFactory.compileBlockFilter(criteria, schema))) {
             Schema schema = reader.getSchema();
+            scan.schema = schema;
+            // records are tested on the criteria's fields only and decoded in full when they match
+            RecordProbe probe = new RecordProbe(schema, predicateFactory.referencedFields(criteria),
+                    s -> predicateFactory.compile(criteria, s));
+            // matches are kept encoded for the search cache
+            SearchResultCache.RecordEncoder encoder = new SearchResultCache.RecordEncoder(schema);
 
-            GenericRecord rec = null;
             while (reader.hasNext()) {
-                // Periodic interruption check: allows the JavaFX Task.cancel(true)
-                // to forcefully terminate the Avro I/O traversal even though
-                // DataFileReader doesn't natively honour thread interruption.
-                if (Thread.currentThread().isInterrupted()) {
+                if (stopped.getAsBoolean()) {
                     // Return partial results collected so far
-                    return new SearchResult(schema, out, true, scanned);
+                    scan.scanned = tested + reader.skippedRecords();
+                    return;
                 }
 
-                rec = reader.next(rec);
-                scanned++;
+                GenericRecord rec = reader.nextMatch(probe);
+                tested++;
 
-                if (predicate.test(rec)) {
+                if (rec != null) {
                     // Normalize only matching records to decouple from Avro's reused buffer
                     @SuppressWarnings("unchecked")
-                    Map<String, Object> normalized = (Map<String, Object>) com.dkostin.avro_viewer.app.util.AvroNormalizer.normalize(rec, schema);
-                    out.add(normalized);
+                    Map<String, Object> normalized = (Map<String, Object>) AvroNormalizer.normalize(rec, schema);
+                    scan.scanned = tested + reader.skippedRecords();
+                    scan.add(new Hit(normalized, reader.blockOffset(), reader.blockOrdinal(), scan.scanned,
+                            encoder.encode(rec)));
+                    tick.run();
 
-                    if (out.size() >= maxResults) {
-                        truncated = true;
-                        break;
+                    if (scan.size() >= maxResults) {
+                        return;
                     }
+                } else if (tested % SEARCH_PROGRESS_RECORDS == 0) {
+                    scan.scanned = tested + reader.skippedRecords();
+                    tick.run();
                 }
             }
 
-            return new SearchResult(schema, out, truncated, scanned);
+            // A pipelined stream ends early when the scanning thread is interrupted
+            scan.scanned = tested + reader.skippedRecords();
+            scan.complete = !stopped.getAsBoolean();
+        }
+    }
+
+    private RecordStream openRange(ScanRange range, Function<Schema, BlockFilter> blockFilter) throws IOException {
+        if (range.offset() == 0 && range.records() == Long.MAX_VALUE) {
+            return RecordStream.open(inputFactory, range.file(), blockFilter);
         }
+        // a resumed range starts in the block of the previous batch's last match: pass over what it returned
+        return RecordStream.range(inputFactory, range.file(), range.offset(), range.records(), range.skip(), blockFilter);
     }
 
-    private void ensureSession(Path file, long lastModified, int pageSize) throws IOException {
+    private static List<Map<String, Object>> rows(List<Hit> hits) {
+        return hits.stream().map(Hit::row).toList();
+    }
+
+    private PagingSession borrowSession(Dataset dataset, long lastModified, long startRecord) throws IOException {
+        List<Path> files = parts(dataset, lastModified);
+        List<FileIdentity> identities = identities(files);
+        PagingSession session = sessions.borrow(dataset, identities, startRecord);
         if (session == null) {
-            session = Session.open(file, lastModified, pageSize);
-            return;
+            session = PagingSession.open(inputFactory, dataset, files, lastModified, identities);
         }
-        if (!session.isCompatible(file, lastModified, pageSize)) {
-            closeSessionUnsafe();
-            session = Session.open(file, lastModified, pageSize);
+        return session;
+    }
+
+    /**
+     * Returns a session to the pool, or closes it if a failure left its position unknown.
+     */
+    private void releaseSession(PagingSession session, boolean reusable) {
+        if (reusable) {
+            sessions.release(session);
+        } else {
+            session.close();
         }
     }
 
     /**
-     * If we returned a cached page, we might want to align session to "pageIndex+1"
-     * so that Next is fast (best-effort).
+     * Seeks {@code session} to the block holding {@code startRecord} and skips only inside that block.
      */
-    private void ensureSessionAtEndOfPage(Path file, long lastModified, int pageIndex, int pageSize) {
-        if (session == null) {
-            return;
+    private void reposition(PagingSession session, long startRecord) throws IOException {
+        int part = 0;
+        long localRecord = startRecord;
+        if (session.parts.size() > 1) {
+            DatasetIndex partIndex = datasetIndex(session.dataset, session.lastModified);
+            part = partIndex.findPart(startRecord);
+            if (part < 0) {
+                // Past the last record: the end of the last part
+                part = partIndex.partCount() - 1;
+                localRecord = -1;
+            } else {
+                localRecord = startRecord - partIndex.firstRecord(part);
+            }
         }
-        if (!session.isCompatible(file, lastModified, pageSize)) {
+        session.nextRecord = -1; // unknown until the seek below completes
+        session.moveToPart(part);
+
+        BlockIndex index = blockIndex(session.parts.get(part));
+        int block = localRecord < 0 ? -1 : index.findBlock(localRecord);
+        if (block < 0) {
+            // Past the last record: park the reader at the end, the page will come back empty
+            session.reader.seek(index.dataEnd());
             return;
         }
+        session.reader.seek(index.blockOffset(block));
+        long toSkip = localRecord - index.firstRecord(block);
+        GenericRecord reuse = null;
+        while (toSkip > 0 && session.reader.hasNext()) {
+            reuse = session.reader.next(reuse);
+            toSkip--;
+        }
+        session.nextRecord = startRecord;
+    }
 
-        // If session is already after this page, keep it.
-        if (session.nextPageIndex >= pageIndex + 1) {
+    /**
+     * Block index of the current version of {@code file}. A file that only grew since its index was cached
+     * (e.g. a log still being written) has the index extended over the new blocks instead of rebuilt.
+     */
+    private BlockIndex blockIndex(Path file) throws IOException {
+        return versionedIndex(file).index();
+    }
+
+    private VersionedIndex versionedIndex(Path file) throws IOException {
+        FileIdentity identity = FileIdentity.of(file);
+        VersionedIndex cached = blockIndexes.get(identity.file());
+        if (cached != null && cached.identity().equals(identity)) {
+            return cached;
+        }
+        // concurrent misses may both load it; the sidecar makes that cheap and the result is identical
+        BlockIndex index = null;
+        if (cached != null && identity.size() > cached.identity().size()) {
+            index = extendIndex(file, identity, cached.index());
+        }
+        if (index == null) {
+            index = loadOrBuildIndex(file, identity);
+        }
+        VersionedIndex versioned = new VersionedIndex(identity, index);
+        blockIndexes.put(identity.file(), versioned);
+        return versioned;
+    }
+
+    /**
+     * The blocks of {@code file} that zone maps and Bloom filters leave for {@code criteria}. Zone maps a range
+     * criterion needs are built here; Bloom filters only if the field is indexed for lookups, over blocks appended
+     * since.
+     *
+     * @return {@code null} if neither applies
+     */
+    private CandidateBlocks candidateBlocks(Path file, List<FilterCriterion> criteria) throws IOException {
+        Schema schema = fileSchema(file);
+        ZoneFilter zones = predicateFactory.compileZoneFilter(criteria, schema);
+        LookupFilter lookups = predicateFactory.compileLookupFilter(criteria, schema);
+        Set<String> bloomFields = new LinkedHashSet<>();
+        if (lookups != null) {
+            BlockIndex current = blockIndex(file);
+            for (String field : lookups.fields()) {
+                if (current.bloomFilter(field) != null) {
+                    bloomFields.add(field);
+                }
+            }
+            if (bloomFields.isEmpty()) {
+                lookups = null; // not indexed for lookups
+            }
+        }
+        if (zones == null && lookups == null) {
+            return null;
         }
+        BlockIndex index = withBlockStats(file, schema, zones != null ? zones.fields() : Set.of(), bloomFields);
 
-        // We won't do expensive reposition here; cached read should stay cheap.
-        // Next call will reposition if needed.
+        BitSet blocks = zones != null ? zones.candidates(index) : null;
+        if (lookups != null) {
+            BitSet found = lookups.candidates(index);
+            if (blocks == null) {
+                blocks = found;
+            } else {
+                blocks.and(found);
+            }
+        }
+        return new CandidateBlocks(index, blocks);
     }
 
-    private void repositionSessionToPage(Path file, long lastModified, int targetPageIndex, int pageSize) throws IOException {
-        // Reopen reader and skip to startRecord = targetPageIndex * pageSize
-        closeSessionUnsafe();
-        session = Session.open(file, lastModified, pageSize);
+    /**
+     * Block index of {@code file} with complete zone maps of {@code zoneFields} and Bloom filters of
+     * {@code bloomFields}. Missing ones are built by decoding just those fields, the blocks split among the part
+     * workers; like the index, they are kept in the sidecar.
+     */
+    private BlockIndex withBlockStats(Path file, Schema schema, Collection<String> zoneFields,
+                                      Collection<String> bloomFields) throws IOException {
+        VersionedIndex versioned = versionedIndex(file);
+        BlockIndex index = versioned.index();
+        List<String> zonesMissing = zoneFields.stream()
+                .filter(f -> index.zoneMap(f) == null || index.zoneMap(f).blockCount() < index.blockCount())
+                .toList();
+        List<String> bloomsMissing = bloomFields.stream()
+                .filter(f -> index.bloomFilter(f) == null || index.bloomFilter(f).blockCount() < index.blockCount())
+                .toList();
+        if (zonesMissing.isEmpty() && bloomsMissing.isEmpty()) {
+            return index;
+        }
 
-        long startRecord = (long) targetPageIndex * pageSize;
-        long skipped = 0;
+        BlockIndex updated = index;
+        if (!zonesMissing.isEmpty()) {
+            ZoneMapBuilder zones = new ZoneMapBuilder(schema, zonesMissing, index);
+            scanBlocks(file, index, zones);
+            updated = updated.withZoneMaps(zones.build());
+        }
+        if (!bloomsMissing.isEmpty()) {
+            BloomFilterBuilder blooms = new BloomFilterBuilder(schema, bloomsMissing, index);
+            scanBlocks(file, index, blooms);
+            updated = updated.withBloomFilters(blooms.build());
+        }
+        indexStore.save(versioned.identity(), updated);
+        blockIndexes.put(versioned.identity().file(), new VersionedIndex(versioned.identity(), updated));
+        return updated;
+    }
+
+    /**
+     * Runs {@code scanner} over the blocks it still needs, in chunks on the part workers, one reader each.
+     */
+    private void scanBlocks(Path file, BlockIndex index, BlockScanner scanner) throws IOException {
+        int from = scanner.firstBlock();
+        int blocks = index.blockCount() - from;
+        int chunk = Math.max(MIN_BLOCK_SCAN_CHUNK, (blocks + PART_PARALLELISM - 1) / PART_PARALLELISM);
+        List<Future<?>> scans = new ArrayList<>();
+        for (int lo = from; lo < index.blockCount(); lo += chunk) {
+            int start = lo;
+            int end = Math.min(lo + chunk, index.blockCount());
+            scans.add(partExecutor.submit(() -> {
+                try (DataFileReader<GenericRecord> reader = openReader(inputFactory, file, scanner.datumReader())) {
+                    scanner.scanBlocks(reader, start, end);
+                }
+                return null;
+            }));
+        }
         try {
-            while (skipped < startRecord && session.reader.hasNext()) {
-                session.reader.next();
-                skipped++;
+            for (Future<?> scan : scans) {
+                scan.get();
             }
-            session.nextPageIndex = targetPageIndex;
-        } catch (Exception e) {
-            closeSessionUnsafe();
-            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Indexing the blocks of " + file + " was interrupted");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } finally {
+            scans.forEach(scan -> scan.cancel(true)); // no-op for finished scans
         }
     }
 
-    private Page readNextPageFromSession(int pageIndex, int pageSize) {
-        // invariant: session.nextPageIndex == pageIndex
-        List<GenericRecord> out = new ArrayList<>(pageSize);
-        int read = 0;
-        while (read < pageSize && session.reader.hasNext()) {
-            out.add(session.reader.next());
-            read++;
+    private Schema fileSchema(Path file) throws IOException {
+        try (DataFileReader<GenericRecord> reader = open(file)) {
+            return reader.getSchema();
         }
-        boolean hasNext = session.reader.hasNext();
+    }
 
-        session.nextPageIndex = pageIndex + 1;
-        session.hasNext = hasNext;
+    /**
+     * @return {@code previous} extended over the appended blocks, or {@code null} if the file was rewritten
+     */
+    private BlockIndex extendIndex(Path file, FileIdentity identity, BlockIndex previous) throws IOException {
+        BlockIndex index;
+        try (SeekableInput input = inputFactory.open(file)) {
+            index = BlockIndexer.extend(input, previous);
+        } catch (IOException e) {
+            return null; // not an append: a full build either succeeds or reports the real problem
+        }
+        indexStore.save(identity, index);
+        return index;
+    }
 
-        return new Page(session.schema, out, hasNext);
+    private BlockIndex loadOrBuildIndex(Path file, FileIdentity identity) throws IOException {
+        BlockIndex index = indexStore.load(identity).orElse(null);
+        if (index == null) {
+            try (SeekableInput input = inputFactory.open(file)) {
+                index = BlockIndexer.build(input);
+            }
+            indexStore.save(identity, index);
+        }
+        return index;
     }
 
-    private void closeSessionUnsafe() {
-        if (session != null) {
-            try {
-                session.reader.close();
-            } catch (Exception ignored) {
+    private List<Path> parts(Dataset dataset, long lastModified) throws IOException {
+        if (dataset.isSingleFile()) {
+            return List.of(dataset.root());
+        }
+        DatasetVersion version = new DatasetVersion(dataset, lastModified);
+        synchronized (partsLock) {
+            if (!version.equals(partsVersion)) {
+                parts = DatasetParts.resolve(dataset);
+                partsVersion = version;
             }
-            session = null;
+            return parts;
         }
     }
 
+    /**
+     * Record counts of all parts. Each part count comes from its block index, loaded or scanned concurrently.
+     */
+    private DatasetIndex datasetIndex(Dataset dataset, long lastModified) throws IOException {
+        if (dataset.isSingleFile()) {
+            return new DatasetIndex(List.of(dataset.root()), new long[]{blockIndex(dataset.root()).totalRecords()});
+        }
+        // counts of parts rewritten in place change without the root's modification time
+        List<Path> files = parts(dataset, lastModified);
+        List<FileIdentity> identities = identities(files);
+        synchronized (datasetLock) {
+            if (!identities.equals(datasetIndexParts)) {
+                datasetIndex = new DatasetIndex(files, countParts(files));
+                datasetIndexParts = identities;
+            }
+            return datasetIndex;
+        }
+    }
+
+    private long[] countParts(List<Path> files) throws IOException {
+        List<Future<Long>> counts = new ArrayList<>(files.size());
+        for (Path file : files) {
+            counts.add(partExecutor.submit(() -> loadOrBuildIndex(file, FileIdentity.of(file)).totalRecords()));
+        }
+        long[] result = new long[files.size()];
+        try {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = counts.get(i).get();
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Counting records of " + files.size() + " parts was interrupted");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } finally {
+            counts.forEach(count -> count.cancel(true)); // no-op for finished scans
+        }
+    }
+
+    private static Page readPageFromSession(PagingSession session, long startRecord, int pageSize,
+                                            BooleanSupplier aborted) throws IOException {
+        // invariant: session.nextRecord == startRecord (or -1 past the end)
+        List<GenericRecord> out = new ArrayList<>(pageSize);
+        while (out.size() < pageSize && session.hasNextRecord()) {
+            if (aborted.getAsBoolean()) {
+                // the session stays usable: nextRecord tracks what was consumed
+                return null;
+            }
+            out.add(session.next());
+        }
+        boolean hasNext = session.hasNextRecord();
+        return new Page(session.schema, out, hasNext, startRecord);
+    }
+
     private DataFileReader<GenericRecord> open(Path file) throws IOException {
-        SeekableFileInput input = new SeekableFileInput(file.toFile());
+        return openReader(inputFactory, file, new GenericDatumReader<>());
+    }
+
+    static DataFileReader<GenericRecord> openReader(SeekableInputFactory inputFactory, Path file,
+                                                    GenericDatumReader<GenericRecord> datumReader) throws IOException {
+        SeekableInput input = inputFactory.open(file);
         try {
-            return new DataFileReader<>(input, new GenericDatumReader<>());
+            return new DataFileReader<>(input, datumReader);
         } catch (IOException e) {
             input.close();
             throw e;
         }
     }
 
-    private record PageKey(Path file, long lastModified, int pageIndex, int pageSize) {
+    /**
+     * @param parts the identities of the dataset's parts: a part rewritten in place gets other pages
+     */
+    private record PageKey(List<FileIdentity> parts, int pageIndex, int pageSize, Set<String> projection) {
     }
 
-    private static final class Session {
-        final Path file;
-        final long lastModified;
-        final int pageSize;
-        final DataFileReader<GenericRecord> reader;
-        final Schema schema;
+    private record DatasetVersion(Dataset dataset, long lastModified) {
+    }
 
-        int nextPageIndex; // page index that can be read next without reopen/skip
-        boolean hasNext;
+    private record VersionedIndex(FileIdentity identity, BlockIndex index) {
+    }
+
+    /**
+     * @param blocks the blocks of {@code index} that may hold a match
+     */
+    private record CandidateBlocks(BlockIndex index, BitSet blocks) {
+    }
 
-        private Session(Path file,
-                        long lastModified,
-                        int pageSize,
-                        DataFileReader<GenericRecord> reader,
-                        Schema schema) {
-            this.file = file;
-            this.lastModified = lastModified;
-            this.pageSize = pageSize;
-            this.reader = reader;
-            this.schema = schema;
-            this.nextPageIndex = 0;
-            this.hasNext = true;
+    /**
+     * Matches and progress of one range scan, read by the merging thread while the scan runs.
+     */
+    private static final class RangeScan {
+        final List<Hit> hits = new ArrayList<>();
+        volatile Schema schema;
+        volatile long scanned;
+        volatile boolean complete;
+        private int taken; // hits already handed out by takeNew(), merging thread only
+
+        synchronized void add(Hit hit) {
+            hits.add(hit);
         }
 
-        static Session open(Path file, long lastModified, int pageSize) throws IOException {
-            SeekableFileInput input = new SeekableFileInput(file.toFile());
-            DataFileReader<GenericRecord> r;
-            try {
-                r = new DataFileReader<>(input, new GenericDatumReader<>());
-            } catch (IOException e) {
-                input.close();
-                throw e;
-            }
-            return new Session(file.normalize(), lastModified, pageSize, r, r.getSchema());
+        synchronized int size() {
+            return hits.size();
+        }
+
+        synchronized List<Hit> all() {
+            return List.copyOf(hits);
+        }
+
+        /**
+         * @return the hits added since the previous call
+         */
+        synchronized List<Hit> takeNew() {
+            List<Hit> fresh = List.copyOf(hits.subList(taken, hits.size()));
+            taken = hits.size();
+            return fresh;
+        }
+    }
+
+    /**
+     * A match and where it was found.
+     *
+     * @param scanned records of its range checked up to and including it
+     * @param record  the matching record, Avro-encoded against the range's schema
+     */
+    private record Hit(Map<String, Object> row, long blockOffset, long ordinal, long scanned, byte[] record) {
+    }
+
+    /**
+     * A scan's result and its matches with their positions.
+     *
+     * @param conclusive whether the scan ended on its own or at {@code maxResults}, not cancelled
+     */
+    private record ScanOutcome(SearchResult result, List<SearchResultCache.Match> matches, boolean conclusive) {
+    }
+
+    /**
+     * One search call: the dataset version it runs on and the batch it continues, if any.
+     */
+    private record SearchContext(Dataset dataset, long version, SearchCursor from, ProgressPublisher publisher,
+                                 BooleanSupplier cancelled) {
+
+        /**
+         * Whether the caller cancelled the search or interrupted its thread.
+         */
+        boolean stopped() {
+            return cancelled.getAsBoolean() || Thread.currentThread().isInterrupted();
+        }
+
+        /**
+         * @return {@code scanned} records of this batch plus the ones of the earlier batches
+         */
+        long scanned(long scanned) {
+            return from == null ? scanned : from.scanned() + scanned;
+        }
+
+        /**
+         * @param scannedBefore records of the ranges before {@code range}
+         * @param matched       matches of this batch, {@code hit} included
+         */
+        SearchCursor cursor(ScanRange range, Hit hit, long scannedBefore, int matched) {
+            return new SearchCursor(dataset, version, range.part(), hit.blockOffset(), hit.ordinal(),
+                    scanned(scannedBefore + hit.scanned()), (from == null ? 0 : from.matched()) + matched);
         }
 
-        boolean isCompatible(Path file, long lastModified, int pageSize) {
-            return this.file.equals(file.normalize())
-                    && this.lastModified == lastModified
-                    && this.pageSize == pageSize;
+        SearchResultCache.Match match(ScanRange range, Hit hit, long scannedBefore, Schema schema) {
+            return new SearchResultCache.Match(range.part(), hit.blockOffset(), hit.ordinal(),
+                    scanned(scannedBefore + hit.scanned()), schema, hit.record());
         }
     }
 
-    private static final class LruCache<K, V> extends LinkedHashMap<K, V> {
-        private final int maxSize;
+    /**
+     * Hands search matches to the caller's listener in file order: the first ones right away, later ones
+     * batched to at most one report per {@value #SEARCH_PROGRESS_MILLIS} ms.
+     */
+    private static final class ProgressPublisher {
+        private final Consumer<SearchProgress> listener;
+        private final List<Map<String, Object>> pending = new ArrayList<>();
+        private Schema schema;
+        private int matched;
+        private boolean reported;
+        private long lastReport = System.nanoTime();
+
+        /**
+         * @param from the batch a resumed search continues; its matches count towards {@link SearchProgress#matched()}
+         */
+        ProgressPublisher(Consumer<SearchProgress> listener, SearchCursor from) {
+            this.listener = listener;
+            this.matched = from == null ? 0 : from.matched();
+        }
 
-        LruCache(int maxSize) {
-            super(16, 0.75f, true);
-            this.maxSize = Math.max(1, maxSize);
+        /**
+         * @param force report now, even without new matches (the end of the search)
+         */
+        void offer(Schema hitSchema, List<Map<String, Object>> hits, long scanned, boolean force) {
+            if (!hits.isEmpty() && schema == null) {
+                schema = hitSchema;
+            }
+            pending.addAll(hits);
+            long now = System.nanoTime();
+            boolean first = !reported && !pending.isEmpty();
+            if (!force && !first && now - lastReport < TimeUnit.MILLISECONDS.toNanos(SEARCH_PROGRESS_MILLIS)) {
+                return;
+            }
+            lastReport = now;
+            reported |= !pending.isEmpty();
+            matched += pending.size();
+            listener.accept(new SearchProgress(schema, List.copyOf(pending), scanned, matched));
+            pending.clear();
         }
+    }
 
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-            return size() > maxSize;
+    /**
+     * {@code records} records from the block at {@code offset} on, the first {@code skip} of them passed over;
+     * a file from {@code offset} to its end is {@code records = Long.MAX_VALUE}.
+     *
+     * @param part   index of {@code file} among the dataset's parts
+     * @param pruned records of the blocks dropped by zone maps right before this range (or at the end of the file,
+     *               for a range of no records)
+     */
+    private record ScanRange(int part, Path file, long offset, long records, long skip, long pruned) {
+        static ScanRange whole(int part, Path file) {
+            return new ScanRange(part, file, 0, Long.MAX_VALUE, 0, 0);
         }
     }
 }
@@ -6,9 +6,6 @@ import com.dkostin.avro_viewer.app.service.api.RecordProvider;
 import com.dkostin.avro_viewer.app.util.AvroNormalizer;
 import com.dkostin.avro_viewer.app.util.JsonSerializer;
 import org.apache.avro.Schema;
-import org.apache.avro.file.DataFileReader;
-import org.apache.avro.file.SeekableFileInput;
-import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
 
 import java.io.IOException;
@@ -20,17 +17,21 @@ import java.util.function.Predicate;
 
 public class AvroRecordProvider implements RecordProvider {
 
-    private final DataFileReader<GenericRecord> reader;
+    private final RecordStream reader;
     private final Schema schema;
     private final Predicate<GenericRecord> predicate;
     private GenericRecord nextRecord;
     private boolean isClosed = false;
 
     public AvroRecordProvider(Path file, List<FilterCriterion> criteria, FilterPredicateFactory predicateFactory) throws IOException {
+        this(file, criteria, predicateFactory, SeekableInputFactory.FILE);
+    }
+
+    public AvroRecordProvider(Path file, List<FilterCriterion> criteria, FilterPredicateFactory predicateFactory,
+                              SeekableInputFactory inputFactory) throws IOException {
         Objects.requireNonNull(file, "file cannot be null");
-        SeekableFileInput input = new SeekableFileInput(file.toFile());
+        this.reader = RecordStream.open(inputFactory, file);
         try {
-            this.reader = new DataFileReader<>(input, new GenericDatumReader<>());
             this.schema = this.reader.getSchema();
             
             if (criteria != null && !criteria.isEmpty() && predicateFactory != null) {
@@ -41,20 +42,20 @@ public class AvroRecordProvider implements RecordProvider {
             advance();
         } catch (IOException | RuntimeException e) {
             try {
-                input.close();
+                reader.close();
             } catch (IOException ignored) {}
             throw e;
         }
     }
 
-    private void advance() {
+    private void advance() throws IOException {
         nextRecord = null;
         while (reader.hasNext()) {
             if (Thread.currentThread().isInterrupted()) {
                 Thread.currentThread().interrupt(); // preserve interrupt status
                 break;
             }
-            GenericRecord rec = reader.next();
+            GenericRecord rec = reader.next(null);
             if (predicate.test(rec)) {
                 nextRecord = rec;
                 break;
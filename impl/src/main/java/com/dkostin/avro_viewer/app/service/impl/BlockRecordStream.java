@@ -0,0 +1,150 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.util.BlockFilter;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * Single-threaded record scan that takes whole blocks from a {@link DataFileReader} and decodes them itself,
+ * so a {@link BlockFilter} can drop a block before any of its records is decoded.
+ * <p>
+ * The scan starts wherever the reader is positioned (a block start) and stops after {@code limit} records,
+ * counting the records of dropped blocks; a range ends exactly on a block boundary. The first {@code skip}
+ * records of the first block are passed over and not counted, whether the block is dropped or not.
+ */
+final class BlockRecordStream implements RecordStream {
+
+    private final DataFileReader<GenericRecord> reader;
+    private final GenericDatumReader<GenericRecord> datumReader;
+    private final BlockFilter filter;
+    private final long limit;
+    private long skip;
+
+    private BinaryDecoder decoder;
+    private byte[] blockData;
+    private int blockEnd;
+    private long remaining;  // records left in the current block
+    private long blockCount; // records of the current block
+    private long blockOffset;
+    private long consumed;   // records of all blocks taken so far, decoded or dropped
+    private long skipped;
+    private byte[] copy = new byte[0];
+
+    /**
+     * @param reader owned by the stream
+     * @param filter may be {@code null}
+     * @param limit  records to scan, {@code Long.MAX_VALUE} = to the end of the file
+     * @param skip   records of the first block to pass over
+     */
+    BlockRecordStream(DataFileReader<GenericRecord> reader, BlockFilter filter, long limit, long skip) {
+        this.reader = reader;
+        this.datumReader = new GenericDatumReader<>(reader.getSchema());
+        this.filter = filter;
+        this.limit = limit;
+        this.skip = skip;
+    }
+
+    @Override
+    public Schema getSchema() {
+        return reader.getSchema();
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (remaining == 0) {
+                if (consumed >= limit || !reader.hasNext()) {
+                    return false;
+                }
+                long blockStart = reader.previousSync(); // the start of the block nextBlock() is about to return
+                ByteBuffer block = reader.nextBlock();
+                long count = reader.getBlockCount();
+                consumed += count;
+
+                byte[] data;
+                int offset;
+                if (block.hasArray()) {
+                    data = block.array();
+                    offset = block.arrayOffset() + block.position();
+                } else {
+                    if (copy.length < block.remaining()) {
+                        copy = new byte[block.remaining()];
+                    }
+                    block.duplicate().get(copy, 0, block.remaining());
+                    data = copy;
+                    offset = 0;
+                }
+                long passed = skip;
+                skip = 0;
+                if (filter != null && !filter.mayMatch(data, offset, offset + block.remaining())) {
+                    skipped += count - passed;
+                    continue;
+                }
+                // the reader reuses this buffer only on the next nextBlock(), after the block is decoded
+                decoder = DecoderFactory.get().binaryDecoder(data, offset, block.remaining(), decoder);
+                blockData = data;
+                blockEnd = offset + block.remaining();
+                remaining = count;
+                blockCount = count;
+                blockOffset = blockStart;
+                for (; passed > 0 && remaining > 0; passed--, remaining--) {
+                    datumReader.read(null, decoder);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            throw new AvroRuntimeException(e);
+        }
+    }
+
+    @Override
+    public GenericRecord next(GenericRecord reuse) throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        GenericRecord record = datumReader.read(reuse, decoder);
+        remaining--;
+        return record;
+    }
+
+    @Override
+    public GenericRecord nextMatch(RecordProbe probe) throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        GenericRecord record = probe.read(decoder, blockData, blockEnd, datumReader);
+        remaining--;
+        return record;
+    }
+
+    @Override
+    public long blockOffset() {
+        return blockOffset;
+    }
+
+    @Override
+    public long blockOrdinal() {
+        return blockCount - remaining - 1;
+    }
+
+    @Override
+    public long skippedRecords() {
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        remaining = 0;
+        consumed = limit;
+        reader.close();
+    }
+}
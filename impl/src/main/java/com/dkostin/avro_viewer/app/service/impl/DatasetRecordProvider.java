@@ -0,0 +1,127 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.config.FilterPredicateFactory;
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.service.api.RecordProvider;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * {@link RecordProvider} over the parts of a dataset, in part order.
+ * <p>
+ * Up to {@code parallelism} parts are decoded, filtered and serialized concurrently, each into its own bounded
+ * queue; the consumer drains the queues in order. Parts are started in order on a FIFO pool, so the part being
+ * drained is always running and memory stays bounded by {@code parallelism * QUEUE_CAPACITY} records.
+ */
+public class DatasetRecordProvider implements RecordProvider {
+
+    private static final int QUEUE_CAPACITY = 1024;
+
+    // queue terminator of a fully read part (a failed part ends with its IOException instead)
+    private static final Object END_OF_PART = new Object();
+
+    private final ExecutorService pool;
+    private final List<BlockingQueue<Object>> queues;
+    private int current;
+    private String nextRecord;
+    private IOException failure;
+    private boolean isClosed = false;
+
+    public DatasetRecordProvider(List<Path> parts, List<FilterCriterion> criteria, FilterPredicateFactory predicateFactory,
+                                 SeekableInputFactory inputFactory) {
+        this(parts, criteria, predicateFactory, inputFactory, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public DatasetRecordProvider(List<Path> parts, List<FilterCriterion> criteria, FilterPredicateFactory predicateFactory,
+                                 SeekableInputFactory inputFactory, int parallelism) {
+        this.pool = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, parts.size())), r -> {
+            Thread t = new Thread(r, "avro-export-parts");
+            t.setDaemon(true);
+            return t;
+        });
+        this.queues = new ArrayList<>(parts.size());
+        for (Path part : parts) {
+            BlockingQueue<Object> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+            queues.add(queue);
+            pool.execute(() -> producePart(part, criteria, predicateFactory, inputFactory, queue));
+        }
+        advance();
+    }
+
+    private static void producePart(Path part, List<FilterCriterion> criteria, FilterPredicateFactory predicateFactory,
+                                    SeekableInputFactory inputFactory, BlockingQueue<Object> queue) {
+        Object last = END_OF_PART;
+        try (AvroRecordProvider provider = new AvroRecordProvider(part, criteria, predicateFactory, inputFactory)) {
+            while (provider.hasNext()) {
+                queue.put(provider.nextJsonRecord());
+            }
+        } catch (InterruptedException e) {
+            return; // provider closed
+        } catch (IOException | RuntimeException e) {
+            last = new IOException("Failed to read " + part, e);
+        }
+        try {
+            queue.put(last);
+        } catch (InterruptedException ignored) {
+            // provider closed
+        }
+    }
+
+    private void advance() {
+        nextRecord = null;
+        while (current < queues.size()) {
+            Object item;
+            try {
+                item = queues.get(current).take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // preserve interrupt status
+                failure = new InterruptedIOException("Reading parts was interrupted");
+                return;
+            }
+            if (item == END_OF_PART) {
+                queues.set(current, null); // let the drained queue go
+                current++;
+            } else if (item instanceof IOException e) {
+                failure = e;
+                return;
+            } else {
+                nextRecord = (String) item;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !isClosed && (nextRecord != null || failure != null);
+    }
+
+    @Override
+    public String nextJsonRecord() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more records available");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        String rec = nextRecord;
+        advance();
+        return rec;
+    }
+
+    @Override
+    public void close() {
+        if (isClosed) return;
+        isClosed = true;
+        pool.shutdownNow(); // producers blocked on a full queue get interrupted
+    }
+}
@@ -0,0 +1,102 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import org.apache.avro.file.SeekableInput;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link SeekableInput} over a memory-mapped file.
+ * <p>
+ * Reads are plain memory copies from the page cache instead of a {@code read()} syscall per buffer refill.
+ * A single {@link MappedByteBuffer} is limited to 2 GB, so the file is mapped lazily in fixed-size chunks
+ * and reads that straddle a chunk boundary are stitched together.
+ * <p>
+ * Mapped regions are released by the GC, not by {@link #close()}; on Windows the file therefore stays
+ * locked against deletion until the buffers are collected.
+ */
+public final class MappedSeekableInput implements SeekableInput {
+
+    static final long DEFAULT_CHUNK_SIZE = 1L << 30; // 1 GB
+
+    private final FileChannel channel;
+    private final long length;
+    private final long chunkSize;
+    private final MappedByteBuffer[] chunks;
+    private long position;
+
+    public MappedSeekableInput(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    MappedSeekableInput(Path file, long chunkSize) throws IOException {
+        if (chunkSize <= 0 || chunkSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("chunkSize must be in (0, 2GB)");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.length = channel.size();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.chunkSize = chunkSize;
+        this.chunks = new MappedByteBuffer[(int) ((length + chunkSize - 1) / chunkSize)];
+    }
+
+    @Override
+    public void seek(long p) throws IOException {
+        if (p < 0) {
+            throw new IOException("Negative seek offset: " + p);
+        }
+        position = p;
+    }
+
+    @Override
+    public long tell() {
+        return position;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= length) {
+            return -1;
+        }
+        int total = 0;
+        while (total < len && position < length) {
+            MappedByteBuffer chunk = chunk((int) (position / chunkSize));
+            int inChunk = (int) (position % chunkSize);
+            int n = Math.min(len - total, chunk.limit() - inChunk);
+            chunk.get(inChunk, b, off + total, n); // absolute get: shared buffer state is never touched
+            total += n;
+            position += n;
+        }
+        return total;
+    }
+
+    private MappedByteBuffer chunk(int i) throws IOException {
+        MappedByteBuffer chunk = chunks[i];
+        if (chunk == null) {
+            long start = i * chunkSize;
+            chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkSize, length - start));
+            chunks[i] = chunk;
+        }
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,121 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
+import com.dkostin.avro_viewer.app.service.impl.index.FileIdentity;
+import com.dkostin.avro_viewer.app.util.SchemaProjector;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An open reader over one version of a dataset, positioned at a known record.
+ * <p>
+ * Not thread-safe: a session is used by one thread at a time, handed out by {@link PagingSessionPool}.
+ */
+final class PagingSession {
+    final Dataset dataset;
+    final List<Path> parts;
+    final long lastModified;
+    final List<FileIdentity> identities; // of the parts when the session was opened
+    final SeekableInputFactory inputFactory;
+    final GenericDatumReader<GenericRecord> datumReader;
+    final Schema schema; // writer schema of the first part; later parts are resolved against it
+
+    DataFileReader<GenericRecord> reader;
+    int part; // index of the part the reader is in
+    long nextRecord; // dataset-wide index of the record the reader returns next, -1 = unknown
+    Set<String> projection; // fields decoded by datumReader, null = all
+
+    private PagingSession(Dataset dataset,
+                          List<Path> parts,
+                          long lastModified,
+                          List<FileIdentity> identities,
+                          SeekableInputFactory inputFactory,
+                          DataFileReader<GenericRecord> reader,
+                          GenericDatumReader<GenericRecord> datumReader) {
+        this.dataset = dataset;
+        this.parts = parts;
+        this.lastModified = lastModified;
+        this.identities = identities;
+        this.inputFactory = inputFactory;
+        this.reader = reader;
+        this.datumReader = datumReader;
+        this.schema = reader.getSchema();
+        this.nextRecord = 0;
+    }
+
+    static PagingSession open(SeekableInputFactory inputFactory, Dataset dataset, List<Path> parts,
+                              long lastModified, List<FileIdentity> identities) throws IOException {
+        GenericDatumReader<GenericRecord> datumReader = new GenericDatumReader<>();
+        DataFileReader<GenericRecord> r = AvroFileServiceImpl.openReader(inputFactory, parts.getFirst(), datumReader);
+        return new PagingSession(dataset, parts, lastModified, identities, inputFactory, r, datumReader);
+    }
+
+    /**
+     * Switches the reader schema in place; the read position is unaffected.
+     */
+    void project(Set<String> fields) {
+        if (!Objects.equals(projection, fields)) {
+            datumReader.setExpected(SchemaProjector.project(schema, fields));
+            // setExpected alone keeps the cached fast-reader; re-setting the writer schema drops it
+            datumReader.setSchema(reader.getSchema());
+            projection = fields;
+        }
+    }
+
+    /**
+     * Opens another part at its first block. The datum reader, and so the projection, carries over.
+     * The caller is responsible for {@link #nextRecord}.
+     */
+    void moveToPart(int target) throws IOException {
+        if (target == part) {
+            return;
+        }
+        DataFileReader<GenericRecord> next = AvroFileServiceImpl.openReader(inputFactory, parts.get(target), datumReader);
+        closeReader();
+        reader = next;
+        part = target;
+    }
+
+    /**
+     * {@code reader.hasNext()} that continues into the following parts (skipping empty ones).
+     */
+    boolean hasNextRecord() throws IOException {
+        while (!reader.hasNext()) {
+            if (part + 1 >= parts.size()) {
+                return false;
+            }
+            moveToPart(part + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the next record (see {@link #hasNextRecord()}) and advances {@link #nextRecord}.
+     */
+    GenericRecord next() {
+        GenericRecord record = reader.next();
+        if (nextRecord >= 0) {
+            nextRecord++;
+        }
+        return record;
+    }
+
+    void close() {
+        closeReader();
+    }
+
+    private void closeReader() {
+        try {
+            reader.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
+import com.dkostin.avro_viewer.app.service.impl.index.FileIdentity;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Idle {@link PagingSession}s, grouped by dataset.
+ * <p>
+ * A caller borrows a session exclusively and releases it when done, so concurrent reads never share a
+ * reader. Borrowing prefers a session already positioned at the requested record (sequential Next needs
+ * no seek), then the most recently used one. Nothing blocks: when every session of a dataset is borrowed,
+ * the caller opens a new one, and {@link #release} closes sessions beyond the per-dataset bound.
+ * Datasets beyond {@code maxDatasets} lose their idle sessions in least-recently-used order.
+ */
+final class PagingSessionPool {
+
+    private final int maxIdlePerDataset;
+    private final int maxDatasets;
+
+    private final Map<Dataset, Deque<PagingSession>> idle;
+
+    PagingSessionPool(int maxIdlePerDataset, int maxDatasets) {
+        if (maxIdlePerDataset <= 0 || maxDatasets <= 0) {
+            throw new IllegalArgumentException("pool bounds must be > 0");
+        }
+        this.maxIdlePerDataset = maxIdlePerDataset;
+        this.maxDatasets = maxDatasets;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Dataset, Deque<PagingSession>> eldest) {
+                if (size() <= PagingSessionPool.this.maxDatasets) {
+                    return false;
+                }
+                eldest.getValue().forEach(PagingSession::close);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param identities the dataset's parts as they are now
+     * @return an idle session of this dataset version, or {@code null} if there is none
+     */
+    synchronized PagingSession borrow(Dataset dataset, List<FileIdentity> identities, long startRecord) {
+        Deque<PagingSession> sessions = idle.get(dataset);
+        if (sessions == null) {
+            return null;
+        }
+        PagingSession fallback = null;
+        for (Iterator<PagingSession> it = sessions.iterator(); it.hasNext(); ) {
+            PagingSession session = it.next();
+            if (!session.identities.equals(identities)) {
+                // a part was added, removed or rewritten since this reader was opened
+                it.remove();
+                session.close();
+            } else if (session.nextRecord == startRecord) {
+                it.remove();
+                return session;
+            } else if (fallback == null) {
+                fallback = session;
+            }
+        }
+        if (fallback != null) {
+            sessions.remove(fallback);
+        }
+        return fallback;
+    }
+
+    /**
+     * Returns a session in a consistent state to the pool.
+     */
+    synchronized void release(PagingSession session) {
+        Deque<PagingSession> sessions = idle.computeIfAbsent(session.dataset, d -> new ArrayDeque<>());
+        sessions.addFirst(session);
+        while (sessions.size() > maxIdlePerDataset) {
+            sessions.removeLast().close();
+        }
+    }
+
+    synchronized int idleCount() {
+        return idle.values().stream().mapToInt(Deque::size).sum();
+    }
+}
@@ -0,0 +1,300 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndexer;
+import com.dkostin.avro_viewer.app.util.BlockFilter;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sequential record scan that decompresses blocks on worker threads while the caller decodes.
+ * <p>
+ * A splitter thread walks the block headers ({@link BlockIndexer#scan}) and submits one decompression
+ * job per block to a shared pool. Jobs are queued in file order, so records come out in the same order
+ * as a plain {@link DataFileReader}; the queue is bounded, which caps memory at a few decompressed
+ * blocks and throttles the splitter when the consumer falls behind.
+ * <p>
+ * Avro does not expose its codecs publicly, so each worker decompresses through its own
+ * {@link DataFileReader} positioned with {@code seek()} and drained with {@code nextBlock()}.
+ * Readers are borrowed from a per-stream pool and closed together with the stream. A {@link BlockFilter}
+ * is applied by the workers too, so a dropped block is never copied or decoded.
+ * <p>
+ * Interrupting the consuming thread ends the stream early with the interrupt flag preserved, like the
+ * interrupt checks in the callers' scan loops.
+ */
+final class ParallelBlockReader implements RecordStream {
+
+    private static final int PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /** Decompressed blocks that may be buffered ahead of the consumer, per stream. */
+    private static final int QUEUE_DEPTH = 2 * PARALLELISM;
+
+    private static final ExecutorService DECOMPRESSORS = Executors.newFixedThreadPool(PARALLELISM, r -> {
+        Thread t = new Thread(r, "avro-decompress");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Block END = new Block(-1, new byte[0], 0, 0);
+
+    private final SeekableInputFactory inputFactory;
+    private final Path file;
+    private final Schema schema;
+    private final GenericDatumReader<GenericRecord> datumReader;
+    private final BlockFilter filter;
+
+    private final BlockingQueue<Future<Block>> blocks = new ArrayBlockingQueue<>(QUEUE_DEPTH);
+    private final ConcurrentLinkedQueue<DataFileReader<GenericRecord>> idleReaders = new ConcurrentLinkedQueue<>();
+    private final List<DataFileReader<GenericRecord>> openedReaders = new ArrayList<>();
+    private final Thread splitter;
+
+    private volatile boolean closed;
+
+    private BinaryDecoder decoder;
+    private byte[] blockData;
+    private long remaining;
+    private long blockCount;
+    private long blockOffset;
+    private long skipped;
+    private boolean finished;
+
+    /**
+     * @param headerReader an open reader for {@code file}; the stream takes ownership of it
+     * @param filter       may be {@code null}
+     */
+    ParallelBlockReader(SeekableInputFactory inputFactory, Path file, DataFileReader<GenericRecord> headerReader,
+                        BlockFilter filter) {
+        this.inputFactory = inputFactory;
+        this.file = file;
+        this.schema = headerReader.getSchema();
+        this.datumReader = new GenericDatumReader<>(schema);
+        this.filter = filter;
+
+        openedReaders.add(headerReader);
+        idleReaders.add(headerReader);
+
+        this.splitter = new Thread(this::split, "avro-block-splitter");
+        this.splitter.setDaemon(true);
+        this.splitter.start();
+    }
+
+    @Override
+    public Schema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (remaining == 0) {
+            if (finished) {
+                return false;
+            }
+            Block block = take();
+            if (block == END) {
+                finished = true;
+                return false;
+            }
+            skipped += block.skipped();
+            decoder = DecoderFactory.get().binaryDecoder(block.data(), decoder);
+            blockData = block.data();
+            remaining = block.count();
+            blockCount = block.count();
+            blockOffset = block.offset();
+        }
+        return true;
+    }
+
+    @Override
+    public GenericRecord next(GenericRecord reuse) throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        GenericRecord record = datumReader.read(reuse, decoder);
+        remaining--;
+        return record;
+    }
+
+    @Override
+    public GenericRecord nextMatch(RecordProbe probe) throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        GenericRecord record = probe.read(decoder, blockData, blockData.length, datumReader);
+        remaining--;
+        return record;
+    }
+
+    @Override
+    public long blockOffset() {
+        return blockOffset;
+    }
+
+    @Override
+    public long blockOrdinal() {
+        return blockCount - remaining - 1;
+    }
+
+    @Override
+    public long skippedRecords() {
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        finished = true;
+        remaining = 0;
+        splitter.interrupt();
+
+        Future<Block> pending;
+        while ((pending = blocks.poll()) != null) {
+            pending.cancel(false);
+        }
+
+        IOException failure = null;
+        synchronized (openedReaders) {
+            for (DataFileReader<GenericRecord> reader : openedReaders) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            openedReaders.clear();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // ---- consumer ----
+
+    private Block take() {
+        try {
+            return blocks.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // preserve interrupt status
+            finished = true;
+            return END;
+        } catch (ExecutionException e) {
+            finished = true;
+            Throwable cause = e.getCause();
+            if (cause instanceof AvroRuntimeException are) {
+                throw are;
+            }
+            throw new AvroRuntimeException(cause);
+        }
+    }
+
+    // ---- splitter ----
+
+    private void split() {
+        try (SeekableInput input = inputFactory.open(file)) {
+            BlockIndexer.scan(input, (offset, count) -> {
+                if (closed) {
+                    throw new InterruptedIOException("Stream closed");
+                }
+                enqueue(DECOMPRESSORS.submit(() -> decompress(offset, count)));
+            });
+            enqueue(CompletableFuture.completedFuture(END));
+        } catch (IOException | RuntimeException e) {
+            if (!closed) {
+                try {
+                    enqueue(CompletableFuture.failedFuture(e));
+                } catch (InterruptedIOException ignored) {
+                    // closed while reporting the failure
+                }
+            }
+        }
+    }
+
+    private void enqueue(Future<Block> block) throws InterruptedIOException {
+        try {
+            blocks.put(block);
+        } catch (InterruptedException e) {
+            block.cancel(false);
+            throw new InterruptedIOException("Stream closed");
+        }
+        if (closed) {
+            // close() may have drained the queue before this put
+            block.cancel(false);
+        }
+    }
+
+    // ---- workers ----
+
+    private Block decompress(long offset, long count) throws IOException {
+        if (count == 0) {
+            return new Block(offset, END.data(), 0, 0);
+        }
+        DataFileReader<GenericRecord> reader = borrowReader();
+        try {
+            reader.seek(offset);
+            ByteBuffer buffer = reader.nextBlock();
+            if (reader.getBlockCount() != count) {
+                throw new IOException("Block at offset " + offset + " holds " + reader.getBlockCount()
+                        + " records, expected " + count);
+            }
+            if (filter != null && buffer.hasArray()) {
+                int from = buffer.arrayOffset() + buffer.position();
+                if (!filter.mayMatch(buffer.array(), from, from + buffer.remaining())) {
+                    return new Block(offset, END.data(), 0, count);
+                }
+            }
+            // The codec may reuse its output buffer for the next block
+            byte[] data = new byte[buffer.remaining()];
+            buffer.get(data);
+            if (filter != null && !buffer.hasArray() && !filter.mayMatch(data, 0, data.length)) {
+                return new Block(offset, END.data(), 0, count);
+            }
+            return new Block(offset, data, count, 0);
+        } finally {
+            idleReaders.add(reader);
+        }
+    }
+
+    private DataFileReader<GenericRecord> borrowReader() throws IOException {
+        DataFileReader<GenericRecord> reader = idleReaders.poll();
+        if (reader != null) {
+            return reader;
+        }
+        reader = AvroFileServiceImpl.openReader(inputFactory, file, new GenericDatumReader<>());
+        synchronized (openedReaders) {
+            if (closed) {
+                reader.close();
+                throw new InterruptedIOException("Stream closed");
+            }
+            openedReaders.add(reader);
+        }
+        return reader;
+    }
+
+    private record Block(long offset, byte[] data, long count, long skipped) {
+    }
+}
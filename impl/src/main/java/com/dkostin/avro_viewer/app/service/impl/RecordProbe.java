@@ -0,0 +1,67 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.util.SchemaProjector;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Tests records straight off the decompressed block bytes and decodes only the ones that pass.
+ * <p>
+ * The probe reader's expected schema holds just the fields the criteria look at, so schema resolution passes
+ * over all others with the decoder's {@code skip*} calls instead of materializing them. A passing record is
+ * then decoded in full from its start offset in the same block. When the criteria read every field there is
+ * nothing to skip, and records are decoded once and tested directly.
+ * <p>
+ * Not thread-safe: one probe per scan. The returned record is reused by the next call.
+ */
+final class RecordProbe {
+
+    private final GenericDatumReader<GenericRecord> probeReader; // null = no projection
+    private final Predicate<GenericRecord> predicate;
+
+    private GenericRecord probe;
+    private GenericRecord full;
+    private BinaryDecoder fullDecoder;
+
+    /**
+     * @param writer  the file's schema
+     * @param fields  top-level fields the predicate reads, {@code null} = all
+     * @param compile compiles the predicate for the schema of the records it will see
+     */
+    RecordProbe(Schema writer, Set<String> fields, Function<Schema, Predicate<GenericRecord>> compile) {
+        Schema projected = SchemaProjector.project(writer, fields);
+        this.probeReader = projected == writer ? null : new GenericDatumReader<>(writer, projected);
+        this.predicate = compile.apply(projected);
+    }
+
+    /**
+     * Reads the record at the decoder's position, which must be a byte array source ending at {@code end}.
+     *
+     * @param fullReader decodes the whole record with the writer schema
+     * @return the record, or {@code null} if it does not match; either way the decoder is past it
+     */
+    GenericRecord read(BinaryDecoder decoder, byte[] data, int end, GenericDatumReader<GenericRecord> fullReader)
+            throws IOException {
+        if (probeReader == null) {
+            full = fullReader.read(full, decoder);
+            return predicate.test(full) ? full : null;
+        }
+        // a byte array source reports the bytes left in it
+        int start = end - decoder.inputStream().available();
+        probe = probeReader.read(probe, decoder);
+        if (!predicate.test(probe)) {
+            return null;
+        }
+        fullDecoder = DecoderFactory.get().binaryDecoder(data, start, end - start, fullDecoder);
+        full = fullReader.read(full, fullDecoder);
+        return full;
+    }
+}
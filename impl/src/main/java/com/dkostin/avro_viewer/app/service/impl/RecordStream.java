@@ -0,0 +1,96 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.util.BlockFilter;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Function;
+
+/**
+ * Forward-only record iteration over one Avro container, as used by full scans (search, export).
+ * <p>
+ * Mirrors the {@link DataFileReader} iteration contract: {@link #hasNext()} reports failures as
+ * {@link org.apache.avro.AvroRuntimeException}s and {@link #next(GenericRecord)} may reuse {@code reuse}.
+ */
+interface RecordStream extends Closeable {
+
+    Schema getSchema();
+
+    boolean hasNext();
+
+    GenericRecord next(GenericRecord reuse) throws IOException;
+
+    /**
+     * Reads the next record as far as {@code probe} needs to test it.
+     *
+     * @return the fully decoded record, or {@code null} if it does not match
+     */
+    GenericRecord nextMatch(RecordProbe probe) throws IOException;
+
+    /**
+     * Records passed over without decoding because a {@link BlockFilter} ruled out their block.
+     */
+    default long skippedRecords() {
+        return 0;
+    }
+
+    /**
+     * @return file offset of the block holding the record returned last
+     */
+    long blockOffset();
+
+    /**
+     * @return position of the record returned last inside its block
+     */
+    long blockOrdinal();
+
+    static RecordStream open(SeekableInputFactory inputFactory, Path file) throws IOException {
+        return open(inputFactory, file, _ -> null);
+    }
+
+    /**
+     * Opens {@code file} for a sequential scan. Compressed containers are decompressed ahead of the
+     * consumer by a {@link ParallelBlockReader}; uncompressed ones are read directly since there is
+     * nothing to offload.
+     *
+     * @param blockFilter the block filter for the file's writer schema, may return {@code null}
+     */
+    static RecordStream open(SeekableInputFactory inputFactory, Path file,
+                             Function<Schema, BlockFilter> blockFilter) throws IOException {
+        DataFileReader<GenericRecord> reader = AvroFileServiceImpl.openReader(inputFactory, file, new GenericDatumReader<>());
+        try {
+            BlockFilter filter = blockFilter.apply(reader.getSchema());
+            String codec = reader.getMetaString(DataFileConstants.CODEC);
+            if (codec == null || DataFileConstants.NULL_CODEC.equals(codec)) {
+                return new BlockRecordStream(reader, filter, Long.MAX_VALUE, 0);
+            }
+            return new ParallelBlockReader(inputFactory, file, reader, filter);
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a scan of {@code records} records from the block starting at {@code offset}, on the calling thread.
+     *
+     * @param skip records at the start of the first block to pass over; not counted by the scan
+     */
+    static RecordStream range(SeekableInputFactory inputFactory, Path file, long offset, long records, long skip,
+                              Function<Schema, BlockFilter> blockFilter) throws IOException {
+        DataFileReader<GenericRecord> reader = AvroFileServiceImpl.openReader(inputFactory, file, new GenericDatumReader<>());
+        try {
+            reader.seek(offset);
+            return new BlockRecordStream(reader, blockFilter.apply(reader.getSchema()), records, skip);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.config.ReaderConfig;
+import org.apache.avro.file.SeekableFileInput;
+import org.apache.avro.file.SeekableInput;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Opens the {@link SeekableInput} every Avro reader in the application is built on.
+ */
+@FunctionalInterface
+public interface SeekableInputFactory {
+
+    /** Buffered {@code FileInputStream} reads (Avro's default). */
+    SeekableInputFactory FILE = file -> new SeekableFileInput(file.toFile());
+
+    /** Memory-mapped reads, see {@link MappedSeekableInput}. */
+    SeekableInputFactory MMAP = MappedSeekableInput::new;
+
+    SeekableInput open(Path file) throws IOException;
+
+    static SeekableInputFactory of(ReaderConfig.InputMode mode) {
+        return switch (mode) {
+            case FILE -> FILE;
+            case MMAP -> MMAP;
+        };
+    }
+}
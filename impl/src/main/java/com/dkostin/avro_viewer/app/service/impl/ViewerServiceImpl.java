@@ -2,37 +2,72 @@ package com.dkostin.avro_viewer.app.service.impl;
 
 import com.dkostin.avro_viewer.app.config.FilterPredicateFactory;
 import com.dkostin.avro_viewer.app.config.FlatteningConfig;
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
+import com.dkostin.avro_viewer.app.domain.model.FollowUpdate;
 import com.dkostin.avro_viewer.app.domain.model.Page;
+import com.dkostin.avro_viewer.app.domain.model.PageRequest;
+import com.dkostin.avro_viewer.app.domain.model.RecordSummary;
+import com.dkostin.avro_viewer.app.domain.model.Sample;
+import com.dkostin.avro_viewer.app.domain.model.SearchCursor;
+import com.dkostin.avro_viewer.app.domain.model.SearchProgress;
 import com.dkostin.avro_viewer.app.domain.model.SearchResult;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.domain.state.ViewMode;
 import com.dkostin.avro_viewer.app.domain.state.ViewerState;
 import com.dkostin.avro_viewer.app.service.api.*;
+import com.dkostin.avro_viewer.app.service.impl.dataset.DatasetParts;
+import com.dkostin.avro_viewer.app.util.AvroNormalizer;
+import com.dkostin.avro_viewer.app.util.JsonSerializer;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Service (Use-Case) for manipulation of state of viewing and handling AvroFileService
  */
-public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacade, ExportFacade {
+public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacade, SampleFacade, FollowFacade, ExportFacade {
+    /** Appended records read by one follow poll; a larger backlog is caught up over the following polls. */
+    private static final int FOLLOW_BATCH = 10_000;
+
     private final AvroFileService fileService;
     private final ExportService exportService;
     private final ViewerState state;
     private final FilterPredicateFactory predicateFactory;
+    private final SeekableInputFactory inputFactory;
     // Property for maxResults, handled and joined to UI text label
     private final IntegerProperty maxResultsProperty;
+    // bumped by every navigation, open and search: a page load only counts if its generation is still current
+    private final AtomicLong pageGeneration = new AtomicLong();
+    // follow mode: next record to report (-1 = the end of the file at the first poll)
+    private volatile boolean following;
+    private volatile long followFrom = -1;
+    // follow mode in search: the active criteria compiled for the followed file's schema
+    private volatile FollowFilter followFilter;
+    // where the last search batch stopped at its limit; null when there is nothing to continue
+    private volatile SearchCursor searchCursor;
 
-    public ViewerServiceImpl(AvroFileService fileService, ExportService exportService, ViewerState state, FilterPredicateFactory predicateFactory) {
+    public ViewerServiceImpl(AvroFileService fileService, ExportService exportService, ViewerState state,
+                             FilterPredicateFactory predicateFactory, SeekableInputFactory inputFactory) {
         this.fileService = fileService;
         this.exportService = exportService;
         this.state = state;
         this.predicateFactory = predicateFactory;
+        this.inputFactory = inputFactory;
         this.maxResultsProperty = new SimpleIntegerProperty(state.getMaxResults());
     }
 
@@ -45,11 +80,11 @@ public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacad
     }
 
     /**
-     * Checking if a file is open
+     * Checking if a file (or dataset) is open
      */
     @Override
     public boolean isFileOpen() {
-        return state.getFile() != null;
+        return state.getDataset() != null;
     }
 
     /**
@@ -60,6 +95,14 @@ public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacad
         return state.isSearchMode();
     }
 
+    /**
+     * Is a random sample shown instead of a page?
+     */
+    @Override
+    public boolean isSampleMode() {
+        return state.isSampleMode();
+    }
+
     /**
      * Is there a next page when browsing by page?
      */
@@ -76,6 +119,19 @@ public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacad
         return state.getPageIndex();
     }
 
+    /**
+     * Total records of the open file, or -1 until {@link #countRecords()} has completed
+     */
+    @Override
+    public long getTotalRecords() {
+        return state.getTotalRecords();
+    }
+
+    @Override
+    public long getPageCount() {
+        return state.getPageCount();
+    }
+
     @Override
     public int getPageSize() {
         return state.getPageSize();
@@ -87,75 +143,242 @@ public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacad
     }
 
     /**
-     * Opens an Avro file and loads the first page of data.
+     * Opens an Avro file (or a directory of part files) and loads the first page of data.
      *
      * @return Page – a page object (first records of the file, page size state.pageSize).
      * @throws Exception if an error occurred while reading the file
      */
     @Override
     public Page openFile(Path filePath) throws Exception {
-        Path prevFile = state.getFile();
+        return openDataset(Dataset.of(filePath));
+    }
+
+    /**
+     * Opens a single file or a multi-part dataset and loads the first page of data.
+     *
+     * @return Page – the first page of the dataset (records of its first parts)
+     * @throws Exception if an error occurred while reading the dataset
+     */
+    @Override
+    public Page openDataset(Dataset dataset) throws Exception {
+        Dataset prevDataset = state.getDataset();
+        pageGeneration.incrementAndGet(); // pages still loading belong to the previous dataset
+        stopFollowing();
         try {
-            state.openFile(filePath);
+            state.open(dataset);
 
-            Page firstPage = fileService.readPage(state.getFile(), state.getPageIndex(), state.getPageSize());
+            Page firstPage = fileService.readPage(state.getDataset(), state.getPageIndex(), state.getPageSize(), state.getVisibleFields());
 
             state.setSchema(firstPage.schema());
             state.setHasNext(firstPage.hasNext());
             return firstPage;
         } catch (Exception ex) {
             // In case of failure – return the old state of the file
-            state.openFile(prevFile);
+            state.open(prevDataset);
             throw ex;
         }
     }
 
     /**
-     * Goes to the next page (for pagination in view mode).
+     * Counts the records of the open dataset from its block headers; meant to run in the background after
+     * {@link #openDataset(Dataset)}. The result is stored only if the same dataset is still open.
      *
-     * @return Page – the page object after the jump.
-     * @throws Exception if the page read failed
+     * @return total number of records
+     * @throws Exception if the file could not be indexed
      */
     @Override
-    public Page nextPage() throws Exception {
-        if (!state.isHasNext()) {
+    public long countRecords() throws Exception {
+        Dataset dataset = state.getDataset();
+        if (dataset == null) {
+            throw new IllegalStateException("No file is currently open");
+        }
+        long total = fileService.countRecords(dataset);
+        if (dataset.equals(state.getDataset())) {
+            state.setTotalRecords(total);
+        }
+        return total;
+    }
+
+    /**
+     * Goes to the next page (for pagination in view mode). While earlier requests are still loading,
+     * the next page is assumed to exist unless the total record count says otherwise.
+     *
+     * @return PageRequest – the page to load, or null if there is no next page
+     */
+    @Override
+    public PageRequest nextPage() {
+        if (!isBrowsing() || !state.isHasNext()) {
             // If there is no next page, we stay where we are
             return null;
         }
         state.nextPage();
-        Page page = fileService.readPage(state.getFile(), state.getPageIndex(), state.getPageSize());
-        state.setHasNext(page.hasNext());
-        return page;
+        assumeNextPage();
+        return newPageRequest();
     }
 
     /**
      * Goes to the previous page (pagination)
      */
     @Override
-    public Page prevPage() throws Exception {
-        if (state.getPageIndex() == 0) {
+    public PageRequest prevPage() {
+        if (!isBrowsing() || state.getPageIndex() == 0) {
             return null;
         }
         state.prevPage();
-        Page page = fileService.readPage(state.getFile(), state.getPageIndex(), state.getPageSize());
-        state.setHasNext(page.hasNext());
-        return page;
+        state.setHasNext(true); // the page we came from follows
+        return newPageRequest();
     }
 
     /**
-     * Changes the page size (number of records) and reloads the first page.
-     *
-     * @return Page – new first page after resizing.
-     * @throws Exception if read failed
+     * Jumps to a page; the block indexes let the read seek straight to it.
      */
     @Override
-    public Page changePageSize(int newPageSize) throws Exception {
+    public PageRequest goToPage(int pageIndex) {
+        if (!isBrowsing()) {
+            return null;
+        }
+        long pageCount = state.getPageCount();
+        int target = Math.max(0, pageIndex);
+        if (pageCount > 0 && target >= pageCount) {
+            target = (int) (pageCount - 1);
+        }
+        state.goToPage(target);
+        assumeNextPage();
+        return newPageRequest();
+    }
+
+    /**
+     * Jumps to the last page. Before the background count has finished, the page index is resolved
+     * from the block indexes when the request is loaded.
+     */
+    @Override
+    public PageRequest goToLastPage() {
+        if (!isBrowsing()) {
+            return null;
+        }
+        long pageCount = state.getPageCount();
+        if (pageCount > 0) {
+            return goToPage((int) (pageCount - 1));
+        }
+        return new PageRequest(pageGeneration.incrementAndGet(), state.getDataset(), PageRequest.LAST_PAGE,
+                state.getPageSize(), state.getVisibleFields());
+    }
+
+    /**
+     * Jumps to the page holding a record.
+     */
+    @Override
+    public PageRequest goToRecord(long recordIndex) {
+        long total = state.getTotalRecords();
+        if (recordIndex < 0 || (total >= 0 && recordIndex >= total)) {
+            throw new IllegalArgumentException("Record " + recordIndex + " is out of range"
+                    + (total >= 0 ? " (0.." + (total - 1) + ")" : ""));
+        }
+        return goToPage(Math.toIntExact(recordIndex / state.getPageSize()));
+    }
+
+    /**
+     * Changes the page size (number of records) and goes back to the first page.
+     */
+    @Override
+    public PageRequest changePageSize(int newPageSize) {
         state.setPageSize(newPageSize); // sets mode = BROWSE and pageIndex=0
-        // After changing the page size – load the new first page
-        Page page = fileService.readPage(state.getFile(), state.getPageIndex(), state.getPageSize());
+        return newPageRequest();
+    }
+
+    /**
+     * Limits decoding of browse pages to the given top-level fields and reloads the current page.
+     *
+     * @param fields visible column names; {@code null} or all schema fields means no projection
+     * @return PageRequest – the current page with the new projection, or null in search mode
+     */
+    @Override
+    public PageRequest setVisibleFields(Set<String> fields) {
+        Schema schema = state.getSchema();
+        boolean all = fields == null || (schema != null && schema.getFields().stream().allMatch(f -> fields.contains(f.name())));
+        state.setVisibleFields(all ? null : fields);
+        if (!isBrowsing()) {
+            return null;
+        }
+        return newPageRequest();
+    }
+
+    /**
+     * Reads a requested page; any thread. Decoding stops as soon as a newer request supersedes this one.
+     *
+     * @return Page – the page, or null if the request was superseded
+     * @throws Exception if the page read failed
+     */
+    @Override
+    public Page loadPage(PageRequest request) throws Exception {
+        if (!isCurrent(request)) {
+            return null;
+        }
+        int pageIndex = request.pageIndex();
+        if (pageIndex == PageRequest.LAST_PAGE) {
+            long total = fileService.countRecords(request.dataset());
+            pageIndex = total == 0 ? 0 : Math.toIntExact((total - 1) / request.pageSize());
+        }
+        return fileService.readPage(request.dataset(), pageIndex, request.pageSize(), request.fields(),
+                () -> !isCurrent(request));
+    }
+
+    /**
+     * Takes a loaded page into the state (UI thread).
+     *
+     * @return false if the page is stale and must not be shown
+     */
+    @Override
+    public boolean applyPage(PageRequest request, Page page) {
+        if (page == null || !isCurrent(request)) {
+            return false;
+        }
+        if (request.pageIndex() == PageRequest.LAST_PAGE) {
+            state.goToPage(Math.toIntExact(page.firstRecord() / request.pageSize()));
+        }
         state.setSchema(page.schema());
         state.setHasNext(page.hasNext());
-        return page;
+        return true;
+    }
+
+    /**
+     * Until the page arrives, a following page is assumed unless the total record count rules it out.
+     */
+    private void assumeNextPage() {
+        long pageCount = state.getPageCount();
+        state.setHasNext(pageCount < 0 || state.getPageIndex() + 1 < pageCount);
+    }
+
+    private boolean isBrowsing() {
+        return state.getDataset() != null && state.getMode() == ViewMode.BROWSE;
+    }
+
+    private PageRequest newPageRequest() {
+        return new PageRequest(pageGeneration.incrementAndGet(), state.getDataset(), state.getPageIndex(),
+                state.getPageSize(), state.getVisibleFields());
+    }
+
+    private boolean isCurrent(PageRequest request) {
+        return request.generation() == pageGeneration.get();
+    }
+
+    /**
+     * Decodes the full (unprojected) record at the given position of the open file, for the JSON view.
+     *
+     * @param recordIndex index of the record within the file
+     * @return the record normalized into a deep Map/List tree
+     * @throws Exception if no file is open or the read failed
+     */
+    @Override
+    public Map<String, Object> readRecord(long recordIndex) throws Exception {
+        Dataset dataset = state.getDataset();
+        if (dataset == null) {
+            throw new IllegalStateException("No file is currently open");
+        }
+        GenericRecord record = fileService.readRecord(dataset, recordIndex);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> tree = (Map<String, Object>) AvroNormalizer.normalize(record, record.getSchema());
+        return tree;
     }
 
     /**
@@ -163,15 +386,214 @@ public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacad
      *
      * @param criteria   list of filtering criteria
      * @param maxResults maximum number of results
+     * @param progress   receives the matches in batches while the scan runs
+     * @param cancelled  stops the scan early, keeping the matches found so far
      * @return SearchResult – search result (found records, schema, counters, etc.)
      * @throws Exception if an error occurred during the search
      */
     @Override
-    public SearchResult search(List<FilterCriterion> criteria, int maxResults) throws Exception {
+    public SearchResult search(List<FilterCriterion> criteria, int maxResults, Consumer<SearchProgress> progress,
+                               BooleanSupplier cancelled) throws Exception {
         state.setSearch(criteria, maxResults);            // switch state to SEARCH mode (pageIndex=0)
+        pageGeneration.incrementAndGet();                 // drop browse pages still loading
+        stopFollowing();                                  // restarted from the end of the scan by the caller
+        fileService.cancelReadAhead();                    // browse pages are no longer wanted
         maxResultsProperty.set(maxResults);               // synchronize the property with the new value
+        searchCursor = null;
         // Search the file using AvroFileService
-        return fileService.search(state.getFile(), criteria, maxResults);
+        SearchResult result = fileService.search(state.getDataset(), criteria, maxResults, null, progress, cancelled);
+        searchCursor = result.next();
+        return result;
+    }
+
+    /**
+     * Continues the current search after its last returned match, with the same criteria and limit.
+     *
+     * @param progress  receives the matches of this batch while the scan runs
+     * @param cancelled stops the scan early, keeping the matches found so far
+     * @return the next batch; {@code null} if the last batch was not cut by its limit
+     * @throws IllegalStateException if the file was modified since the search started
+     */
+    @Override
+    public SearchResult searchMore(Consumer<SearchProgress> progress, BooleanSupplier cancelled) throws Exception {
+        SearchCursor from = searchCursor;
+        if (!hasMoreResults()) {
+            return null;
+        }
+        searchCursor = null;
+        SearchResult result = fileService.search(state.getDataset(), state.getCriteria(), state.getMaxResults(), from,
+                progress, cancelled);
+        searchCursor = result.next();
+        return result;
+    }
+
+    @Override
+    public Set<String> indexForLookups(Set<String> fields) throws Exception {
+        Dataset dataset = state.getDataset();
+        if (dataset == null) {
+            throw new IllegalStateException("No file is currently open");
+        }
+        return fileService.indexForLookups(dataset, fields);
+    }
+
+    @Override
+    public boolean hasMoreResults() {
+        SearchCursor from = searchCursor;
+        return from != null && state.isSearchMode() && from.dataset().equals(state.getDataset());
+    }
+
+    /**
+     * Switches to sample mode; the browse position is kept for {@link #exitSample()}.
+     */
+    @Override
+    public void enterSampleMode() {
+        if (state.getDataset() == null) {
+            throw new IllegalStateException("No file is currently open");
+        }
+        state.setSampleMode();
+        pageGeneration.incrementAndGet();   // browse pages still loading are no longer wanted
+        stopFollowing();
+        fileService.cancelReadAhead();
+    }
+
+    /**
+     * Draws a uniform random sample of the open dataset, reading only a few blocks.
+     *
+     * @param count records to draw
+     * @return Sample – the records in file order, each with its position for the JSON view
+     * @throws Exception if reading the sampled blocks failed
+     */
+    @Override
+    public Sample sample(int count) throws Exception {
+        Dataset dataset = state.getDataset();
+        if (dataset == null) {
+            throw new IllegalStateException("No file is currently open");
+        }
+        return fileService.sample(dataset, count, state.getVisibleFields(), ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Leaves sample mode and reloads the browse page shown before.
+     */
+    @Override
+    public PageRequest exitSample() {
+        if (!state.isSampleMode()) {
+            return null;
+        }
+        state.clearSample();
+        return newPageRequest();
+    }
+
+    /**
+     * Follows a file that is still being appended to. Only single files can be followed:
+     * the parts of a dataset are listed once per open.
+     */
+    @Override
+    public void startFollowing(long fromRecord) {
+        Dataset dataset = state.getDataset();
+        if (dataset == null) {
+            throw new IllegalStateException("No file is currently open");
+        }
+        if (!dataset.isSingleFile()) {
+            throw new IllegalStateException("Only a single file can be followed, not a folder of parts");
+        }
+        followFrom = Math.max(-1, fromRecord);
+        followFilter = state.isSearchMode() && state.getSchema() != null
+                ? compileFollowFilter(state.getCriteria(), state.getSchema())
+                : null;
+        following = true;
+    }
+
+    /**
+     * Reads the records appended after the last applied update, at most {@link #FOLLOW_BATCH} of them.
+     * The block index is extended over the new blocks only, and a single seek reaches the first new record,
+     * so a poll costs in proportion to what was appended. In search mode the new records are also matched
+     * against the active filters.
+     *
+     * @return FollowUpdate – the appended records, or null if there are none
+     * @throws Exception if the file shrank (it was replaced, not appended to) or could not be read
+     */
+    @Override
+    public FollowUpdate pollAppended() throws Exception {
+        Dataset dataset = state.getDataset();
+        long from = followFrom;
+        if (!following || dataset == null) {
+            return null;
+        }
+        long total = fileService.countRecords(dataset);
+        if (from < 0) {
+            // first poll: only records appended from now on are reported
+            return new FollowUpdate(dataset, state.getSchema(), total, List.of(), List.of(), total);
+        }
+        if (total < from) {
+            throw new IOException(dataset.displayName() + " now has " + total + " records, fewer than the "
+                    + from + " already shown; it was replaced rather than appended to");
+        }
+        if (total == from) {
+            return null;
+        }
+
+        boolean searchMode = state.isSearchMode();
+        Page appended = fileService.readRecords(dataset, from, FOLLOW_BATCH, searchMode ? null : state.getVisibleFields());
+        List<Map<String, Object>> matches = List.of();
+        if (searchMode) {
+            Predicate<GenericRecord> predicate = followPredicate(state.getCriteria(), appended.schema());
+            matches = new ArrayList<>();
+            for (GenericRecord record : appended.records()) {
+                if (predicate.test(record)) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> normalized = (Map<String, Object>) AvroNormalizer.normalize(record, appended.schema());
+                    matches.add(normalized);
+                }
+            }
+        }
+        return new FollowUpdate(dataset, appended.schema(), from, appended.records(), matches, total);
+    }
+
+    /**
+     * Advances the follow position past a polled update. An update that does not start where the previous
+     * one ended (polled before a restart, or for another file) is dropped.
+     */
+    @Override
+    public boolean applyFollowUpdate(FollowUpdate update) {
+        if (update == null || !following || !update.dataset().equals(state.getDataset())) {
+            return false;
+        }
+        long from = followFrom;
+        if (from >= 0 && update.firstRecord() != from) {
+            return false;
+        }
+        followFrom = update.firstRecord() + update.records().size();
+        state.setTotalRecords(update.totalRecords());
+        return true;
+    }
+
+    @Override
+    public void stopFollowing() {
+        following = false;
+        followFrom = -1;
+        followFilter = null;
+    }
+
+    /**
+     * The predicate compiled by {@link #startFollowing}, or a new one if the criteria or the schema changed since.
+     */
+    private Predicate<GenericRecord> followPredicate(List<FilterCriterion> criteria, Schema schema) {
+        FollowFilter filter = followFilter;
+        if (filter == null || !filter.criteria().equals(criteria) || !filter.schema().equals(schema)) {
+            filter = compileFollowFilter(criteria, schema);
+            followFilter = filter;
+        }
+        return filter.predicate();
+    }
+
+    private FollowFilter compileFollowFilter(List<FilterCriterion> criteria, Schema schema) {
+        return new FollowFilter(criteria, schema, predicateFactory.compile(criteria, schema));
+    }
+
+    @Override
+    public boolean isFollowing() {
+        return following;
     }
 
     /**
@@ -183,10 +605,13 @@ public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacad
     @Override
     public Page clearSearch() throws Exception {
         state.clearSearch();  // resets criteria, maxResults=500, mode=BROWSE, pageIndex=0
+        searchCursor = null;
+        pageGeneration.incrementAndGet();
+        stopFollowing();
         maxResultsProperty.set(state.getMaxResults());  // reset the bound maxResults value to 500
         // Return to the first page of the full file
-        if (state.getFile() != null) {
-            Page page = fileService.readPage(state.getFile(), 0, state.getPageSize());
+        if (state.getDataset() != null) {
+            Page page = fileService.readPage(state.getDataset(), 0, state.getPageSize(), state.getVisibleFields());
             state.setSchema(page.schema());
             state.setHasNext(page.hasNext());
             return page;
@@ -194,26 +619,71 @@ public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacad
         return null;
     }
 
+    /**
+     * Exports the table rows as full records: summary rows are read again from the file (they hold truncated
+     * nested values and only the visible columns); search matches are exported as they are.
+     */
     @Override
     public void exportToJson(Path out, ObservableList<Map<String, Object>> rows) throws IOException {
-        exportService.exportTableToJson(out, rows);
+        exportService.exportTableToJson(out, fullRows(rows));
     }
 
     @Override
     public void exportToCsv(Path out, ObservableList<Map<String, Object>> rows) throws IOException {
-        exportService.exportTableToCsv(out, rows);
+        exportService.exportTableToCsv(out, fullRows(rows));
     }
 
+    /**
+     * Replaces summary rows by their full records, reading each run of consecutive record indexes at once.
+     */
+    private ObservableList<Map<String, Object>> fullRows(List<Map<String, Object>> rows) throws IOException {
+        Dataset dataset = state.getDataset();
+        ObservableList<Map<String, Object>> full = FXCollections.observableArrayList();
+        int i = 0;
+        while (i < rows.size()) {
+            if (!(rows.get(i) instanceof RecordSummary first) || dataset == null) {
+                full.add(rows.get(i++));
+                continue;
+            }
+            int run = 1;
+            while (i + run < rows.size() && rows.get(i + run) instanceof RecordSummary next
+                    && next.getRecordIndex() == first.getRecordIndex() + run) {
+                run++;
+            }
+            Page page = fileService.readRecords(dataset, first.getRecordIndex(), run, null);
+            if (page.records().size() != run) {
+                throw new IOException("Record #" + (first.getRecordIndex() + page.records().size() + 1)
+                        + " is no longer in " + dataset.displayName());
+            }
+            for (GenericRecord record : page.records()) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> tree = (Map<String, Object>) AvroNormalizer.normalize(record, record.getSchema());
+                full.add(tree);
+            }
+            i += run;
+        }
+        return full;
+    }
+
+    /**
+     * Preview records for export: a random sample of the whole file, or the first matches in search mode
+     * (matches cannot be sampled without scanning for them).
+     */
     @Override
     public List<String> getSampleRecords(int count) throws IOException {
-        if (state.getFile() == null) {
+        if (state.getDataset() == null) {
             throw new IllegalStateException("No file is currently open");
         }
+        if (!state.isSearchMode()) {
+            Sample sample = fileService.sample(state.getDataset(), count, null, ThreadLocalRandom.current().nextLong());
+            return sample.records().stream()
+                    .map(record -> JsonSerializer.toCompactJson(AvroNormalizer.normalize(record, record.getSchema())))
+                    .toList();
+        }
         List<String> samples = new ArrayList<>();
-        try (RecordProvider provider = new AvroRecordProvider(
-                state.getFile(),
-                state.isSearchMode() ? List.copyOf(state.getCriteria()) : List.of(),
-                predicateFactory)) {
+        try (RecordProvider provider = openRecordProvider(
+                state.getDataset(),
+                state.isSearchMode() ? List.copyOf(state.getCriteria()) : List.of())) {
             while (provider.hasNext() && samples.size() < count) {
                 samples.add(provider.nextJsonRecord());
             }
@@ -223,19 +693,31 @@ public class ViewerServiceImpl implements FileLoader, PageNavigator, SearchFacad
 
     @Override
     public void exportToCsvStreaming(Path out, FlatteningConfig config, char delimiter, ExportService.ProgressListener listener) throws IOException {
-        if (state.getFile() == null) {
+        if (state.getDataset() == null) {
             throw new IllegalStateException("No file is currently open");
         }
-        Path file = state.getFile();
+        Dataset dataset = state.getDataset();
         List<FilterCriterion> criteria = List.copyOf(state.getCriteria());
         boolean searchMode = state.isSearchMode();
 
-        RecordProviderFactory factory = () -> new AvroRecordProvider(
-                file,
-                searchMode ? criteria : List.of(),
-                predicateFactory
+        RecordProviderFactory factory = () -> openRecordProvider(
+                dataset,
+                searchMode ? criteria : List.of()
         );
 
         exportService.exportToCsvStreaming(out, factory, config, delimiter, listener);
     }
+
+    /**
+     * A single file is read directly; the parts of a dataset are read concurrently, in order.
+     */
+    private RecordProvider openRecordProvider(Dataset dataset, List<FilterCriterion> criteria) throws IOException {
+        if (dataset.isSingleFile()) {
+            return new AvroRecordProvider(dataset.root(), criteria, predicateFactory, inputFactory);
+        }
+        return new DatasetRecordProvider(DatasetParts.resolve(dataset), criteria, predicateFactory, inputFactory);
+    }
+
+    private record FollowFilter(List<FilterCriterion> criteria, Schema schema, Predicate<GenericRecord> predicate) {
+    }
 }
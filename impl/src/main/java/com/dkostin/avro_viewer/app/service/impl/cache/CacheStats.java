@@ -0,0 +1,19 @@
+package com.dkostin.avro_viewer.app.service.impl.cache;
+
+/**
+ * Snapshot of {@link WeightedLruCache} counters.
+ *
+ * @param hits        lookups served from the cache
+ * @param misses      lookups that found nothing (or a value already collected by the GC)
+ * @param evictions   entries dropped to stay within the byte budget
+ * @param collected   soft entries cleared by the GC under memory pressure
+ * @param size        entries currently held
+ * @param weightBytes estimated bytes currently held
+ */
+public record CacheStats(long hits, long misses, long evictions, long collected, int size, long weightBytes) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
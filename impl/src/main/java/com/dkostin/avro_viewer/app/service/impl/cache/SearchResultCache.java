@@ -0,0 +1,207 @@
+package com.dkostin.avro_viewer.app.service.impl.cache;
+
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.service.impl.index.FileIdentity;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Matches of recent searches, so searching the same files again with the same criteria, or with more of them,
+ * needs no rescan.
+ * <p>
+ * An entry is keyed by the identities of the searched files and the canonical criteria. It holds the matches
+ * in file order, each Avro-encoded against its writer schema together with its position, so a narrower search
+ * can re-test the full records and a search that needs more matches than the entry holds can resume right
+ * after its last one. Entries are bounded by their encoded size, like {@link EncodedPage}s.
+ */
+public final class SearchResultCache {
+
+    /** Criteria lists up to this size are also served from entries for a subset of them. */
+    private static final int MAX_SUBSET_CRITERIA = 6;
+
+    private static final long ENTRY_OVERHEAD = 96;
+    private static final long MATCH_OVERHEAD = 64; // the match record and its array
+
+    // AND-combined criteria do not depend on their order
+    private static final Comparator<FilterCriterion> CANONICAL_ORDER = Comparator
+            .comparing((FilterCriterion c) -> c.field() != null && c.field().wildcard())
+            .thenComparing(c -> String.valueOf(c.fieldName()))
+            .thenComparing(c -> String.valueOf(c.op()))
+            .thenComparing(c -> c.value() == null ? "" : c.value().getClass().getName())
+            .thenComparing(c -> String.valueOf(c.value()));
+
+    private final long maxBytes;
+    private final WeightedLruCache<Key, Entry> entries;
+
+    /**
+     * @param maxBytes heap budget for the cached matches
+     */
+    public SearchResultCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.entries = new WeightedLruCache<>(maxBytes, Entry::weight, false);
+    }
+
+    /**
+     * @return the criteria sorted and without duplicates
+     */
+    public static List<FilterCriterion> canonical(List<FilterCriterion> criteria) {
+        return criteria.stream().distinct().sorted(CANONICAL_ORDER).toList();
+    }
+
+    /**
+     * Finds the entry for exactly {@code criteria}, or else the one for the largest subset of them, whose matches
+     * include all matches of {@code criteria}.
+     *
+     * @param criteria canonical criteria
+     * @return the entry found, or {@code null}
+     */
+    public Lookup find(List<FileIdentity> files, List<FilterCriterion> criteria) {
+        Entry exact = entries.get(new Key(files, criteria));
+        if (exact != null) {
+            return new Lookup(exact, true);
+        }
+        int n = criteria.size();
+        if (n > MAX_SUBSET_CRITERIA) {
+            return null;
+        }
+        for (int size = n - 1; size >= 0; size--) {
+            for (int mask = (1 << n) - 1; mask >= 0; mask--) {
+                if (Integer.bitCount(mask) != size) {
+                    continue;
+                }
+                List<FilterCriterion> subset = new ArrayList<>(size);
+                for (int i = 0; i < n; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        subset.add(criteria.get(i));
+                    }
+                }
+                Entry entry = entries.get(new Key(files, subset));
+                if (entry != null) {
+                    return new Lookup(entry, false);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the matches of a search. An entry too large for a quarter of the budget is not kept, so a single
+     * huge result does not flush every other search.
+     *
+     * @param criteria canonical criteria
+     */
+    public void put(List<FileIdentity> files, List<FilterCriterion> criteria, Entry entry) {
+        if (entry.weight() > maxBytes / 4) {
+            return;
+        }
+        entries.put(new Key(List.copyOf(files), List.copyOf(criteria)), entry);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public CacheStats stats() {
+        return entries.stats();
+    }
+
+    /**
+     * The files are part of the key by identity, so a modified file never matches an entry of its old content.
+     */
+    private record Key(List<FileIdentity> files, List<FilterCriterion> criteria) {
+    }
+
+    /**
+     * @param entry the entry found
+     * @param exact whether it is for the searched criteria; otherwise its matches have to be tested again
+     */
+    public record Lookup(Entry entry, boolean exact) {
+    }
+
+    /**
+     * Matches of one search from the start of the files.
+     *
+     * @param schema   schema of the search result
+     * @param matches  in file order
+     * @param complete whether these are all matches of the files; otherwise all the ones up to the last of them
+     * @param scanned  records checked by the search
+     */
+    public record Entry(Schema schema, List<Match> matches, boolean complete, long scanned) {
+
+        public Entry {
+            Objects.requireNonNull(schema, "schema");
+            matches = List.copyOf(matches);
+        }
+
+        long weight() {
+            long total = ENTRY_OVERHEAD;
+            for (Match m : matches) {
+                total += MATCH_OVERHEAD + m.record().length;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * One matching record and where it is.
+     *
+     * @param part        index of the file among the searched ones
+     * @param blockOffset file offset of the block holding the record
+     * @param ordinal     position of the record inside its block
+     * @param scanned     records checked from the start of the search up to and including this one
+     * @param schema      writer schema of the record
+     * @param record      the record, Avro-encoded against {@code schema}
+     */
+    public record Match(int part, long blockOffset, long ordinal, long scanned, Schema schema, byte[] record) {
+    }
+
+    /**
+     * Encodes the records of one writer schema for {@link Match#record()}; one per scan thread.
+     */
+    public static final class RecordEncoder {
+        private final GenericDatumWriter<GenericRecord> writer;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private BinaryEncoder encoder;
+
+        public RecordEncoder(Schema schema) {
+            this.writer = new GenericDatumWriter<>(schema);
+        }
+
+        public byte[] encode(GenericRecord record) throws IOException {
+            out.reset();
+            encoder = EncoderFactory.get().binaryEncoder(out, encoder);
+            writer.write(record, encoder);
+            encoder.flush();
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Decodes {@link Match#record()}s, with one datum reader per writer schema; one per thread.
+     */
+    public static final class RecordDecoder {
+        private final Map<Schema, GenericDatumReader<GenericRecord>> readers = new IdentityHashMap<>();
+        private BinaryDecoder decoder;
+
+        public GenericRecord decode(Match match) throws IOException {
+            GenericDatumReader<GenericRecord> reader = readers.computeIfAbsent(match.schema(), GenericDatumReader::new);
+            decoder = DecoderFactory.get().binaryDecoder(match.record(), decoder);
+            return reader.read(null, decoder);
+        }
+    }
+}
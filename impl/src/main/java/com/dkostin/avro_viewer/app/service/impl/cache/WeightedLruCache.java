@@ -0,0 +1,136 @@
+package com.dkostin.avro_viewer.app.service.impl.cache;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * LRU cache bounded by the estimated retained size of its values instead of an entry count.
+ * <p>
+ * - the least recently used entries are evicted until the total weight fits the budget
+ * - the most recent entry is always kept, even if it alone exceeds the budget
+ * - with soft values, the GC may additionally clear entries under memory pressure
+ * <p>
+ * All methods are synchronized; the cache is small and lookups are cheap compared to decoding.
+ */
+public final class WeightedLruCache<K, V> {
+
+    private final long maxWeight;
+    private final ToLongFunction<? super V> weigher;
+    private final boolean softValues;
+
+    private final LinkedHashMap<K, Slot<V>> slots = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReferenceQueue<V> collectedQueue = new ReferenceQueue<>();
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long collected;
+
+    /**
+     * @param maxWeight  budget in estimated bytes
+     * @param weigher    estimates the retained bytes of a value
+     * @param softValues hold values through {@link SoftReference}s so the GC can reclaim them
+     */
+    public WeightedLruCache(long maxWeight, ToLongFunction<? super V> weigher, boolean softValues) {
+        this.maxWeight = Math.max(0, maxWeight);
+        this.weigher = weigher;
+        this.softValues = softValues;
+    }
+
+    public synchronized V get(K key) {
+        purgeCollected();
+        Slot<V> slot = slots.get(key);
+        V value = slot == null ? null : slot.value();
+        if (value == null) {
+            if (slot != null && slots.remove(key, slot)) {
+                // cleared by the GC but not enqueued yet
+                weight -= slot.weight();
+                collected++;
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        purgeCollected();
+        long w = Math.max(0, weigher.applyAsLong(value));
+        Slot<V> slot = softValues ? new SoftSlot<>(key, value, w, collectedQueue) : new StrongSlot<>(value, w);
+        Slot<V> previous = slots.put(key, slot);
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        weight += w;
+        evictToBudget();
+    }
+
+    public synchronized void clear() {
+        slots.clear();
+        weight = 0;
+    }
+
+    public synchronized CacheStats stats() {
+        purgeCollected();
+        return new CacheStats(hits, misses, evictions, collected, slots.size(), weight);
+    }
+
+    private void evictToBudget() {
+        Iterator<Slot<V>> eldestFirst = slots.values().iterator();
+        while (weight > maxWeight && slots.size() > 1 && eldestFirst.hasNext()) {
+            Slot<V> eldest = eldestFirst.next();
+            eldestFirst.remove();
+            weight -= eldest.weight();
+            evictions++;
+        }
+    }
+
+    private void purgeCollected() {
+        Reference<? extends V> ref;
+        while ((ref = collectedQueue.poll()) != null) {
+            SoftSlot<?, ?> slot = (SoftSlot<?, ?>) ref;
+            // remove(key, value) does not touch the access order; a replaced slot is no longer mapped
+            if (slots.remove(slot.key, slot)) {
+                weight -= slot.weight;
+                collected++;
+            }
+        }
+    }
+
+    private interface Slot<V> {
+        V value();
+
+        long weight();
+    }
+
+    private record StrongSlot<V>(V value, long weight) implements Slot<V> {
+    }
+
+    private static final class SoftSlot<K, V> extends SoftReference<V> implements Slot<V> {
+        private final K key;
+        private final long weight;
+
+        SoftSlot(K key, V value, long weight, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+            this.weight = weight;
+        }
+
+        @Override
+        public V value() {
+            return get();
+        }
+
+        @Override
+        public long weight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.dkostin.avro_viewer.app.service.impl.dataset;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Record counts of the parts of a dataset, mapping a global record index to (part, local index).
+ * Immutable; built from the per-part block indexes.
+ */
+public final class DatasetIndex {
+
+    private final List<Path> parts;
+    // firstRecords[i] = global index of the first record of part i; firstRecords[parts.size()] = total
+    private final long[] firstRecords;
+
+    public DatasetIndex(List<Path> parts, long[] recordCounts) {
+        if (parts.size() != recordCounts.length) {
+            throw new IllegalArgumentException("parts and recordCounts differ in length");
+        }
+        this.parts = List.copyOf(parts);
+        this.firstRecords = new long[recordCounts.length + 1];
+        for (int i = 0; i < recordCounts.length; i++) {
+            firstRecords[i + 1] = firstRecords[i] + recordCounts[i];
+        }
+    }
+
+    public int partCount() {
+        return parts.size();
+    }
+
+    public List<Path> parts() {
+        return parts;
+    }
+
+    public Path part(int i) {
+        return parts.get(i);
+    }
+
+    public long totalRecords() {
+        return firstRecords[parts.size()];
+    }
+
+    public long firstRecord(int part) {
+        return firstRecords[part];
+    }
+
+    public long recordCount(int part) {
+        return firstRecords[part + 1] - firstRecords[part];
+    }
+
+    /**
+     * @return the part holding the global record, or -1 if it is out of range
+     */
+    public int findPart(long recordIndex) {
+        if (recordIndex < 0 || recordIndex >= totalRecords()) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(firstRecords, 0, parts.size(), recordIndex);
+        if (i >= 0) {
+            // several empty parts may start at the same record: take the last one, it holds the record
+            while (i + 1 < parts.size() && firstRecords[i + 1] == recordIndex) {
+                i++;
+            }
+            return i;
+        }
+        return -i - 2;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dkostin.avro_viewer.app.service.impl.dataset;
+
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
+import lombok.experimental.UtilityClass;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Lists the part files of a {@link Dataset}.
+ */
+@UtilityClass
+public final class DatasetParts {
+
+    /**
+     * @return the single file, or the regular files under the root matching the pattern, sorted by relative path
+     * @throws IOException if the directory cannot be listed or nothing matches
+     */
+    public static List<Path> resolve(Dataset dataset) throws IOException {
+        if (dataset.isSingleFile()) {
+            return List.of(dataset.root());
+        }
+        Path root = dataset.root();
+        String pattern = dataset.pattern();
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        // nested patterns ("**/x.avro", "2024-*/part-*") need a recursive walk, plain ones only the top level
+        int depth = pattern.contains("/") || pattern.contains("**") ? Integer.MAX_VALUE : 1;
+
+        List<Path> parts;
+        try (Stream<Path> files = Files.walk(root, depth)) {
+            parts = files
+                    .filter(Files::isRegularFile)
+                    .filter(p -> matcher.matches(root.relativize(p)))
+                    .sorted(Comparator.comparing(p -> root.relativize(p).toString()))
+                    .toList();
+        }
+        if (parts.isEmpty()) {
+            throw new IOException("No part files matching '" + pattern + "' in " + root);
+        }
+        return parts;
+    }
+}
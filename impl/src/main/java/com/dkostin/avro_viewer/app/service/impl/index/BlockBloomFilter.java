@@ -0,0 +1,120 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Per-block Bloom filters of the values of one top-level field, for {@code EQUALS} lookups: a block whose
+ * filter does not contain a value holds no record with that value.
+ * <p>
+ * Values are added by their lookup key (see {@link BloomFilterBuilder#valueKey}). Every block has its own bit
+ * set of about {@value #BITS_PER_VALUE} bits per record, probed {@value #HASHES} times (about 1% false
+ * positives), so a lookup reads the blocks holding the value plus about one in a hundred others.
+ */
+public final class BlockBloomFilter {
+
+    static final int BITS_PER_VALUE = 10;
+    static final int HASHES = 7;
+
+    private final String field;
+    private final int[] starts; // first word of every block, and the end of the last one
+    private final long[] words;
+
+    /**
+     * @param starts index in {@code words} of every block's first word, followed by {@code words.length}
+     */
+    public BlockBloomFilter(String field, int[] starts, long[] words) {
+        Objects.requireNonNull(field, "field");
+        if (starts.length == 0 || starts[starts.length - 1] != words.length) {
+            throw new IllegalArgumentException("starts must end with the number of words");
+        }
+        this.field = field;
+        this.starts = starts;
+        this.words = words;
+    }
+
+    public String field() {
+        return field;
+    }
+
+    /**
+     * Number of blocks covered, the first ones of the file's {@link BlockIndex}.
+     */
+    public int blockCount() {
+        return starts.length - 1;
+    }
+
+    /**
+     * @param hash {@link #hash} of a lookup key
+     * @return {@code false} if the block definitely has no value with that key
+     */
+    public boolean mightContain(int block, long hash) {
+        int from = starts[block];
+        long bits = (long) (starts[block + 1] - from) << 6;
+        if (bits == 0) {
+            return false; // no values
+        }
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            if ((words[from + (int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimated heap size, for cache weights.
+     */
+    public long byteSize() {
+        return 4L * starts.length + 8L * words.length;
+    }
+
+    /**
+     * 64-bit hash of a lookup key (FNV-1a over its UTF-8 bytes, then a 64-bit finalizer to spread the bits).
+     */
+    public static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Sets the bits of {@code hash} in a block's bit set.
+     */
+    static void add(long[] blockWords, long hash) {
+        long bits = (long) blockWords.length << 6;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            blockWords[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * A copy of the block's bit set.
+     */
+    long[] blockWords(int block) {
+        return Arrays.copyOfRange(words, starts[block], starts[block + 1]);
+    }
+
+    int start(int block) {
+        return starts[block];
+    }
+
+    long word(int index) {
+        return words[index];
+    }
+}
@@ -0,0 +1,169 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable index of the data blocks of an Avro container file.
+ * <p>
+ * For every block it keeps the file offset of the block start (the position right after
+ * the preceding sync marker, i.e. a valid argument for {@code DataFileReader.seek()}) and
+ * the global index of the first record stored in that block. This is enough to translate
+ * any record number into "seek to block B, then skip K records inside it".
+ * <p>
+ * It may also carry {@link ZoneMap}s (per-block min/max) of some fields, added once a range search needs them,
+ * and {@link BlockBloomFilter}s of fields indexed for lookups.
+ */
+public final class BlockIndex {
+
+    private final long[] blockOffsets;
+    private final long[] firstRecords;
+    private final long totalRecords;
+    private final long dataEnd;
+    private final Map<String, ZoneMap> zoneMaps;
+    private final Map<String, BlockBloomFilter> bloomFilters;
+
+    /**
+     * @param blockOffsets start offset of every block, ascending
+     * @param firstRecords global index of the first record of every block, ascending
+     * @param totalRecords number of records in all indexed blocks
+     * @param dataEnd      offset right after the last indexed block (its sync marker included)
+     */
+    public BlockIndex(long[] blockOffsets, long[] firstRecords, long totalRecords, long dataEnd) {
+        this(blockOffsets, firstRecords, totalRecords, dataEnd, List.of(), List.of());
+    }
+
+    /**
+     * @param zoneMaps     zone maps of some fields, covering the first blocks (all of them, unless the file grew)
+     * @param bloomFilters Bloom filters of some fields, covering the first blocks like the zone maps
+     */
+    public BlockIndex(long[] blockOffsets, long[] firstRecords, long totalRecords, long dataEnd,
+                      Collection<ZoneMap> zoneMaps, Collection<BlockBloomFilter> bloomFilters) {
+        Objects.requireNonNull(blockOffsets, "blockOffsets");
+        Objects.requireNonNull(firstRecords, "firstRecords");
+        if (blockOffsets.length != firstRecords.length) {
+            throw new IllegalArgumentException("blockOffsets and firstRecords must have the same length");
+        }
+        this.blockOffsets = blockOffsets;
+        this.firstRecords = firstRecords;
+        this.totalRecords = totalRecords;
+        this.dataEnd = dataEnd;
+        Map<String, ZoneMap> zones = new LinkedHashMap<>();
+        for (ZoneMap zone : zoneMaps) {
+            zones.put(zone.field(), zone);
+        }
+        this.zoneMaps = Collections.unmodifiableMap(zones);
+        Map<String, BlockBloomFilter> blooms = new LinkedHashMap<>();
+        for (BlockBloomFilter bloom : bloomFilters) {
+            blooms.put(bloom.field(), bloom);
+        }
+        this.bloomFilters = Collections.unmodifiableMap(blooms);
+    }
+
+    /**
+     * @return this index with {@code added} zone maps, replacing those of the same fields
+     */
+    public BlockIndex withZoneMaps(Collection<ZoneMap> added) {
+        Map<String, ZoneMap> zones = new LinkedHashMap<>(zoneMaps);
+        for (ZoneMap zone : added) {
+            zones.put(zone.field(), zone);
+        }
+        return new BlockIndex(blockOffsets, firstRecords, totalRecords, dataEnd, zones.values(), bloomFilters.values());
+    }
+
+    /**
+     * @return this index with {@code added} Bloom filters, replacing those of the same fields
+     */
+    public BlockIndex withBloomFilters(Collection<BlockBloomFilter> added) {
+        Map<String, BlockBloomFilter> blooms = new LinkedHashMap<>(bloomFilters);
+        for (BlockBloomFilter bloom : added) {
+            blooms.put(bloom.field(), bloom);
+        }
+        return new BlockIndex(blockOffsets, firstRecords, totalRecords, dataEnd, zoneMaps.values(), blooms.values());
+    }
+
+    /**
+     * @return the zone map of {@code field}, or {@code null} if there is none
+     */
+    public ZoneMap zoneMap(String field) {
+        return zoneMaps.get(field);
+    }
+
+    public Collection<ZoneMap> zoneMaps() {
+        return zoneMaps.values();
+    }
+
+    /**
+     * @return the Bloom filter of {@code field}, or {@code null} if it is not indexed for lookups
+     */
+    public BlockBloomFilter bloomFilter(String field) {
+        return bloomFilters.get(field);
+    }
+
+    public Collection<BlockBloomFilter> bloomFilters() {
+        return bloomFilters.values();
+    }
+
+    public int blockCount() {
+        return blockOffsets.length;
+    }
+
+    public long totalRecords() {
+        return totalRecords;
+    }
+
+    public long dataEnd() {
+        return dataEnd;
+    }
+
+    public long blockOffset(int block) {
+        return blockOffsets[block];
+    }
+
+    public long firstRecord(int block) {
+        return firstRecords[block];
+    }
+
+    /**
+     * Number of records stored in the given block.
+     */
+    public long recordCount(int block) {
+        long next = block + 1 < firstRecords.length ? firstRecords[block + 1] : totalRecords;
+        return next - firstRecords[block];
+    }
+
+    /**
+     * Finds the block holding the record with the given global index.
+     *
+     * @return block ordinal, or {@code -1} if {@code recordIndex} is outside the indexed range
+     */
+    public int findBlock(long recordIndex) {
+        if (recordIndex < 0 || recordIndex >= totalRecords) {
+            return -1;
+        }
+        int pos = Arrays.binarySearch(firstRecords, recordIndex);
+        if (pos >= 0) {
+            // Empty blocks share their firstRecord with the next one: take the last of the run
+            while (pos + 1 < firstRecords.length && firstRecords[pos + 1] == recordIndex) {
+                pos++;
+            }
+            return pos;
+        }
+        return -pos - 2; // insertion point - 1
+    }
+
+    /**
+     * Finds the block that starts at the given file offset.
+     *
+     * @return block ordinal, or {@code -1} if no block starts there
+     */
+    public int findBlockAt(long offset) {
+        int pos = Arrays.binarySearch(blockOffsets, offset); // offsets grow strictly, empty blocks included
+        return pos >= 0 ? pos : -1;
+    }
+}
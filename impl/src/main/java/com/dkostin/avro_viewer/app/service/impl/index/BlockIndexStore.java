@@ -0,0 +1,268 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Persists {@link BlockIndex} instances as small sidecar files in a user cache directory,
+ * so reopening the same data file skips the header scan entirely.
+ * <p>
+ * One sidecar is kept per data file path; it is only reused while the file keeps the same
+ * {@link FileIdentity} (size + last-modified time), otherwise it is rebuilt and overwritten.
+ * The index's {@link ZoneMap}s and {@link BlockBloomFilter}s are stored with it. All failures are treated as cache misses: the store
+ * never breaks reading the actual data.
+ */
+@Slf4j
+public class BlockIndexStore {
+
+    private static final int MAGIC = 0x41564958; // "AVIX"
+    private static final int VERSION = 3;
+    private static final String SUFFIX = ".idx";
+
+    private final Path directory;
+
+    public BlockIndexStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Resolves the per-user cache directory for index sidecars, never next to the data itself.
+     * Can be overridden with the {@code avroviewer.cacheDir} system property.
+     */
+    public static Path defaultDirectory() {
+        String override = System.getProperty("avroviewer.cacheDir");
+        if (override != null && !override.isBlank()) {
+            return Path.of(override, "index");
+        }
+        String home = System.getProperty("user.home");
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        Path base;
+        if (os.contains("win")) {
+            String localAppData = System.getenv("LOCALAPPDATA");
+            base = localAppData != null ? Path.of(localAppData, "AvroViewer", "cache") : Path.of(home, "AppData", "Local", "AvroViewer", "cache");
+        } else if (os.contains("mac")) {
+            base = Path.of(home, "Library", "Caches", "AvroViewer");
+        } else {
+            String xdg = System.getenv("XDG_CACHE_HOME");
+            base = xdg != null && !xdg.isBlank() ? Path.of(xdg, "avro-viewer") : Path.of(home, ".cache", "avro-viewer");
+        }
+        return base.resolve("index");
+    }
+
+    public Optional<BlockIndex> load(FileIdentity identity) {
+        Path sidecar = sidecarFor(identity);
+        if (!Files.isRegularFile(sidecar)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(sidecar)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return Optional.empty();
+            }
+            String path = in.readUTF();
+            long size = in.readLong();
+            long lastModified = in.readLong();
+            if (!identity.equals(new FileIdentity(Path.of(path), size, lastModified))) {
+                return Optional.empty(); // data file changed since the index was written
+            }
+            int blocks = in.readInt();
+            long totalRecords = in.readLong();
+            long dataEnd = in.readLong();
+
+            long[] offsets = new long[blocks];
+            long[] firsts = new long[blocks];
+            long offset = 0;
+            long first = 0;
+            for (int i = 0; i < blocks; i++) {
+                offset += readVarLong(in);
+                first += readVarLong(in);
+                offsets[i] = offset;
+                firsts[i] = first;
+            }
+            int zoneCount = in.readInt();
+            List<ZoneMap> zones = new ArrayList<>(zoneCount);
+            for (int z = 0; z < zoneCount; z++) {
+                zones.add(readZoneMap(in));
+            }
+            int bloomCount = in.readInt();
+            List<BlockBloomFilter> blooms = new ArrayList<>(bloomCount);
+            for (int f = 0; f < bloomCount; f++) {
+                blooms.add(readBloomFilter(in));
+            }
+            return Optional.of(new BlockIndex(offsets, firsts, totalRecords, dataEnd, zones, blooms));
+        } catch (IOException | RuntimeException e) {
+            log.debug("Ignoring unreadable index sidecar {}: {}", sidecar, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    public void save(FileIdentity identity, BlockIndex index) {
+        Path sidecar = sidecarFor(identity);
+        Path tmp = null;
+        try {
+            Files.createDirectories(directory);
+            tmp = Files.createTempFile(directory, "index-", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(identity.file().toString());
+                out.writeLong(identity.size());
+                out.writeLong(identity.lastModified());
+                out.writeInt(index.blockCount());
+                out.writeLong(index.totalRecords());
+                out.writeLong(index.dataEnd());
+                // Offsets and record numbers are ascending: store deltas as varlongs (a few bytes per block)
+                long prevOffset = 0;
+                long prevFirst = 0;
+                for (int i = 0; i < index.blockCount(); i++) {
+                    writeVarLong(out, index.blockOffset(i) - prevOffset);
+                    writeVarLong(out, index.firstRecord(i) - prevFirst);
+                    prevOffset = index.blockOffset(i);
+                    prevFirst = index.firstRecord(i);
+                }
+                out.writeInt(index.zoneMaps().size());
+                for (ZoneMap zone : index.zoneMaps()) {
+                    writeZoneMap(out, zone);
+                }
+                out.writeInt(index.bloomFilters().size());
+                for (BlockBloomFilter bloom : index.bloomFilters()) {
+                    writeBloomFilter(out, bloom);
+                }
+            }
+            try {
+                Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, sidecar, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write index sidecar {}: {}", sidecar, e.toString());
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    Path sidecarFor(FileIdentity identity) {
+        return directory.resolve(sha256(identity.file().toString()) + SUFFIX);
+    }
+
+    private static String sha256(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeZoneMap(DataOutput out, ZoneMap zone) throws IOException {
+        out.writeUTF(zone.field());
+        out.writeBoolean(zone.floating());
+        out.writeInt(zone.blockCount());
+        long prevMin = 0;
+        long prevMax = 0;
+        for (int b = 0; b < zone.blockCount(); b++) {
+            if (zone.floating()) {
+                out.writeLong(zone.rawMin(b));
+                out.writeLong(zone.rawMax(b));
+            } else {
+                // neighbouring blocks of ordered data have close values: zig-zag deltas stay short
+                writeVarLong(out, zigZag(zone.rawMin(b) - prevMin));
+                writeVarLong(out, zigZag(zone.rawMax(b) - prevMax));
+                prevMin = zone.rawMin(b);
+                prevMax = zone.rawMax(b);
+            }
+        }
+    }
+
+    private static ZoneMap readZoneMap(DataInput in) throws IOException {
+        String field = in.readUTF();
+        boolean floating = in.readBoolean();
+        int blocks = in.readInt();
+        long[] min = new long[blocks];
+        long[] max = new long[blocks];
+        long prevMin = 0;
+        long prevMax = 0;
+        for (int b = 0; b < blocks; b++) {
+            if (floating) {
+                min[b] = in.readLong();
+                max[b] = in.readLong();
+            } else {
+                prevMin += unZigZag(readVarLong(in));
+                prevMax += unZigZag(readVarLong(in));
+                min[b] = prevMin;
+                max[b] = prevMax;
+            }
+        }
+        return new ZoneMap(field, floating, min, max);
+    }
+
+    private static void writeBloomFilter(DataOutput out, BlockBloomFilter bloom) throws IOException {
+        out.writeUTF(bloom.field());
+        out.writeInt(bloom.blockCount());
+        for (int b = 0; b < bloom.blockCount(); b++) {
+            writeVarLong(out, bloom.start(b + 1) - bloom.start(b));
+        }
+        for (int w = 0; w < bloom.start(bloom.blockCount()); w++) {
+            out.writeLong(bloom.word(w));
+        }
+    }
+
+    private static BlockBloomFilter readBloomFilter(DataInput in) throws IOException {
+        String field = in.readUTF();
+        int blocks = in.readInt();
+        int[] starts = new int[blocks + 1];
+        for (int b = 0; b < blocks; b++) {
+            starts[b + 1] = Math.addExact(starts[b], Math.toIntExact(readVarLong(in)));
+        }
+        long[] words = new long[starts[blocks]];
+        for (int w = 0; w < words.length; w++) {
+            words[w] = in.readLong();
+        }
+        return new BlockBloomFilter(field, starts, words);
+    }
+
+    private static long zigZag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unZigZag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    private static void writeVarLong(DataOutput out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long v = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 63) throw new IOException("Malformed varlong");
+            b = in.readUnsignedByte();
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return v;
+    }
+}
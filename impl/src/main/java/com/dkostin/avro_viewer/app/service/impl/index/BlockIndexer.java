@@ -0,0 +1,261 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import lombok.experimental.UtilityClass;
+import org.apache.avro.file.DataFileConstants;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableFileInput;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds a {@link BlockIndex} by walking the block headers of an Avro container file.
+ * <p>
+ * Each block is laid out as {@code <record count: varlong> <byte size: varlong> <payload> <sync: 16 bytes>}.
+ * The indexer reads only the two varlongs and the trailing sync marker of every block and seeks over
+ * the payload, so compressed data is never read or decompressed.
+ */
+@UtilityClass
+public final class BlockIndexer {
+
+    /** Two zig-zag varlongs take at most 10 bytes each. */
+    private static final int MAX_BLOCK_HEADER = 20;
+
+    private static final int SYNC_SIZE = DataFileConstants.SYNC_SIZE;
+
+    public static BlockIndex build(Path file) throws IOException {
+        try (SeekableFileInput input = new SeekableFileInput(file.toFile())) {
+            return build(input);
+        }
+    }
+
+    /**
+     * Indexes all complete blocks of the container behind {@code input}.
+     * <p>
+     * A trailing block that is cut short (e.g. still being written) ends the scan instead of failing it.
+     * The caller keeps ownership of {@code input}.
+     */
+    public static BlockIndex build(SeekableInput input) throws IOException {
+        Collector collector = new Collector();
+        long dataEnd = scan(input, collector);
+        return collector.toIndex(dataEnd);
+    }
+
+    /**
+     * Continues {@code previous} with the blocks appended to the file since it was built, reading only the
+     * headers of the new blocks.
+     * <p>
+     * The 16 bytes before {@code previous.dataEnd()} must still be this file's sync marker; a file that was
+     * rewritten rather than appended to fails that check (its sync marker is random) with an {@link IOException}.
+     */
+    public static BlockIndex extend(SeekableInput input, BlockIndex previous) throws IOException {
+        Collector collector = new Collector(previous);
+        long dataEnd = scan(input, previous.dataEnd(), collector);
+        return collector.toIndex(dataEnd);
+    }
+
+    /**
+     * Walks the complete blocks of the container behind {@code input} in file order, reporting each one
+     * as soon as its sync marker is verified; same rules as {@link #build(SeekableInput)}.
+     *
+     * @return the offset right after the last complete block
+     */
+    public static long scan(SeekableInput input, BlockVisitor visitor) throws IOException {
+        return scan(input, 0, visitor);
+    }
+
+    /**
+     * Like {@link #scan(SeekableInput, BlockVisitor)}, starting at the block boundary {@code from}
+     * (clamped to the first block) after checking that it is preceded by the file's sync marker.
+     */
+    public static long scan(SeekableInput input, long from, BlockVisitor visitor) throws IOException {
+        long firstBlock = firstBlockOffset(input);
+        long length = input.length();
+
+        byte[] sync = new byte[SYNC_SIZE];
+        input.seek(firstBlock - SYNC_SIZE);
+        if (readFully(input, sync, 0, SYNC_SIZE) < SYNC_SIZE) {
+            throw new IOException("Truncated Avro header");
+        }
+
+        byte[] buf = new byte[SYNC_SIZE + MAX_BLOCK_HEADER];
+        long pos = Math.max(from, firstBlock);
+        if (pos > firstBlock) {
+            input.seek(pos - SYNC_SIZE);
+            if (readFully(input, buf, 0, SYNC_SIZE) < SYNC_SIZE
+                    || !Arrays.equals(buf, 0, SYNC_SIZE, sync, 0, SYNC_SIZE)) {
+                throw new IOException("No block boundary at offset " + pos);
+            }
+        }
+        input.seek(pos);
+        int buffered = readFully(input, buf, SYNC_SIZE, MAX_BLOCK_HEADER);
+
+        while (pos < length && buffered > 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Block indexing interrupted");
+            }
+
+            int[] cursor = {SYNC_SIZE};
+            int end = SYNC_SIZE + buffered;
+            long count = readVarLong(buf, cursor, end);
+            long size = readVarLong(buf, cursor, end);
+            if (count < 0 || size < 0) {
+                break; // partial header at the tail of a file that is still being written
+            }
+            long payloadEnd = pos + (cursor[0] - SYNC_SIZE) + size;
+            long next = payloadEnd + SYNC_SIZE;
+            if (next > length) {
+                break; // incomplete last block
+            }
+
+            // Read this block's sync marker together with the header of the following block
+            input.seek(payloadEnd);
+            int read = readFully(input, buf, 0, buf.length);
+            if (read < SYNC_SIZE) {
+                break;
+            }
+            if (!Arrays.equals(buf, 0, SYNC_SIZE, sync, 0, SYNC_SIZE)) {
+                throw new IOException("Invalid sync marker after block at offset " + pos);
+            }
+
+            visitor.block(pos, count);
+
+            pos = next;
+            buffered = read - SYNC_SIZE;
+        }
+        return pos;
+    }
+
+    private static final class Collector implements BlockVisitor {
+        private long[] offsets = new long[64];
+        private long[] firsts = new long[64];
+        private int blocks;
+        private long records;
+        private Collection<ZoneMap> zoneMaps = List.of();
+        private Collection<BlockBloomFilter> bloomFilters = List.of();
+
+        Collector() {
+        }
+
+        Collector(BlockIndex previous) {
+            int n = previous.blockCount();
+            offsets = new long[Math.max(64, n * 2)];
+            firsts = new long[offsets.length];
+            for (int b = 0; b < n; b++) {
+                offsets[b] = previous.blockOffset(b);
+                firsts[b] = previous.firstRecord(b);
+            }
+            blocks = n;
+            records = previous.totalRecords();
+            // they cover the old blocks only; the new ones read as unknown
+            zoneMaps = previous.zoneMaps();
+            bloomFilters = previous.bloomFilters();
+        }
+
+        @Override
+        public void block(long offset, long recordCount) {
+            if (blocks == offsets.length) {
+                offsets = Arrays.copyOf(offsets, blocks * 2);
+                firsts = Arrays.copyOf(firsts, blocks * 2);
+            }
+            offsets[blocks] = offset;
+            firsts[blocks] = records;
+            blocks++;
+            records += recordCount;
+        }
+
+        BlockIndex toIndex(long dataEnd) {
+            return new BlockIndex(Arrays.copyOf(offsets, blocks), Arrays.copyOf(firsts, blocks), records, dataEnd,
+                    zoneMaps, bloomFilters);
+        }
+    }
+
+    /**
+     * Receives the blocks found by {@link #scan(SeekableInput, BlockVisitor)}.
+     */
+    @FunctionalInterface
+    public interface BlockVisitor {
+        /**
+         * @param offset      block start, a valid argument for {@code DataFileReader.seek()}
+         * @param recordCount records stored in the block
+         */
+        void block(long offset, long recordCount) throws IOException;
+    }
+
+    /**
+     * Returns the offset of the first data block, i.e. the length of the container header.
+     */
+    static long firstBlockOffset(SeekableInput input) throws IOException {
+        input.seek(0);
+        // DataFileReader parses the header; previousSync() then points at the first block.
+        // It must not be closed here: that would close the caller's input.
+        DataFileReader<GenericRecord> header = new DataFileReader<>(new NonClosingInput(input), new GenericDatumReader<>());
+        return header.previousSync();
+    }
+
+    private static int readFully(SeekableInput in, byte[] b, int off, int len) throws IOException {
+        int total = 0;
+        while (total < len) {
+            int n = in.read(b, off + total, len - total);
+            if (n < 0) break;
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Decodes an Avro zig-zag varlong; returns {@code -1} if the buffer ends before the value does.
+     */
+    private static long readVarLong(byte[] buf, int[] cursor, int end) {
+        long raw = 0;
+        int shift = 0;
+        int i = cursor[0];
+        int b;
+        do {
+            if (i >= end || shift > 63) {
+                return -1;
+            }
+            b = buf[i++] & 0xff;
+            raw |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        cursor[0] = i;
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /**
+     * Lets a throw-away {@link DataFileReader} parse the header without closing the shared input.
+     */
+    private record NonClosingInput(SeekableInput delegate) implements SeekableInput {
+        @Override
+        public void seek(long p) throws IOException {
+            delegate.seek(p);
+        }
+
+        @Override
+        public long tell() throws IOException {
+            return delegate.tell();
+        }
+
+        @Override
+        public long length() throws IOException {
+            return delegate.length();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return delegate.read(b, off, len);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks blocks for record sampling without replacement, each with probability proportional to its record count
+ * (Efraimidis–Spirakis: every block draws the key {@code u^(1/w)}, the {@code k} largest keys win).
+ * Weighting by record count keeps a record in a small block as likely to be picked as one in a large block.
+ */
+@UtilityClass
+public final class BlockSampler {
+
+    /**
+     * @param recordCounts record count per block; empty blocks are never picked
+     * @param k            blocks wanted
+     * @return indexes of the picked blocks in ascending (file) order; all non-empty blocks if there are at most k
+     */
+    public static int[] choose(long[] recordCounts, int k, RandomGenerator random) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        // min-heap on the key: the root is the weakest of the current winners
+        PriorityQueue<double[]> winners = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(a[0], b[0]));
+        for (int block = 0; block < recordCounts.length; block++) {
+            long weight = recordCounts[block];
+            if (weight <= 0) {
+                continue;
+            }
+            // log of u^(1/w), compared in log space to avoid underflow for heavy blocks
+            double key = Math.log(random.nextDouble()) / weight;
+            if (winners.size() < k) {
+                winners.add(new double[]{key, block});
+            } else if (key > winners.peek()[0]) {
+                winners.poll();
+                winners.add(new double[]{key, block});
+            }
+        }
+        int[] blocks = winners.stream().mapToInt(w -> (int) w[1]).toArray();
+        Arrays.sort(blocks);
+        return blocks;
+    }
+}
@@ -0,0 +1,31 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.IOException;
+
+/**
+ * Collects per-block statistics of some fields of a file by decoding just those fields. Disjoint block ranges
+ * may be scanned concurrently, each with its own reader.
+ */
+public interface BlockScanner {
+
+    /**
+     * The first block that still has to be scanned; the ones before it are known already.
+     */
+    int firstBlock();
+
+    /**
+     * A datum reader for the scanning readers: it decodes the collected fields only.
+     */
+    GenericDatumReader<GenericRecord> datumReader();
+
+    /**
+     * Records the values of blocks {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @param reader a reader of the indexed file, created with {@link #datumReader()}
+     */
+    void scanBlocks(DataFileReader<GenericRecord> reader, int from, int to) throws IOException;
+}
@@ -0,0 +1,186 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import com.dkostin.avro_viewer.app.util.SchemaProjector;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds {@link BlockBloomFilter}s of some top-level fields for the blocks of a {@link BlockIndex}, decoding only
+ * those fields.
+ * <p>
+ * Filters the index already has for a prefix of its blocks (e.g. before the file was appended to) are kept;
+ * only the blocks from {@link #firstBlock()} on are read.
+ */
+public final class BloomFilterBuilder implements BlockScanner {
+
+    private final BlockIndex index;
+    private final Schema writer;
+    private final Schema projected;
+    private final Field[] fields;
+    private final int firstBlock;
+
+    /**
+     * @param writer the file's schema
+     * @param names  top-level fields accepted by {@link #supports(Schema)}
+     */
+    public BloomFilterBuilder(Schema writer, Collection<String> names, BlockIndex index) {
+        this.index = index;
+        this.writer = writer;
+        this.projected = SchemaProjector.project(writer, names);
+        int blocks = index.blockCount();
+        List<Field> list = new ArrayList<>(names.size());
+        int first = blocks;
+        for (String name : names) {
+            Schema.Field f = projected.getField(name);
+            if (f == null || !supports(f.schema())) {
+                throw new IllegalArgumentException("No string or integer field " + name);
+            }
+            long[][] bits = new long[blocks][];
+            int known = 0;
+            BlockBloomFilter previous = index.bloomFilter(name);
+            if (previous != null) {
+                known = Math.min(previous.blockCount(), blocks);
+                for (int b = 0; b < known; b++) {
+                    bits[b] = previous.blockWords(b);
+                }
+            }
+            first = Math.min(first, known);
+            list.add(new Field(name, f.pos(), bits));
+        }
+        this.fields = list.toArray(Field[]::new);
+        this.firstBlock = first;
+    }
+
+    /**
+     * Whether a field of this schema can have Bloom filters: string, enum, int or long, optionally in a union
+     * with null. Floating point values are left out: {@code EQUALS} compares them by value, not by one rendering.
+     */
+    public static boolean supports(Schema fieldSchema) {
+        Schema value = ZoneMapBuilder.nonNull(fieldSchema);
+        if (value == null) {
+            return false;
+        }
+        return switch (value.getType()) {
+            case STRING, ENUM, INT, LONG -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * The key a record value of a supported field is added under.
+     */
+    static String valueKey(Object value) {
+        if (value instanceof Integer || value instanceof Long) {
+            return Long.toString(((Number) value).longValue());
+        }
+        return value.toString(); // Utf8, String or an enum symbol
+    }
+
+    /**
+     * The key that a value {@code EQUALS} {@code expected} has in a field of {@code fieldSchema}: the text of a
+     * string or enum symbol, the decimal digits of an integer.
+     *
+     * @return the key, or {@code null} if it cannot be derived (no value, or no integer)
+     */
+    public static String lookupKey(Schema fieldSchema, Object expected) {
+        Schema value = ZoneMapBuilder.nonNull(fieldSchema);
+        if (expected == null || value == null) {
+            return null;
+        }
+        String text = expected instanceof BigDecimal bd ? bd.stripTrailingZeros().toPlainString() : expected.toString();
+        return switch (value.getType()) {
+            case STRING, ENUM -> text;
+            case INT, LONG -> {
+                try {
+                    yield Long.toString(new BigDecimal(text.trim()).longValueExact());
+                } catch (NumberFormatException | ArithmeticException e) {
+                    yield null; // compared by value: a fraction or a word is left to the record predicate
+                }
+            }
+            default -> null;
+        };
+    }
+
+    @Override
+    public int firstBlock() {
+        return firstBlock;
+    }
+
+    @Override
+    public GenericDatumReader<GenericRecord> datumReader() {
+        return new GenericDatumReader<>(writer, projected);
+    }
+
+    @Override
+    public void scanBlocks(DataFileReader<GenericRecord> reader, int from, int to) throws IOException {
+        if (from >= to) {
+            return;
+        }
+        reader.seek(index.blockOffset(from));
+        GenericRecord rec = null;
+        long[][] hashes = new long[fields.length][];
+        int[] counts = new int[fields.length];
+        for (int b = from; b < to; b++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Bloom filter scan interrupted");
+            }
+            int records = (int) index.recordCount(b);
+            for (int f = 0; f < fields.length; f++) {
+                if (hashes[f] == null || hashes[f].length < records) {
+                    hashes[f] = new long[records];
+                }
+                counts[f] = 0;
+            }
+            for (int n = records; n > 0 && reader.hasNext(); n--) {
+                rec = reader.next(rec);
+                for (int f = 0; f < fields.length; f++) {
+                    Object value = rec.get(fields[f].pos);
+                    if (value != null) {
+                        hashes[f][counts[f]++] = BlockBloomFilter.hash(valueKey(value));
+                    }
+                }
+            }
+            for (int f = 0; f < fields.length; f++) {
+                // sized by the values actually present: a block of nulls gets no bits at all
+                long[] words = new long[(int) ((counts[f] * (long) BlockBloomFilter.BITS_PER_VALUE + 63) >>> 6)];
+                for (int i = 0; i < counts[f]; i++) {
+                    BlockBloomFilter.add(words, hashes[f][i]);
+                }
+                fields[f].bits[b] = words;
+            }
+        }
+    }
+
+    /**
+     * @return the filters, one per field
+     */
+    public List<BlockBloomFilter> build() {
+        List<BlockBloomFilter> filters = new ArrayList<>(fields.length);
+        for (Field field : fields) {
+            int[] starts = new int[field.bits.length + 1];
+            for (int b = 0; b < field.bits.length; b++) {
+                starts[b + 1] = starts[b] + (field.bits[b] == null ? 0 : field.bits[b].length);
+            }
+            long[] words = new long[starts[field.bits.length]];
+            for (int b = 0; b < field.bits.length; b++) {
+                if (field.bits[b] != null) {
+                    System.arraycopy(field.bits[b], 0, words, starts[b], field.bits[b].length);
+                }
+            }
+            filters.add(new BlockBloomFilter(field.name, starts, words));
+        }
+        return filters;
+    }
+
+    private record Field(String name, int pos, long[][] bits) {
+    }
+}
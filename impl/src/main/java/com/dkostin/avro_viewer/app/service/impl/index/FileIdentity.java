@@ -0,0 +1,19 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Identity of a file's content as far as cached derived data is concerned:
+ * the same normalized path with the same size and modification time is assumed unchanged.
+ */
+public record FileIdentity(Path file, long size, long lastModified) {
+
+    public static FileIdentity of(Path file) throws IOException {
+        Path normalized = file.toAbsolutePath().normalize();
+        BasicFileAttributes attrs = Files.readAttributes(normalized, BasicFileAttributes.class);
+        return new FileIdentity(normalized, attrs.size(), attrs.lastModifiedTime().toMillis());
+    }
+}
@@ -0,0 +1,67 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Block-level pre-filter for {@code EQUALS} criteria on top-level fields with {@link BlockBloomFilter}s: a block
+ * whose filter does not contain the value holds no match and need not be read.
+ * <p>
+ * Fields without Bloom filters, and blocks appended since they were built, are kept.
+ *
+ * @param conditions all of them must hold (criteria are ANDed)
+ */
+public record LookupFilter(List<Condition> conditions) {
+
+    /**
+     * @return the fields looked up
+     */
+    public Set<String> fields() {
+        Set<String> fields = new LinkedHashSet<>();
+        for (Condition c : conditions) {
+            fields.add(c.field());
+        }
+        return fields;
+    }
+
+    /**
+     * Whether {@code index} has a Bloom filter of some looked up field.
+     */
+    public boolean appliesTo(BlockIndex index) {
+        for (Condition c : conditions) {
+            if (index.bloomFilter(c.field()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the blocks of {@code index} that may hold a match
+     */
+    public BitSet candidates(BlockIndex index) {
+        BitSet candidates = new BitSet(index.blockCount());
+        candidates.set(0, index.blockCount());
+        for (Condition c : conditions) {
+            BlockBloomFilter filter = index.bloomFilter(c.field());
+            if (filter == null) {
+                continue;
+            }
+            int covered = Math.min(filter.blockCount(), index.blockCount());
+            for (int b = candidates.nextSetBit(0); b >= 0 && b < covered; b = candidates.nextSetBit(b + 1)) {
+                if (!filter.mightContain(b, c.hash())) {
+                    candidates.clear(b);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @param hash {@link BlockBloomFilter#hash} of the value's lookup key
+     */
+    public record Condition(String field, long hash) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import com.dkostin.avro_viewer.app.domain.model.filter.RangeBounds;
+import com.dkostin.avro_viewer.app.util.DeepSearchEngine;
+
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Block-level pre-filter for range criteria on top-level numeric fields: a block whose {@link ZoneMap} range
+ * of a field cannot overlap that field's bounds holds no match and need not be read.
+ * <p>
+ * Blocks without a zone map of a field are kept. A block with no value of a field is dropped, since a range
+ * never matches a missing value.
+ *
+ * @param conditions all of them must overlap (criteria are ANDed)
+ */
+public record ZoneFilter(List<Condition> conditions) {
+
+    /**
+     * @return the fields that need zone maps
+     */
+    public Set<String> fields() {
+        Set<String> fields = new LinkedHashSet<>();
+        for (Condition c : conditions) {
+            fields.add(c.field());
+        }
+        return fields;
+    }
+
+    /**
+     * @return the blocks of {@code index} that may hold a match
+     */
+    public BitSet candidates(BlockIndex index) {
+        BitSet candidates = new BitSet(index.blockCount());
+        candidates.set(0, index.blockCount());
+        for (Condition c : conditions) {
+            ZoneMap zone = index.zoneMap(c.field());
+            if (zone == null) {
+                continue;
+            }
+            int covered = Math.min(zone.blockCount(), index.blockCount());
+            for (int b = candidates.nextSetBit(0); b >= 0 && b < covered; b = candidates.nextSetBit(b + 1)) {
+                if (!c.overlaps(zone, b)) {
+                    candidates.clear(b);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @param timestampUnit unit of the field's timestamp logical type, {@code null} if it has none
+     */
+    public record Condition(String field, RangeBounds bounds, ChronoUnit timestampUnit) {
+
+        boolean overlaps(ZoneMap zone, int block) {
+            if (!zone.hasValues(block)) {
+                return false;
+            }
+            if (timestampUnit != null && !zone.floating() && bounds.hasInstants()) {
+                return bounds.overlaps(DeepSearchEngine.toInstant(zone.min(block).longValue(), timestampUnit),
+                        DeepSearchEngine.toInstant(zone.max(block).longValue(), timestampUnit));
+            }
+            return bounds.overlaps(zone.min(block), zone.max(block));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import java.util.Objects;
+
+/**
+ * Per-block minimum and maximum of one numeric top-level field (a "zone map").
+ * <p>
+ * Integral fields (int, long and the timestamp types stored as long) keep their values as is; floating point
+ * fields keep the bits of their {@code double} values. A block without any value of the field (all nulls, or
+ * no records) has {@code min > max}. NaN is never recorded: no range contains it.
+ */
+public final class ZoneMap {
+
+    private final String field;
+    private final boolean floating;
+    private final long[] min;
+    private final long[] max;
+
+    /**
+     * @param floating whether {@code min} and {@code max} hold {@link Double#doubleToLongBits double bits}
+     */
+    public ZoneMap(String field, boolean floating, long[] min, long[] max) {
+        Objects.requireNonNull(field, "field");
+        if (min.length != max.length) {
+            throw new IllegalArgumentException("min and max must have the same length");
+        }
+        this.field = field;
+        this.floating = floating;
+        this.min = min;
+        this.max = max;
+    }
+
+    public String field() {
+        return field;
+    }
+
+    public boolean floating() {
+        return floating;
+    }
+
+    /**
+     * Number of blocks covered, the first ones of the file's {@link BlockIndex}.
+     */
+    public int blockCount() {
+        return min.length;
+    }
+
+    /**
+     * Whether the block holds at least one value of the field.
+     */
+    public boolean hasValues(int block) {
+        return floating
+                ? Double.longBitsToDouble(min[block]) <= Double.longBitsToDouble(max[block])
+                : min[block] <= max[block];
+    }
+
+    public Number min(int block) {
+        return floating ? Double.longBitsToDouble(min[block]) : min[block];
+    }
+
+    public Number max(int block) {
+        return floating ? Double.longBitsToDouble(max[block]) : max[block];
+    }
+
+    long rawMin(int block) {
+        return min[block];
+    }
+
+    long rawMax(int block) {
+        return max[block];
+    }
+}
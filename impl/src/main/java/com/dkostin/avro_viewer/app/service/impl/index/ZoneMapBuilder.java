@@ -0,0 +1,176 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import com.dkostin.avro_viewer.app.util.SchemaProjector;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds {@link ZoneMap}s of some top-level numeric fields for the blocks of a {@link BlockIndex}, decoding only
+ * those fields.
+ * <p>
+ * Zone maps the index already has for a prefix of its blocks (e.g. before the file was appended to) are kept;
+ * only the blocks from {@link #firstBlock()} on are read.
+ */
+public final class ZoneMapBuilder implements BlockScanner {
+
+    private final BlockIndex index;
+    private final Schema writer;
+    private final Schema projected;
+    private final Field[] fields;
+    private final int firstBlock;
+
+    /**
+     * @param writer the file's schema
+     * @param names  top-level fields accepted by {@link #supports(Schema)}
+     */
+    public ZoneMapBuilder(Schema writer, Collection<String> names, BlockIndex index) {
+        this.index = index;
+        this.writer = writer;
+        this.projected = SchemaProjector.project(writer, names);
+        int blocks = index.blockCount();
+        List<Field> list = new ArrayList<>(names.size());
+        int first = blocks;
+        for (String name : names) {
+            Schema.Field f = projected.getField(name);
+            if (f == null || !supports(f.schema())) {
+                throw new IllegalArgumentException("No numeric field " + name);
+            }
+            boolean floating = isFloating(f.schema());
+            long[] min = new long[blocks];
+            long[] max = new long[blocks];
+            Arrays.fill(min, floating ? Double.doubleToLongBits(Double.POSITIVE_INFINITY) : Long.MAX_VALUE);
+            Arrays.fill(max, floating ? Double.doubleToLongBits(Double.NEGATIVE_INFINITY) : Long.MIN_VALUE);
+            int known = 0;
+            ZoneMap previous = index.zoneMap(name);
+            if (previous != null && previous.floating() == floating) {
+                known = Math.min(previous.blockCount(), blocks);
+                for (int b = 0; b < known; b++) {
+                    min[b] = previous.rawMin(b);
+                    max[b] = previous.rawMax(b);
+                }
+            }
+            first = Math.min(first, known);
+            list.add(new Field(name, f.pos(), floating, min, max));
+        }
+        this.fields = list.toArray(Field[]::new);
+        this.firstBlock = first;
+    }
+
+    /**
+     * Whether a field of this schema can have a zone map: int, long (timestamps included), float or double,
+     * optionally in a union with null.
+     */
+    public static boolean supports(Schema fieldSchema) {
+        Schema value = nonNull(fieldSchema);
+        if (value == null) {
+            return false;
+        }
+        return switch (value.getType()) {
+            case INT, LONG, FLOAT, DOUBLE -> true;
+            default -> false;
+        };
+    }
+
+    @Override
+    public int firstBlock() {
+        return firstBlock;
+    }
+
+    @Override
+    public GenericDatumReader<GenericRecord> datumReader() {
+        return new GenericDatumReader<>(writer, projected);
+    }
+
+    @Override
+    public void scanBlocks(DataFileReader<GenericRecord> reader, int from, int to) throws IOException {
+        if (from >= to) {
+            return;
+        }
+        reader.seek(index.blockOffset(from));
+        GenericRecord rec = null;
+        for (int b = from; b < to; b++) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Zone map scan interrupted");
+            }
+            for (long n = index.recordCount(b); n > 0 && reader.hasNext(); n--) {
+                rec = reader.next(rec);
+                for (Field field : fields) {
+                    field.add(b, rec.get(field.pos));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the zone maps, one per field
+     */
+    public List<ZoneMap> build() {
+        List<ZoneMap> maps = new ArrayList<>(fields.length);
+        for (Field field : fields) {
+            maps.add(new ZoneMap(field.name, field.floating, field.min, field.max));
+        }
+        return maps;
+    }
+
+    private static boolean isFloating(Schema fieldSchema) {
+        Schema.Type type = nonNull(fieldSchema).getType();
+        return type == Schema.Type.FLOAT || type == Schema.Type.DOUBLE;
+    }
+
+    /**
+     * @return the schema itself, the only other branch of a union with null, or {@code null} for other unions
+     */
+    static Schema nonNull(Schema schema) {
+        if (schema.getType() != Schema.Type.UNION) {
+            return schema;
+        }
+        Schema value = null;
+        for (Schema branch : schema.getTypes()) {
+            if (branch.getType() != Schema.Type.NULL) {
+                if (value != null) {
+                    return null;
+                }
+                value = branch;
+            }
+        }
+        return value;
+    }
+
+    private record Field(String name, int pos, boolean floating, long[] min, long[] max) {
+
+        void add(int block, Object value) {
+            if (value == null) {
+                return;
+            }
+            if (floating) {
+                double d = ((Number) value).doubleValue();
+                if (Double.isNaN(d)) {
+                    return;
+                }
+                if (d < Double.longBitsToDouble(min[block])) {
+                    min[block] = Double.doubleToLongBits(d);
+                }
+                if (d > Double.longBitsToDouble(max[block])) {
+                    max[block] = Double.doubleToLongBits(d);
+                }
+            } else {
+                long l = ((Number) value).longValue();
+                if (l < min[block]) {
+                    min[block] = l;
+                }
+                if (l > max[block]) {
+                    max[block] = l;
+                }
+            }
+        }
+    }
+}
@@ -238,7 +238,7 @@ public class ExportPreviewDialog {
         header.setAlignment(Pos.CENTER_LEFT);
         Label title = new Label("Preview Matrix");
         title.getStyleClass().add("h1");
-        Label subtitle = new Label("(Sample of first 10 records)");
+        Label subtitle = new Label("(Sample of 10 records)");
         subtitle.getStyleClass().add("muted");
         header.getChildren().addAll(title, subtitle);
         panel.getChildren().add(header);
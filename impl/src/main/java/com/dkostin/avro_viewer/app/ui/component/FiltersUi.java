@@ -4,6 +4,7 @@ import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterOption;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterRowModel;
 import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
+import com.dkostin.avro_viewer.app.domain.model.filter.RangeBounds;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.Button;
@@ -100,6 +101,8 @@ public class FiltersUi {
             if (noValueNeeded) {
                 valueField.clear();
             }
+            valueField.setPromptText(newOp == MatchOperation.BETWEEN
+                    ? "from" + RangeBounds.BETWEEN_SEPARATOR + "to" : "Value (use 'null')");
         });
 
         // Create a row representation and add to the container
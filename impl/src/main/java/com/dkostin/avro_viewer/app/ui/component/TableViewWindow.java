@@ -1,8 +1,12 @@
 package com.dkostin.avro_viewer.app.ui.component;
 
+import com.dkostin.avro_viewer.app.domain.model.RecordSummary;
+import com.dkostin.avro_viewer.app.util.AvroNormalizer;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.scene.Cursor;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TablePosition;
 import javafx.scene.control.TableRow;
@@ -11,9 +15,12 @@ import javafx.scene.input.KeyCode;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
 
-import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntToLongFunction;
 
 /**
  * Responsible for configuring table columns and displaying records
@@ -22,13 +29,49 @@ public class TableViewWindow {
     private final TableView<Map<String, Object>> tableView;
     private final RowViewWindow jsonViewer;
     private Schema currentSchema;  // last displayed scheme (to avoid unnecessary column rearrangement)
+    private Consumer<Set<String>> onVisibleColumnsChanged = _ -> {};
+    private RecordLoader recordLoader;
+    private Task<?> activeRecordLoad; // full record of the row being opened
 
     public TableViewWindow(TableView<Map<String, Object>> tableView, RowViewWindow jsonViewer) {
         this.tableView = tableView;
         this.jsonViewer = jsonViewer;
+        this.tableView.setTableMenuButtonVisible(true); // built-in "+" menu to show/hide columns
         configureRowEvents();  // bind event handlers (double click, Enter)
     }
 
+    /**
+     * Registers a callback receiving the names of the visible columns whenever the user hides or shows one.
+     */
+    public void setOnVisibleColumnsChanged(Consumer<Set<String>> listener) {
+        this.onVisibleColumnsChanged = listener;
+    }
+
+    /**
+     * Sets the source of full records for summary rows opened in the JSON view.
+     */
+    public void setRecordLoader(RecordLoader recordLoader) {
+        this.recordLoader = recordLoader;
+    }
+
+    /**
+     * Forces the next update to rebuild all columns (all visible), e.g. when another file is opened.
+     */
+    public void resetColumns() {
+        tableView.getColumns().clear();
+        currentSchema = null;
+    }
+
+    private Set<String> visibleColumnNames() {
+        Set<String> names = new LinkedHashSet<>();
+        for (TableColumn<Map<String, Object>, ?> col : tableView.getColumns()) {
+            if (col.isVisible()) {
+                names.add(col.getText());
+            }
+        }
+        return names;
+    }
+
     private static TableColumn<Map<String, Object>, String> getMapStringTableColumn(String fieldName) {
         TableColumn<Map<String, Object>, String> col = new TableColumn<>(fieldName);
         col.setCellValueFactory(cellData -> {
@@ -50,14 +93,7 @@ public class TableViewWindow {
             TableRow<Map<String, Object>> row = new TableRow<>();
             row.setOnMouseClicked(event -> {
                 if (event.getClickCount() == 2 && !row.isEmpty()) {
-                    Map<String, Object> recordMap = row.getItem();
-                    String selectedColumn = null;
-                    TablePosition<Map<String, Object>, ?> focusedCell = tableView.getFocusModel().getFocusedCell();
-                    if (focusedCell != null && focusedCell.getTableColumn() != null) {
-                        selectedColumn = focusedCell.getTableColumn().getText();
-                    }
-                    // Open JSON window with record data and target column name
-                    jsonViewer.openJsonWindow(recordMap, tableView.getScene(), selectedColumn);
+                    openRow(row.getItem());
                 }
             });
             return row;
@@ -67,18 +103,62 @@ public class TableViewWindow {
             if (event.getCode() == KeyCode.ENTER) {
                 Map<String, Object> recordMap = tableView.getSelectionModel().getSelectedItem();
                 if (recordMap != null) {
-                    String selectedColumn = null;
-                    TablePosition<Map<String, Object>, ?> focusedCell = tableView.getFocusModel().getFocusedCell();
-                    if (focusedCell != null && focusedCell.getTableColumn() != null) {
-                        selectedColumn = focusedCell.getTableColumn().getText();
-                    }
-                    jsonViewer.openJsonWindow(recordMap, tableView.getScene(), selectedColumn);
+                    openRow(recordMap);
                 }
                 event.consume();
             }
         });
     }
 
+    /**
+     * Opens the JSON window for a row. Summary rows are decoded in full first, on a background thread (a cold
+     * file may need its block index built before the seek); search rows are already deep.
+     */
+    private void openRow(Map<String, Object> recordMap) {
+        String selectedColumn = null;
+        TablePosition<?, ?> focusedCell = tableView.getFocusModel().getFocusedCell();
+        if (focusedCell != null && focusedCell.getTableColumn() != null) {
+            selectedColumn = focusedCell.getTableColumn().getText();
+        }
+        if (!(recordMap instanceof RecordSummary summary) || recordLoader == null) {
+            jsonViewer.openJsonWindow(recordMap, tableView.getScene(), selectedColumn);
+            return;
+        }
+
+        Task<?> previous = activeRecordLoad;
+        if (previous != null && previous.isRunning()) {
+            previous.cancel(false); // the latest opened row wins
+        }
+        long recordIndex = summary.getRecordIndex();
+        Task<Map<String, Object>> task = new Task<>() {
+            @Override
+            protected Map<String, Object> call() throws Exception {
+                return recordLoader.load(recordIndex);
+            }
+        };
+        activeRecordLoad = task;
+        tableView.setCursor(Cursor.WAIT);
+
+        String column = selectedColumn;
+        task.setOnSucceeded(_ -> {
+            if (activeRecordLoad != task) return;
+            activeRecordLoad = null;
+            tableView.setCursor(null);
+            // Open JSON window with record data and target column name
+            jsonViewer.openJsonWindow(task.getValue(), tableView.getScene(), column);
+        });
+        task.setOnFailed(_ -> {
+            if (activeRecordLoad != task) return;
+            activeRecordLoad = null;
+            tableView.setCursor(null);
+            ErrorAlert.showError("Failed to load record #" + (recordIndex + 1), task.getException());
+        });
+
+        Thread t = new Thread(task, "avro-record-load");
+        t.setDaemon(true);
+        t.start();
+    }
+
     /**
      * Updates the table structure to the given Avro schema (creates columns as needed)
      */
@@ -91,6 +171,7 @@ public class TableViewWindow {
         for (Schema.Field field : schema.getFields()) {
             String fieldName = field.name();
             TableColumn<Map<String, Object>, String> col = getMapStringTableColumn(fieldName);
+            col.visibleProperty().addListener((_, _, _) -> onVisibleColumnsChanged.accept(visibleColumnNames()));
             tableView.getColumns().add(col);
         }
         currentSchema = schema;
@@ -99,42 +180,127 @@ public class TableViewWindow {
     /**
      * Converts a GenericRecord list to an ObservableList<Map> for TableView
      */
-    private ObservableList<Map<String, Object>> recordsToItems(List<GenericRecord> records) {
+    private ObservableList<Map<String, Object>> recordsToItems(List<GenericRecord> records, IntToLongFunction recordIndex) {
         ObservableList<Map<String, Object>> items = FXCollections.observableArrayList();
         if (currentSchema == null) return items;
-        for (GenericRecord record : records) {
-            items.add(recordToMap(record));
+        for (int i = 0; i < records.size(); i++) {
+            items.add(recordToSummary(records.get(i), recordIndex.applyAsLong(i)));
         }
         return items;
     }
 
     /**
-     * Helper method: converts a single GenericRecord into a Map for display
+     * Helper method: converts a single GenericRecord into a shallow summary row for display.
+     * Iterates the record's own schema: with a projected reader schema, hidden columns are simply absent.
+     * Nested values are kept only as their cell text; the JSON view decodes the record again by its index.
      */
-    private Map<String, Object> recordToMap(GenericRecord record) {
-        Map<String, Object> rowMap = new LinkedHashMap<>();
-        for (Schema.Field field : currentSchema.getFields()) {
-            rowMap.put(field.name(), com.dkostin.avro_viewer.app.util.AvroNormalizer.normalize(record.get(field.name()), field.schema()));
+    private RecordSummary recordToSummary(GenericRecord record, long recordIndex) {
+        List<Schema.Field> fields = record.getSchema().getFields();
+        RecordSummary row = new RecordSummary(fields.size(), recordIndex);
+        for (Schema.Field field : fields) {
+            row.put(field.name(), AvroNormalizer.summarize(record.get(field.pos()), field.schema()));
         }
-        return rowMap;
+        return row;
     }
 
     /**
      * Updates the data displayed in the table.
      *
-     * @param records list of Avro records to display
-     * @param schema  Avro schema of these records (used for columns)
+     * @param records     list of Avro records to display
+     * @param schema      Avro schema of these records (used for columns)
+     * @param firstRecord index of the first record within the file (rows remember their position)
+     */
+    public void updateTableData(List<GenericRecord> records, Schema schema, long firstRecord) {
+        updateTableData(records, schema, i -> firstRecord + i);
+    }
+
+    /**
+     * Updates the table with records that are not contiguous in the file (e.g. a random sample).
+     *
+     * @param recordIndexes index of each record within the file, parallel to {@code records}
      */
-    public void updateTableData(List<GenericRecord> records, Schema schema) {
+    public void updateTableData(List<GenericRecord> records, Schema schema, long[] recordIndexes) {
+        updateTableData(records, schema, i -> recordIndexes[i]);
+    }
+
+    private void updateTableData(List<GenericRecord> records, Schema schema, IntToLongFunction recordIndex) {
         // Rebuild columns if schema has changed
         if (currentSchema == null || !currentSchema.equals(schema)) {
             configureColumns(schema);
         }
         // Fill the table with data
-        ObservableList<Map<String, Object>> items = recordsToItems(records);
+        ObservableList<Map<String, Object>> items = recordsToItems(records, recordIndex);
         tableView.setItems(items);
     }
 
+    /**
+     * Appends records that follow the shown ones (follow mode) and scrolls to the last row.
+     * Only the newest {@code maxRows} rows are kept.
+     *
+     * @param firstRecord index of the first appended record within the file
+     */
+    public void appendTableData(List<GenericRecord> records, long firstRecord, int maxRows) {
+        if (records.isEmpty()) return;
+        appendRows(recordsToItems(records, i -> firstRecord + i), maxRows);
+    }
+
+    /**
+     * Appends pre-normalized search matches (follow mode) and scrolls to the last row.
+     * Only the newest {@code maxRows} rows are kept.
+     */
+    public void appendSearchData(List<Map<String, Object>> normalizedRecords, int maxRows) {
+        if (normalizedRecords.isEmpty()) return;
+        appendRows(normalizedRecords, maxRows);
+    }
+
+    /**
+     * Appends a batch of matches of a running search; the scroll position is kept.
+     */
+    public void addSearchData(List<Map<String, Object>> normalizedRecords) {
+        ObservableList<Map<String, Object>> items = tableView.getItems();
+        if (items == null) {
+            tableView.setItems(FXCollections.observableArrayList(normalizedRecords));
+        } else {
+            items.addAll(normalizedRecords);
+        }
+    }
+
+    /**
+     * Empties the table, keeping its columns.
+     */
+    public void clearRows() {
+        tableView.setItems(FXCollections.observableArrayList());
+    }
+
+    private void appendRows(List<Map<String, Object>> rows, int maxRows) {
+        ObservableList<Map<String, Object>> items = tableView.getItems();
+        if (items == null) {
+            items = FXCollections.observableArrayList();
+            tableView.setItems(items);
+        }
+        items.addAll(rows);
+        if (items.size() > maxRows) {
+            items.remove(0, items.size() - maxRows);
+        }
+        tableView.scrollTo(items.size() - 1);
+    }
+
+    /**
+     * Selects and scrolls to the row of a record, if it is on the current page.
+     *
+     * @param recordIndex index of the record within the file
+     */
+    public void selectRecord(long recordIndex) {
+        ObservableList<Map<String, Object>> items = tableView.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) instanceof RecordSummary summary && summary.getRecordIndex() == recordIndex) {
+                tableView.getSelectionModel().clearAndSelect(i);
+                tableView.scrollTo(i);
+                return;
+            }
+        }
+    }
+
     /**
      * Updates the table with pre-normalized search results (already Map data, no GenericRecord conversion needed).
      *
@@ -147,4 +313,12 @@ public class TableViewWindow {
         }
         tableView.setItems(FXCollections.observableArrayList(normalizedRecords));
     }
+
+    /**
+     * Decodes the full record at a position of the open file.
+     */
+    @FunctionalInterface
+    public interface RecordLoader {
+        Map<String, Object> load(long recordIndex) throws Exception;
+    }
 }
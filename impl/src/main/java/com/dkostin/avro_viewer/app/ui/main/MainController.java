@@ -1,28 +1,49 @@
 package com.dkostin.avro_viewer.app.ui.main;
 
 import com.dkostin.avro_viewer.app.config.AppContext;
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
+import com.dkostin.avro_viewer.app.domain.model.FollowUpdate;
 import com.dkostin.avro_viewer.app.domain.model.Page;
+import com.dkostin.avro_viewer.app.domain.model.PageRequest;
+import com.dkostin.avro_viewer.app.domain.model.Sample;
+import com.dkostin.avro_viewer.app.domain.model.SearchProgress;
 import com.dkostin.avro_viewer.app.domain.model.SearchResult;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
 import com.dkostin.avro_viewer.app.service.api.ExportFacade;
 import com.dkostin.avro_viewer.app.service.api.FileLoader;
+import com.dkostin.avro_viewer.app.service.api.FollowFacade;
 import com.dkostin.avro_viewer.app.service.api.PageNavigator;
+import com.dkostin.avro_viewer.app.service.api.SampleFacade;
 import com.dkostin.avro_viewer.app.service.api.SearchFacade;
 import com.dkostin.avro_viewer.app.ui.Theme;
 import com.dkostin.avro_viewer.app.ui.component.*;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.ScheduledService;
 import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
+import javafx.util.Duration;
 import javafx.util.converter.NumberStringConverter;
 import org.apache.avro.Schema;
 
 import java.io.File;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 /**
  * MainController:
@@ -39,10 +60,18 @@ public class MainController {
      */
     private static final int MAX_RESULTS_LIMIT = 100_000;
 
+    /** How often a followed file is checked for appended blocks (a stat while nothing changes). */
+    private static final Duration FOLLOW_INTERVAL = Duration.seconds(1);
+
+    /** Rows kept in the table while following; older rows scroll out. */
+    private static final int FOLLOW_MAX_ROWS = 10_000;
+
     // ---- Dependencies (segregated interfaces) ----
     private final FileLoader fileLoader;
     private final PageNavigator pageNavigator;
     private final SearchFacade searchFacade;
+    private final SampleFacade sampleFacade;
+    private final FollowFacade followFacade;
     private final ExportFacade exportFacade;
     private final RowViewWindow rowViewWindow;
 
@@ -62,6 +91,20 @@ public class MainController {
     @FXML
     private Button nextBtn;
     @FXML
+    private Button lastBtn;
+    @FXML
+    private TextField goToField;
+    @FXML
+    private Button goToBtn;
+    @FXML
+    private Button moreResultsButton;
+    @FXML
+    private Button indexLookupsButton;
+    @FXML
+    private ToggleButton sampleToggle;
+    @FXML
+    private ToggleButton followToggle;
+    @FXML
     private Label pageLabel;
     @FXML
     private Label statusLabel;
@@ -73,12 +116,21 @@ public class MainController {
     // ---- Runtime state ----
     private Scene scene;
     private Task<?> activeSearchTask;
+    private Task<Long> activeCountTask;
+    private Task<Page> activePageTask;
+    private Task<Sample> activeSampleTask;
+    private Task<Set<String>> activeIndexTask;
+    private ScheduledService<FollowUpdate> followService;
+    private long lastSearchEnd = -1; // records scanned by the last complete search, -1 = unknown
+    private int streamedHits; // matches of the running search already in the table
     private ExportPreviewDialog exportPreviewDialog;
 
     public MainController(AppContext ctx) {
         this.fileLoader = ctx.fileLoader();
         this.pageNavigator = ctx.pageNavigator();
         this.searchFacade = ctx.searchFacade();
+        this.sampleFacade = ctx.sampleFacade();
+        this.followFacade = ctx.followFacade();
         this.exportFacade = ctx.exportFacade();
         this.rowViewWindow = ctx.jsonWindow();
     }
@@ -113,6 +165,8 @@ public class MainController {
         // Components
         this.filtersUi = new FiltersUi(filtersBox);
         this.tableViewWindow = new TableViewWindow(table, rowViewWindow);
+        tableViewWindow.setOnVisibleColumnsChanged(this::onVisibleColumnsChanged);
+        tableViewWindow.setRecordLoader(pageNavigator::readRecord);
 
         // Initial UI
         initPageSizeCombo();
@@ -217,26 +271,90 @@ public class MainController {
         File file = fc.showOpenDialog(table.getScene().getWindow());
         if (file == null) return;
 
+        openDataset(new Dataset(file.toPath(), null));
+    }
+
+    /**
+     * Opens a directory of part files (e.g. part-00000.avro ... part-04095.avro) as one dataset.
+     */
+    @FXML
+    private void onOpenFolder() {
+        DirectoryChooser dc = new DirectoryChooser();
+        dc.setTitle("Open folder of .avro part files");
+
+        File dir = dc.showDialog(table.getScene().getWindow());
+        if (dir == null) return;
+
+        TextInputDialog patternDialog = new TextInputDialog(Dataset.DEFAULT_PART_PATTERN);
+        patternDialog.initOwner(table.getScene().getWindow());
+        patternDialog.setTitle("Part files");
+        patternDialog.setHeaderText("Glob for the part files inside " + dir.getName());
+        patternDialog.setContentText("Pattern (e.g. part-*.avro, **/*.avro):");
+        patternDialog.getDialogPane().getStylesheets().setAll(table.getScene().getStylesheets());
+
+        patternDialog.showAndWait().ifPresent(pattern -> openDataset(new Dataset(dir.toPath(), pattern.trim())));
+    }
+
+    private void openDataset(Dataset dataset) {
         cancelActiveSearchIfRunning();
+        cancelActiveCountIfRunning();
+        cancelActivePageLoadIfRunning();
+        cancelActiveSampleIfRunning();
+        stopFollowService();
+        followToggle.setSelected(false);
 
-        executeWithUiUpdate("Error opening file: " + file.getPath(), () -> {
-            Page page = fileLoader.openFile(file.toPath());
+        String name = dataset.displayName();
+        executeWithUiUpdate("Error opening: " + dataset.root(), () -> {
+            Page page = fileLoader.openDataset(dataset);
 
             // schema -> filters & table
             Schema schema = page.schema();
             filtersUi.updateFieldOptions(schema);
-            tableViewWindow.updateTableData(page.records(), schema);
+            tableViewWindow.resetColumns(); // new file starts with all columns visible, matching the state
+            tableViewWindow.updateTableData(page.records(), schema, page.firstRecord());
 
             // labels
             resultsLabel.setText("Active: (none)");
-            pageLabel.setText("Page 1");
-            statusLabel.setText("Opened: " + file.getName() + " (" + page.records().size() + " records)");
+            updatePageLabel();
+            statusLabel.setText("Opened: " + name + " (" + page.records().size() + " records)");
 
             // page size combo must reflect service/state
             pageSizeCombo.setValue(pageNavigator.getPageSize());
+
+            // total count from block headers, "Page X of Y" once it is known
+            startRecordCount(name);
         });
     }
 
+    private void startRecordCount(String fileName) {
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return fileLoader.countRecords();
+            }
+        };
+
+        activeCountTask = task;
+
+        task.setOnSucceeded(_ -> {
+            if (activeCountTask != task) return;
+            if (!searchFacade.isSearchMode()) {
+                updatePageLabel();
+                statusLabel.setText("Opened: " + fileName + " (" + task.getValue() + " records in total)");
+            }
+        });
+
+        task.setOnFailed(_ -> {
+            // Counting is informational only: paging keeps working with "Page X"
+            if (activeCountTask != task) return;
+            statusLabel.setText("Could not count records: " + task.getException().getMessage());
+        });
+
+        Thread t = new Thread(task, "avro-record-count");
+        t.setDaemon(true);
+        t.start();
+    }
+
     @FXML
     private void onAddFilter(ActionEvent e) {
         filtersUi.addFilterRow();
@@ -250,6 +368,10 @@ public class MainController {
         }
 
         cancelActiveSearchIfRunning();
+        cancelActivePageLoadIfRunning();
+        cancelActiveSampleIfRunning();
+        stopFollowService(); // resumes from the end of the new scan
+        lastSearchEnd = -1;
 
         List<FilterCriterion> criteria = filtersUi.getFilterCriteria();
         int max = safeMaxResults();
@@ -257,11 +379,111 @@ public class MainController {
         // UX
         statusLabel.setText("Searching...");
         resultsLabel.setText("Searching...");
+        tableViewWindow.clearRows();
+        streamedHits = 0;
+
+        runSearch((progress, cancelled) -> searchFacade.search(criteria, max, progress, cancelled));
+    }
+
+    /**
+     * Reads the next batch of matches of the current search and appends it to the table.
+     */
+    @FXML
+    private void onMoreResults(ActionEvent e) {
+        if (!searchFacade.hasMoreResults()) {
+            return;
+        }
+        cancelActiveSearchIfRunning();
+        statusLabel.setText("Searching...");
+
+        runSearch(searchFacade::searchMore);
+    }
+
+    /**
+     * Indexes the fields of the "equals" filters for lookups, so later searches for a value of them read only
+     * the blocks that may hold it.
+     */
+    @FXML
+    private void onIndexLookups(ActionEvent e) {
+        if (!fileLoader.isFileOpen()) {
+            statusLabel.setText("Open an .avro file first");
+            return;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (FilterCriterion c : filtersUi.getFilterCriteria()) {
+            if (c.op() == MatchOperation.EQUALS && !c.isWildcard() && c.fieldName() != null) {
+                fields.add(c.fieldName());
+            }
+        }
+        if (fields.isEmpty()) {
+            statusLabel.setText("Add an 'equals' filter on each field to index for lookups");
+            return;
+        }
+
+        Task<Set<String>> task = new Task<>() {
+            @Override
+            protected Set<String> call() throws Exception {
+                return searchFacade.indexForLookups(fields);
+            }
+        };
+        activeIndexTask = task;
+        statusLabel.setText("Indexing " + String.join(", ", fields) + "...");
+        updatePagingButtons();
+
+        task.setOnSucceeded(_ -> {
+            if (activeIndexTask != task) return;
+            activeIndexTask = null;
+            Set<String> indexed = task.getValue();
+            statusLabel.setText(indexed.isEmpty()
+                    ? "Only top-level string, enum, int and long fields can be indexed"
+                    : "Indexed for lookups: " + String.join(", ", indexed));
+            updatePagingButtons();
+        });
+
+        task.setOnFailed(_ -> {
+            if (activeIndexTask != task) return;
+            activeIndexTask = null;
+            ErrorAlert.showError("Indexing failed", task.getException());
+            statusLabel.setText("Indexing failed");
+            updatePagingButtons();
+        });
+
+        Thread t = new Thread(task, "avro-index");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Runs a search batch on a background thread, streaming its matches into the table after the
+     * {@link #streamedHits} rows already there.
+     */
+    private void runSearch(SearchCall search) {
+        int shownBefore = streamedHits;
+        moreResultsButton.setDisable(true);
 
         Task<SearchResult> task = new Task<>() {
+            // matches reported by the scan, shown in one UI pass however many piled up meanwhile
+            private final Queue<SearchProgress> progress = new ConcurrentLinkedQueue<>();
+            private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
             @Override
             protected SearchResult call() throws Exception {
-                return searchFacade.search(criteria, max);
+                return search.run(p -> {
+                    progress.add(p);
+                    if (drainScheduled.compareAndSet(false, true)) {
+                        Platform.runLater(this::drain);
+                    }
+                }, this::isCancelled);
+            }
+
+            private void drain() {
+                drainScheduled.set(false);
+                SearchProgress p;
+                while ((p = progress.poll()) != null) {
+                    if (activeSearchTask == this) {
+                        showSearchProgress(p);
+                    }
+                }
             }
         };
 
@@ -272,14 +494,27 @@ public class MainController {
             if (activeSearchTask != task) return;
 
             SearchResult result = task.getValue();
-            tableViewWindow.updateSearchData(result.records(), result.schema());
+            if (result == null) {
+                updatePagingButtons();
+                return;
+            }
+            if (shownBefore == 0 && (streamedHits == 0 || streamedHits != result.records().size())) {
+                // nothing streamed (no match): still set up the columns of the searched schema
+                tableViewWindow.updateSearchData(result.records(), result.schema());
+                streamedHits = result.records().size();
+            }
 
             String tail = result.truncated() ? " (stopped by maxResults)" : "";
-            resultsLabel.setText("Results: " + result.records().size() + tail);
-            statusLabel.setText("Scanned: " + result.scanned() + ", matched: " + result.records().size() + tail);
+            resultsLabel.setText("Results: " + streamedHits + tail);
+            statusLabel.setText("Scanned: " + result.scanned() + ", matched: " + streamedHits + tail);
 
             pageLabel.setText("Search"); // optional, makes mode obvious
             updatePagingButtons();
+
+            lastSearchEnd = result.truncated() ? -1 : result.scanned();
+            if (followToggle.isSelected()) {
+                startFollowing(lastSearchEnd);
+            }
         });
 
         task.setOnFailed(evt -> {
@@ -297,6 +532,22 @@ public class MainController {
         t.start();
     }
 
+    /**
+     * Appends the matches a running search reported and updates the live counters.
+     */
+    private void showSearchProgress(SearchProgress progress) {
+        if (!progress.hits().isEmpty()) {
+            if (streamedHits == 0) {
+                tableViewWindow.updateSearchData(progress.hits(), progress.schema());
+            } else {
+                tableViewWindow.addSearchData(progress.hits());
+            }
+            streamedHits += progress.hits().size();
+        }
+        resultsLabel.setText("Searching... " + progress.matched() + " found");
+        statusLabel.setText("Scanned: " + progress.scanned() + ", matched: " + progress.matched());
+    }
+
     // ---------------------------
     // Paging
     // ---------------------------
@@ -304,6 +555,9 @@ public class MainController {
     @FXML
     private void onClearFilters(ActionEvent e) {
         cancelActiveSearchIfRunning();
+        cancelActivePageLoadIfRunning();
+        cancelActiveSampleIfRunning();
+        stopFollowService();
 
         filtersUi.clearFilters();
         resultsLabel.setText("Active: (none)");
@@ -318,9 +572,12 @@ public class MainController {
         executeWithUiUpdate("Failed to reload after clearing filters", () -> {
             Page page = searchFacade.clearSearch();
             if (page != null) {
-                tableViewWindow.updateTableData(page.records(), page.schema());
-                pageLabel.setText("Page 1");
+                tableViewWindow.updateTableData(page.records(), page.schema(), page.firstRecord());
+                updatePageLabel();
                 statusLabel.setText("Loaded " + page.records().size() + " records from " + safeSchemaName(page.schema()));
+                if (followToggle.isSelected()) {
+                    followTail();
+                }
             } else {
                 statusLabel.setText("");
             }
@@ -334,14 +591,8 @@ public class MainController {
 
         cancelActiveSearchIfRunning();
 
-        executeWithUiUpdate("Failed to load previous page", () -> {
-            Page page = pageNavigator.prevPage();
-            if (page != null) {
-                tableViewWindow.updateTableData(page.records(), page.schema());
-                pageLabel.setText("Page " + (pageNavigator.getPageIndex() + 1));
-                statusLabel.setText("Loaded " + page.records().size() + " records (page " + (pageNavigator.getPageIndex() + 1) + ")");
-            }
-        });
+        loadPageAsync(pageNavigator.prevPage(), "Failed to load previous page", page ->
+                statusLabel.setText("Loaded " + page.records().size() + " records (page " + (pageNavigator.getPageIndex() + 1) + ")"));
     }
 
     @FXML
@@ -351,16 +602,238 @@ public class MainController {
 
         cancelActiveSearchIfRunning();
 
-        executeWithUiUpdate("Failed to load next page", () -> {
-            Page page = pageNavigator.nextPage();
-            if (page != null) {
-                tableViewWindow.updateTableData(page.records(), page.schema());
-                pageLabel.setText("Page " + (pageNavigator.getPageIndex() + 1));
-                statusLabel.setText("Loaded " + page.records().size() + " records (page " + (pageNavigator.getPageIndex() + 1) + ")");
+        loadPageAsync(pageNavigator.nextPage(), "Failed to load next page", page ->
+                statusLabel.setText("Loaded " + page.records().size() + " records (page " + (pageNavigator.getPageIndex() + 1) + ")"));
+    }
+
+    @FXML
+    private void onLastPage() {
+        if (!fileLoader.isFileOpen()) return;
+        if (searchFacade.isSearchMode()) return;
+
+        cancelActiveSearchIfRunning();
+
+        loadPageAsync(pageNavigator.goToLastPage(), "Failed to load last page", page ->
+                statusLabel.setText("Loaded " + page.records().size() + " records (last page " + (pageNavigator.getPageIndex() + 1) + ")"));
+    }
+
+    /**
+     * Jumps to the page number (1-based) or, with a leading '#', to the record index (0-based) typed in the go-to field.
+     */
+    @FXML
+    private void onGoTo() {
+        if (!fileLoader.isFileOpen()) return;
+        if (searchFacade.isSearchMode()) return;
+
+        String input = goToField.getText() == null ? "" : goToField.getText().strip().replace("_", "").replace(",", "");
+        try {
+            if (input.startsWith("#")) {
+                long recordIndex = Long.parseLong(input.substring(1).strip());
+                cancelActiveSearchIfRunning();
+                loadPageAsync(pageNavigator.goToRecord(recordIndex), "Failed to load record " + recordIndex, page -> {
+                    tableViewWindow.selectRecord(recordIndex);
+                    statusLabel.setText("Record " + recordIndex + " (page " + (pageNavigator.getPageIndex() + 1) + ")");
+                });
+            } else {
+                int pageNumber = Integer.parseInt(input);
+                cancelActiveSearchIfRunning();
+                loadPageAsync(pageNavigator.goToPage(pageNumber - 1), "Failed to load page " + pageNumber, page ->
+                        statusLabel.setText("Loaded " + page.records().size() + " records (page " + (pageNavigator.getPageIndex() + 1) + ")"));
+            }
+        } catch (NumberFormatException ex) {
+            statusLabel.setText("Enter a page number, or # and a record index");
+        } catch (IllegalArgumentException | ArithmeticException ex) {
+            statusLabel.setText(ex.getMessage());
+        }
+    }
+
+    /**
+     * Sample mode shows a page-sized uniform random sample of the whole file instead of a page;
+     * toggling it off returns to the page shown before.
+     */
+    @FXML
+    private void onSampleToggle() {
+        if (!fileLoader.isFileOpen() || searchFacade.isSearchMode()) {
+            sampleToggle.setSelected(false);
+            return;
+        }
+        if (!sampleToggle.isSelected()) {
+            cancelActiveSampleIfRunning();
+            loadPageAsync(sampleFacade.exitSample(), "Failed to reload page", page ->
+                    statusLabel.setText("Loaded " + page.records().size() + " records (page " + (pageNavigator.getPageIndex() + 1) + ")"));
+            return;
+        }
+
+        cancelActiveSearchIfRunning();
+        cancelActivePageLoadIfRunning();
+        cancelActiveSampleIfRunning();
+        sampleFacade.enterSampleMode();
+
+        int count = pageNavigator.getPageSize();
+        pageLabel.setText("Sample");
+        statusLabel.setText("Sampling " + count + " records...");
+        updatePagingButtons();
+
+        Task<Sample> task = new Task<>() {
+            @Override
+            protected Sample call() throws Exception {
+                return sampleFacade.sample(count);
+            }
+        };
+
+        activeSampleTask = task;
+
+        task.setOnSucceeded(_ -> {
+            if (activeSampleTask != task) return;
+            Sample sample = task.getValue();
+            tableViewWindow.updateTableData(sample.records(), sample.schema(), sample.recordIndexes());
+            statusLabel.setText("Random sample: " + sample.records().size() + " of " + sample.totalRecords()
+                    + " records (" + sample.blocksRead() + " blocks read)");
+        });
+
+        task.setOnFailed(_ -> {
+            if (activeSampleTask != task) return;
+            ErrorAlert.showError("Sampling failed", task.getException());
+            statusLabel.setText("Sampling failed");
+        });
+
+        Thread t = new Thread(task, "avro-sample");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Follow mode keeps the table at the end of a file that is still being written: appended records are added
+     * as they arrive, or, during a search, the appended records that match. Paging is off while following;
+     * toggling it off settles on the last page.
+     */
+    @FXML
+    private void onFollowToggle() {
+        if (!followToggle.isSelected()) {
+            stopFollowService();
+            followFacade.stopFollowing();
+            if (fileLoader.isFileOpen() && !searchFacade.isSearchMode()) {
+                // the table holds more than one page by now
+                loadPageAsync(pageNavigator.goToLastPage(), "Failed to load last page", page ->
+                        statusLabel.setText("Loaded " + page.records().size() + " records (last page " + (pageNavigator.getPageIndex() + 1) + ")"));
+            } else {
+                updatePagingButtons();
+            }
+            return;
+        }
+        if (!fileLoader.isFileOpen() || sampleFacade.isSampleMode()) {
+            followToggle.setSelected(false);
+            return;
+        }
+        if (!searchFacade.isSearchMode()) {
+            followTail();
+        } else if (activeSearchTask == null || !activeSearchTask.isRunning()) {
+            startFollowing(lastSearchEnd); // otherwise the running search starts it when done
+        }
+    }
+
+    /**
+     * Shows the last page, then follows from the record after it.
+     */
+    private void followTail() {
+        stopFollowService();
+        followFacade.stopFollowing();
+        loadPageAsync(pageNavigator.goToLastPage(), "Failed to load last page", page -> {
+            if (followToggle.isSelected()) {
+                startFollowing(page.firstRecord() + page.records().size());
             }
         });
     }
 
+    private void startFollowing(long fromRecord) {
+        stopFollowService();
+        try {
+            followFacade.startFollowing(fromRecord);
+        } catch (IllegalStateException ex) {
+            followToggle.setSelected(false);
+            statusLabel.setText(ex.getMessage());
+            updatePagingButtons();
+            return;
+        }
+
+        ScheduledService<FollowUpdate> service = new ScheduledService<>() {
+            @Override
+            protected Task<FollowUpdate> createTask() {
+                return new Task<>() {
+                    @Override
+                    protected FollowUpdate call() throws Exception {
+                        return followFacade.pollAppended();
+                    }
+
+                    @Override
+                    public boolean cancel(boolean mayInterruptIfRunning) {
+                        // an interrupted FileChannel read closes the file; the poll is short anyway
+                        return super.cancel(false);
+                    }
+                };
+            }
+        };
+        service.setPeriod(FOLLOW_INTERVAL);
+        service.setExecutor(r -> {
+            Thread t = new Thread(r, "avro-follow");
+            t.setDaemon(true);
+            t.start();
+        });
+
+        followService = service;
+
+        service.setOnSucceeded(_ -> {
+            FollowUpdate update = service.getValue();
+            if (followService != service || !followFacade.applyFollowUpdate(update)) return;
+            showFollowUpdate(update);
+        });
+
+        service.setOnFailed(_ -> {
+            if (followService != service) return;
+            stopFollowService();
+            followFacade.stopFollowing();
+            followToggle.setSelected(false);
+            ErrorAlert.showError("Follow stopped", service.getException());
+            statusLabel.setText("Follow stopped");
+            updatePagingButtons();
+        });
+
+        if (!searchFacade.isSearchMode()) {
+            pageLabel.setText("Following");
+        }
+        statusLabel.setText("Following...");
+        updatePagingButtons();
+        service.start();
+    }
+
+    private void showFollowUpdate(FollowUpdate update) {
+        int appended = update.records().size();
+        String total = update.totalRecords() + " records in total";
+        if (searchFacade.isSearchMode()) {
+            tableViewWindow.appendSearchData(update.matches(), FOLLOW_MAX_ROWS);
+            resultsLabel.setText("Results: " + table.getItems().size() + " (following)");
+            statusLabel.setText(appended == 0 ? "Following: " + total
+                    : "Following: +" + appended + " records, " + update.matches().size() + " matched (" + total + ")");
+        } else {
+            tableViewWindow.appendTableData(update.records(), update.firstRecord(), FOLLOW_MAX_ROWS);
+            statusLabel.setText(appended == 0 ? "Following: " + total
+                    : "Following: +" + appended + " records (" + total + ")");
+        }
+    }
+
+    private void onVisibleColumnsChanged(Set<String> visibleFields) {
+        if (!fileLoader.isFileOpen()) return;
+
+        PageRequest request = pageNavigator.setVisibleFields(visibleFields);
+        if (request != null && followToggle.isSelected()) {
+            followTail(); // re-read the tail with the new projection
+            return;
+        }
+        // Hidden columns are dropped from the reader schema: the page is re-decoded with only visible fields
+        loadPageAsync(request, "Failed to apply column selection", page ->
+                statusLabel.setText("Showing " + visibleFields.size() + " of " + page.schema().getFields().size() + " columns"));
+    }
+
     // ---------------------------
     // Export
     // ---------------------------
@@ -376,18 +849,18 @@ public class MainController {
         }
 
         cancelActiveSearchIfRunning();
+        cancelActiveSampleIfRunning(); // a new page size returns to browsing
 
         Integer newSize = pageSizeCombo.getValue();
         if (newSize == null) return;
 
-        executeWithUiUpdate("Failed to change page size", () -> {
-            Page page = pageNavigator.changePageSize(newSize);
-            if (page != null) {
-                tableViewWindow.updateTableData(page.records(), page.schema());
-                pageLabel.setText("Page 1");
-                statusLabel.setText("Loaded " + page.records().size() + " records from " + safeSchemaName(page.schema()));
-            }
-        });
+        PageRequest request = pageNavigator.changePageSize(newSize);
+        if (followToggle.isSelected()) {
+            followTail();
+            return;
+        }
+        loadPageAsync(request, "Failed to change page size", page ->
+                statusLabel.setText("Loaded " + page.records().size() + " records from " + safeSchemaName(page.schema())));
     }
 
     @FXML
@@ -405,10 +878,25 @@ public class MainController {
         File out = fc.showSaveDialog(table.getScene().getWindow());
         if (out == null) return;
 
-        executeWithUiUpdate("Export JSON failed", () -> {
-            exportFacade.exportToJson(out.toPath(), table.getItems());
-            statusLabel.setText("Exported JSON: " + out.getName());
+        // summary rows are read again in full: off the FX thread, on a snapshot of the rows
+        ObservableList<Map<String, Object>> rows = FXCollections.observableArrayList(table.getItems());
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                exportFacade.exportToJson(out.toPath(), rows);
+                return null;
+            }
+        };
+        task.setOnSucceeded(_ -> statusLabel.setText("Exported JSON: " + out.getName()));
+        task.setOnFailed(_ -> {
+            ErrorAlert.showError("Export JSON failed", task.getException());
+            statusLabel.setText("Export JSON failed");
         });
+        statusLabel.setText("Exporting JSON...");
+
+        Thread t = new Thread(task, "avro-export");
+        t.setDaemon(true);
+        t.start();
     }
 
     @FXML
@@ -445,6 +933,51 @@ public class MainController {
         }
     }
 
+    /**
+     * Loads a browse page in the background. The navigation already moved the state, so the label and buttons
+     * update at once; a newer navigation supersedes this load, which then stops decoding and renders nothing.
+     */
+    private void loadPageAsync(PageRequest request, String errorContext, Consumer<Page> onShown) {
+        if (request == null) {
+            updatePagingButtons();
+            return;
+        }
+        updatePageLabel();
+        updatePagingButtons();
+        statusLabel.setText("Loading page " + (request.pageIndex() + 1) + "...");
+
+        cancelActivePageLoadIfRunning();
+        Task<Page> task = new Task<>() {
+            @Override
+            protected Page call() throws Exception {
+                return pageNavigator.loadPage(request);
+            }
+        };
+
+        activePageTask = task;
+
+        task.setOnSucceeded(_ -> {
+            Page page = task.getValue();
+            if (activePageTask != task || !pageNavigator.applyPage(request, page)) return; // superseded
+            tableViewWindow.updateTableData(page.records(), page.schema(), page.firstRecord());
+            updatePageLabel();
+            onShown.accept(page);
+            updatePagingButtons();
+        });
+
+        task.setOnFailed(_ -> {
+            if (activePageTask != task) return;
+            ErrorAlert.showError(errorContext, task.getException());
+            statusLabel.setText(errorContext);
+            updatePagingButtons();
+        });
+
+        // no interrupts on cancel: the load polls its generation, and an interrupted FileChannel read closes the file
+        Thread t = new Thread(task, "avro-page-load");
+        t.setDaemon(true);
+        t.start();
+    }
+
     private String exportNameSuffix() {
         if (searchFacade.isSearchMode()) {
             return "search";
@@ -452,12 +985,33 @@ public class MainController {
         return "page-" + (pageNavigator.getPageIndex() + 1);
     }
 
+    private void updatePageLabel() {
+        String label = "Page " + (pageNavigator.getPageIndex() + 1);
+        long pageCount = pageNavigator.getPageCount();
+        if (pageCount > 0) {
+            label += " of " + pageCount;
+        }
+        pageLabel.setText(label);
+    }
+
     private void updatePagingButtons() {
         boolean noFile = !fileLoader.isFileOpen();
         boolean searchMode = searchFacade.isSearchMode();
-
-        prevBtn.setDisable(noFile || searchMode || pageNavigator.getPageIndex() == 0);
-        nextBtn.setDisable(noFile || searchMode || !pageNavigator.hasNextPage());
+        boolean sampleMode = sampleFacade.isSampleMode();
+        boolean following = followFacade.isFollowing();
+        boolean noPaging = noFile || searchMode || sampleMode || following;
+
+        prevBtn.setDisable(noPaging || pageNavigator.getPageIndex() == 0);
+        nextBtn.setDisable(noPaging || !pageNavigator.hasNextPage());
+        lastBtn.setDisable(noPaging || !pageNavigator.hasNextPage());
+        goToField.setDisable(noPaging);
+        goToBtn.setDisable(noPaging);
+        sampleToggle.setSelected(sampleMode);
+        sampleToggle.setDisable(noFile || searchMode || following);
+        followToggle.setDisable(noFile || sampleMode);
+        // followed matches are appended to the table, a further batch would land after them
+        moreResultsButton.setDisable(noFile || !searchMode || following || !searchFacade.hasMoreResults());
+        indexLookupsButton.setDisable(noFile || activeIndexTask != null);
     }
 
     private int safeMaxResults() {
@@ -481,14 +1035,67 @@ public class MainController {
         }
     }
 
+    /**
+     * Drops the running count without interrupting it (an interrupt would close the file channel it reads);
+     * its result is stored only for the dataset it counted.
+     */
+    private void cancelActiveCountIfRunning() {
+        Task<?> task = activeCountTask;
+        if (task != null && task.isRunning()) {
+            task.cancel(false);
+        }
+        activeCountTask = null;
+    }
+
+    /**
+     * Drops the pending page load without interrupting it; the navigator's generation check stops its decoding.
+     */
+    private void cancelActivePageLoadIfRunning() {
+        Task<?> task = activePageTask;
+        if (task != null && task.isRunning()) {
+            task.cancel(false);
+        }
+        activePageTask = null;
+    }
+
+    private void cancelActiveSampleIfRunning() {
+        Task<?> task = activeSampleTask;
+        if (task != null && task.isRunning()) {
+            task.cancel(false);
+        }
+        activeSampleTask = null;
+    }
+
+    /**
+     * Stops polling the followed file; the follow position in the service is left to the caller.
+     */
+    private void stopFollowService() {
+        ScheduledService<?> service = followService;
+        if (service != null) {
+            service.cancel();
+        }
+        followService = null;
+    }
+
+    /**
+     * Stops the running search batch without interrupting it: the scan polls the task's cancelled flag.
+     */
     private void cancelActiveSearchIfRunning() {
         Task<?> task = activeSearchTask;
         if (task != null && task.isRunning()) {
-            task.cancel(true);
+            task.cancel(false);
         }
         activeSearchTask = null;
     }
 
+    /**
+     * One search batch, started with the listener of its streamed matches and its cancelled flag.
+     */
+    @FunctionalInterface
+    private interface SearchCall {
+        SearchResult run(Consumer<SearchProgress> progress, BooleanSupplier cancelled) throws Exception;
+    }
+
     /**
      * Functional interface for UI actions that may throw checked exceptions.
      */
@@ -22,6 +22,13 @@ public final class AvroNormalizer {
      */
     private static final int BLOB_TRUNCATION_LIMIT = 1024;
 
+    /**
+     * Length cap for the one-line text a nested field is reduced to in a table
+     * summary. The full structure is decoded on demand, so the cell only needs
+     * as much as fits on screen.
+     */
+    static final int SUMMARY_TEXT_LIMIT = 512;
+
     public static Object normalize(Object value, Schema schema) {
         if (value == null) return null;
 
@@ -105,6 +112,70 @@ public final class AvroNormalizer {
         return value;
     }
 
+    /**
+     * Shallow counterpart of {@link #normalize}: scalars are normalized as usual, while records,
+     * maps and arrays are rendered straight into their {@link PresentationFormatter} text
+     * (capped at {@value #SUMMARY_TEXT_LIMIT} chars) without building the intermediate Map/List tree.
+     */
+    public static Object summarize(Object value, Schema schema) {
+        if (value instanceof GenericRecord || value instanceof Map<?, ?> || value instanceof Collection<?>) {
+            StringBuilder sb = new StringBuilder();
+            appendSummary(sb, value, schema);
+            if (sb.length() > SUMMARY_TEXT_LIMIT) {
+                sb.setLength(SUMMARY_TEXT_LIMIT);
+                sb.append("…");
+            }
+            return sb.toString();
+        }
+        return normalize(value, schema);
+    }
+
+    private static void appendSummary(StringBuilder sb, Object value, Schema schema) {
+        if (sb.length() > SUMMARY_TEXT_LIMIT) return; // the rest would be cut anyway
+
+        Schema actualSchema = unwrapUnion(schema);
+        switch (value) {
+            case GenericRecord rec -> {
+                sb.append('{');
+                boolean first = true;
+                for (Schema.Field f : rec.getSchema().getFields()) {
+                    if (sb.length() > SUMMARY_TEXT_LIMIT) break;
+                    if (!first) sb.append(", ");
+                    sb.append(f.name()).append('=');
+                    appendSummary(sb, rec.get(f.pos()), f.schema());
+                    first = false;
+                }
+                sb.append('}');
+            }
+            case Map<?, ?> map -> {
+                Schema valSchema = actualSchema != null && actualSchema.getType() == Schema.Type.MAP ? actualSchema.getValueType() : null;
+                sb.append('{');
+                boolean first = true;
+                for (Map.Entry<?, ?> e : map.entrySet()) {
+                    if (sb.length() > SUMMARY_TEXT_LIMIT) break;
+                    if (!first) sb.append(", ");
+                    sb.append(e.getKey()).append('=');
+                    appendSummary(sb, e.getValue(), valSchema);
+                    first = false;
+                }
+                sb.append('}');
+            }
+            case Collection<?> coll -> {
+                Schema elemSchema = actualSchema != null && actualSchema.getType() == Schema.Type.ARRAY ? actualSchema.getElementType() : null;
+                sb.append('[');
+                boolean first = true;
+                for (Object v : coll) {
+                    if (sb.length() > SUMMARY_TEXT_LIMIT) break;
+                    if (!first) sb.append(", ");
+                    appendSummary(sb, v, elemSchema);
+                    first = false;
+                }
+                sb.append(']');
+            }
+            case null, default -> sb.append(PresentationFormatter.formatValue(normalize(value, schema)));
+        }
+    }
+
     private static Schema unwrapUnion(Schema schema) {
         if (schema != null && schema.getType() == Schema.Type.UNION) {
             for (Schema s : schema.getTypes()) {
@@ -0,0 +1,25 @@
+package com.dkostin.avro_viewer.app.util;
+
+import java.util.List;
+
+/**
+ * Rejects decompressed Avro blocks that cannot hold a matching record, before any record is decoded.
+ * <p>
+ * Every pattern must occur somewhere in the block: each one is a literal that a matching record
+ * necessarily stores as raw UTF-8 (see {@code FilterPredicateFactory#compileBlockFilter}).
+ */
+public record BlockFilter(List<BytePattern> required) {
+
+    public BlockFilter {
+        required = List.copyOf(required);
+    }
+
+    public boolean mayMatch(byte[] data, int from, int to) {
+        for (BytePattern pattern : required) {
+            if (pattern.indexIn(data, from, to) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,55 @@
+package com.dkostin.avro_viewer.app.util;
+
+import java.util.Arrays;
+
+/**
+ * A byte string searched for with Boyer-Moore-Horspool: after a mismatch the window jumps by up to the pattern
+ * length, so long literals are found while looking at only a fraction of the input bytes.
+ */
+public final class BytePattern {
+
+    private final byte[] pattern;
+    private final int[] shift = new int[256];
+
+    public BytePattern(byte[] pattern) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("pattern must not be empty");
+        }
+        this.pattern = pattern.clone();
+        int last = pattern.length - 1;
+        Arrays.fill(shift, pattern.length);
+        for (int i = 0; i < last; i++) {
+            shift[pattern[i] & 0xff] = last - i;
+        }
+    }
+
+    /**
+     * @return the position of the first occurrence within {@code data[from, to)}, or -1
+     */
+    public int indexIn(byte[] data, int from, int to) {
+        int last = pattern.length - 1;
+        byte lastByte = pattern[last];
+        int pos = from;
+        while (pos + last < to) {
+            byte b = data[pos + last];
+            if (b == lastByte && matchesAt(data, pos, last)) {
+                return pos;
+            }
+            pos += shift[b & 0xff];
+        }
+        return -1;
+    }
+
+    private boolean matchesAt(byte[] data, int pos, int length) {
+        for (int i = 0; i < length; i++) {
+            if (data[pos + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int length() {
+        return pattern.length;
+    }
+}
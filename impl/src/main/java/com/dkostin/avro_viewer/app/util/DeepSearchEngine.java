@@ -1,12 +1,16 @@
 package com.dkostin.avro_viewer.app.util;
 
 import lombok.experimental.UtilityClass;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.IndexedRecord;
 
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -36,22 +40,20 @@ public final class DeepSearchEngine {
 
         // Handle Logical Decimal wrapped in ByteBuffer, Fixed, or byte[]
         if (unwrappedSchema != null && unwrappedSchema.getLogicalType() instanceof org.apache.avro.LogicalTypes.Decimal dec) {
-            byte[] bytes = null;
-            if (node instanceof byte[] b) {
-                bytes = b;
-            } else if (node instanceof ByteBuffer bb) {
-                ByteBuffer dup = bb.duplicate();
-                bytes = new byte[dup.remaining()];
-                dup.get(bytes);
-            } else if (node instanceof GenericData.Fixed f) {
-                bytes = f.bytes();
-            }
-            if (bytes != null) {
-                BigDecimal bd = new BigDecimal(new java.math.BigInteger(bytes), dec.getScale());
+            BigDecimal bd = decimalValue(node, dec.getScale());
+            if (bd != null) {
                 return matcher.matches(bd);
             }
         }
 
+        // Timestamps against date-time bounds
+        if (node instanceof Long l && matcher.comparesInstants()) {
+            ChronoUnit unit = timestampUnit(unwrappedSchema);
+            if (unit != null) {
+                return matcher.matches(toInstant(l, unit));
+            }
+        }
+
         // Avro record (GenericRecord): iterate field values
         if (node instanceof IndexedRecord rec) {
             Schema recSchema = unwrappedSchema != null ? unwrappedSchema : rec.getSchema();
@@ -100,7 +102,55 @@ public final class DeepSearchEngine {
         return matcher.matches(node);
     }
 
-    private static Schema unwrapUnion(Schema schema) {
+    /**
+     * @return the decimal held by a bytes / fixed value, or {@code null} for any other value
+     */
+    static BigDecimal decimalValue(Object node, int scale) {
+        byte[] bytes = null;
+        if (node instanceof byte[] b) {
+            bytes = b;
+        } else if (node instanceof ByteBuffer bb) {
+            ByteBuffer dup = bb.duplicate();
+            bytes = new byte[dup.remaining()];
+            dup.get(bytes);
+        } else if (node instanceof GenericData.Fixed f) {
+            bytes = f.bytes();
+        }
+        return bytes != null ? new BigDecimal(new java.math.BigInteger(bytes), scale) : null;
+    }
+
+    /**
+     * @return the unit of a (local) timestamp logical type, or {@code null} for any other schema
+     */
+    public static ChronoUnit timestampUnit(Schema schema) {
+        if (schema == null) {
+            return null;
+        }
+        LogicalType type = schema.getLogicalType();
+        if (type instanceof LogicalTypes.TimestampMillis || type instanceof LogicalTypes.LocalTimestampMillis) {
+            return ChronoUnit.MILLIS;
+        }
+        if (type instanceof LogicalTypes.TimestampMicros || type instanceof LogicalTypes.LocalTimestampMicros) {
+            return ChronoUnit.MICROS;
+        }
+        if (type instanceof LogicalTypes.TimestampNanos || type instanceof LogicalTypes.LocalTimestampNanos) {
+            return ChronoUnit.NANOS;
+        }
+        return null;
+    }
+
+    /**
+     * A timestamp value in {@code unit}s since the epoch; local timestamps are taken as UTC.
+     */
+    public static Instant toInstant(long value, ChronoUnit unit) {
+        return switch (unit) {
+            case MILLIS -> Instant.ofEpochMilli(value);
+            case MICROS -> Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L), Math.floorMod(value, 1_000_000L) * 1_000L);
+            default -> Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L), Math.floorMod(value, 1_000_000_000L));
+        };
+    }
+
+    static Schema unwrapUnion(Schema schema) {
         if (schema != null && schema.getType() == Schema.Type.UNION) {
             for (Schema s : schema.getTypes()) {
                 if (s.getType() != Schema.Type.NULL) return s;
@@ -1,6 +1,7 @@
 package com.dkostin.avro_viewer.app.util;
 
 import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
+import com.dkostin.avro_viewer.app.domain.model.filter.RangeBounds;
 
 import java.math.BigDecimal;
 
@@ -8,9 +9,11 @@ public final class PreparedMatcher {
     private final MatchOperation op;
     private final String expectedStr;
     private final BigDecimal expectedBigDecimal;
+    private final RangeBounds range; // null unless op is a range operation
 
     public PreparedMatcher(MatchOperation op, Object expectedRaw) {
         this.op = op;
+        this.range = RangeBounds.of(op, expectedRaw);
         this.expectedStr = normalize(expectedRaw);
         BigDecimal parsed = null;
         if (expectedRaw != null) {
@@ -22,6 +25,13 @@ public final class PreparedMatcher {
         this.expectedBigDecimal = parsed;
     }
 
+    /**
+     * Whether timestamps should be matched as {@link java.time.Instant}s: a range with date-time bounds.
+     */
+    public boolean comparesInstants() {
+        return range != null && range.hasInstants();
+    }
+
     public boolean matches(Object actual) {
         if (op == MatchOperation.IS_NULL) return actual == null;
         if (op == MatchOperation.NOT_NULL) return actual != null;
@@ -37,6 +47,7 @@ public final class PreparedMatcher {
             case CONTAINS -> normalize(actual).contains(expectedStr);
             case STARTS_WITH -> normalize(actual).startsWith(expectedStr);
             case ENDS_WITH -> normalize(actual).endsWith(expectedStr);
+            case GREATER_THAN, GREATER_OR_EQUAL, LESS_THAN, LESS_OR_EQUAL, BETWEEN -> range != null && range.contains(actual);
             default -> false;
         };
     }
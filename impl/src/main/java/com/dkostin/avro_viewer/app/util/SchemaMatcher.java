@@ -0,0 +1,137 @@
+package com.dkostin.avro_viewer.app.util;
+
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DeepSearchEngine} compiled against one schema.
+ * <p>
+ * Union unwrapping, decimal scales, record field positions and map / array element schemas are resolved once,
+ * so matching a value only indexes arrays and calls the {@link PreparedMatcher}. Answers are the same as
+ * {@code DeepSearchEngine.matches(node, schema, matcher)}; values the schema does not describe (a record in a
+ * union branch other than the first, or anything under an unknown schema) are handed to the engine itself.
+ * <p>
+ * Immutable once compiled, so one instance may serve concurrent scans.
+ */
+public final class SchemaMatcher {
+
+    private static final SchemaMatcher DYNAMIC = new SchemaMatcher(null);
+
+    private final Schema schema;
+    private final int decimalScale; // -1 = not a decimal
+    private final ChronoUnit timestampUnit; // null = not a timestamp
+
+    // resolved from the unwrapped schema; null where the engine would have no schema either
+    private int[] positions;
+    private SchemaMatcher[] fields;
+    private SchemaMatcher values = DYNAMIC;
+    private SchemaMatcher elements = DYNAMIC;
+
+    private SchemaMatcher(Schema schema) {
+        this.schema = schema;
+        Schema unwrapped = DeepSearchEngine.unwrapUnion(schema);
+        this.decimalScale = unwrapped != null && unwrapped.getLogicalType() instanceof LogicalTypes.Decimal dec
+                ? dec.getScale() : -1;
+        this.timestampUnit = DeepSearchEngine.timestampUnit(unwrapped);
+    }
+
+    /**
+     * @param schema may be {@code null}: the value's own schema is used, as by the engine
+     */
+    public static SchemaMatcher compile(Schema schema) {
+        return schema == null ? DYNAMIC : compile(schema, new IdentityHashMap<>());
+    }
+
+    private static SchemaMatcher compile(Schema schema, Map<Schema, SchemaMatcher> compiled) {
+        SchemaMatcher known = compiled.get(schema);
+        if (known != null) {
+            return known; // recursive record
+        }
+        SchemaMatcher m = new SchemaMatcher(schema);
+        compiled.put(schema, m);
+
+        Schema unwrapped = DeepSearchEngine.unwrapUnion(schema);
+        switch (unwrapped.getType()) {
+            case RECORD -> {
+                List<Schema.Field> fs = unwrapped.getFields();
+                m.positions = new int[fs.size()];
+                m.fields = new SchemaMatcher[fs.size()];
+                for (int i = 0; i < fs.size(); i++) {
+                    m.positions[i] = fs.get(i).pos();
+                    m.fields[i] = compile(fs.get(i).schema(), compiled);
+                }
+            }
+            case MAP -> m.values = compile(unwrapped.getValueType(), compiled);
+            case ARRAY -> m.elements = compile(unwrapped.getElementType(), compiled);
+            default -> {
+            }
+        }
+        return m;
+    }
+
+    public boolean matches(Object node, PreparedMatcher matcher) {
+        if (node == null) {
+            return matcher.matches(null);
+        }
+        if (schema == null) {
+            return DeepSearchEngine.matches(node, null, matcher);
+        }
+
+        if (decimalScale >= 0) {
+            BigDecimal bd = DeepSearchEngine.decimalValue(node, decimalScale);
+            if (bd != null) {
+                return matcher.matches(bd);
+            }
+        }
+
+        if (timestampUnit != null && node instanceof Long l && matcher.comparesInstants()) {
+            return matcher.matches(DeepSearchEngine.toInstant(l, timestampUnit));
+        }
+
+        if (node instanceof IndexedRecord rec) {
+            if (fields == null) {
+                return DeepSearchEngine.matches(node, schema, matcher);
+            }
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i].matches(rec.get(positions[i]), matcher)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // map values only, as in the engine
+        if (node instanceof Map<?, ?> map) {
+            for (Object v : map.values()) {
+                if (values.matches(v, matcher)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (node instanceof Collection<?> coll) {
+            for (Object item : coll) {
+                if (elements.matches(item, matcher)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (node instanceof ByteBuffer || node instanceof GenericData.Fixed || node instanceof byte[]) {
+            return false;
+        }
+        return matcher.matches(node);
+    }
+}
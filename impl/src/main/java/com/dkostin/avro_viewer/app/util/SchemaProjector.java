@@ -0,0 +1,40 @@
+package com.dkostin.avro_viewer.app.util;
+
+import lombok.experimental.UtilityClass;
+import org.apache.avro.Schema;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds Avro reader schemas that project a record onto a subset of its top-level fields.
+ * <p>
+ * Used as the "expected" schema of a {@code GenericDatumReader}: schema resolution then skips the
+ * omitted fields inside the decoder, so they are never materialized.
+ */
+@UtilityClass
+public final class SchemaProjector {
+
+    /**
+     * @param writer     the file's (writer) record schema
+     * @param fieldNames top-level fields to keep; {@code null} keeps all of them
+     * @return {@code writer} itself if nothing is dropped, otherwise a record schema with the same full name
+     * containing only the requested fields in writer order
+     */
+    public static Schema project(Schema writer, Collection<String> fieldNames) {
+        if (fieldNames == null || writer == null || writer.getType() != Schema.Type.RECORD) {
+            return writer;
+        }
+        List<Schema.Field> kept = new ArrayList<>();
+        for (Schema.Field f : writer.getFields()) {
+            if (fieldNames.contains(f.name())) {
+                kept.add(new Schema.Field(f, f.schema()));
+            }
+        }
+        if (kept.size() == writer.getFields().size()) {
+            return writer;
+        }
+        return Schema.createRecord(writer.getName(), writer.getDoc(), writer.getNamespace(), writer.isError(), kept);
+    }
+}
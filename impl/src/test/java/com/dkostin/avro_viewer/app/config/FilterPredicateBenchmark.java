@@ -0,0 +1,139 @@
+package com.dkostin.avro_viewer.app.config;
+
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterOption;
+import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Compares schema-compiled predicates with the per-record resolving evaluation on in-memory records, so only
+ * predicate cost is measured. Not a unit test; run its {@code main} from the IDE or with
+ * {@code java -cp target/test-classes:target/classes:<deps> ...FilterPredicateBenchmark [records] [rounds]}.
+ * <p>
+ * Prints ns/record per criterion shape for both evaluations, best of {@code rounds} after a warm-up.
+ */
+public final class FilterPredicateBenchmark {
+
+    private static final int FIELDS = 24;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+
+        Schema schema = schema();
+        List<GenericRecord> records = records(schema, count);
+        FilterPredicateFactory factory = new FilterPredicateFactory();
+
+        Map<String, FilterCriterion> shapes = Map.of(
+                "root field", new FilterCriterion(FilterOption.ofField("f" + (FIELDS - 1)), MatchOperation.EQUALS, "value-7"),
+                "dot path", new FilterCriterion(FilterOption.ofField("detail.location.city"), MatchOperation.STARTS_WITH, "city-42"),
+                "path via array", new FilterCriterion(FilterOption.ofField("detail.tags.label"), MatchOperation.CONTAINS, "x9"),
+                "wildcard", new FilterCriterion(FilterOption.ALL_FIELDS, MatchOperation.CONTAINS, "no-such-text"));
+
+        System.out.printf("%,d records, best of %d rounds%n", count, rounds);
+        System.out.printf("%-16s %12s %12s %8s%n", "criterion", "schemaless", "compiled", "speedup");
+        shapes.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(e -> {
+            List<FilterCriterion> criteria = List.of(e.getValue());
+            Predicate<GenericRecord> schemaless = factory.compileSchemaless(criteria);
+            Predicate<GenericRecord> compiled = factory.compile(criteria, schema);
+
+            double before = bestNanosPerRecord(schemaless, records, rounds);
+            double after = bestNanosPerRecord(compiled, records, rounds);
+            System.out.printf("%-16s %9.1f ns %9.1f ns %7.2fx%n", e.getKey(), before, after, before / after);
+        });
+    }
+
+    private static double bestNanosPerRecord(Predicate<GenericRecord> predicate, List<GenericRecord> records, int rounds) {
+        long matches = 0;
+        for (int i = 0; i < 3; i++) {
+            matches += run(predicate, records);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            matches += run(predicate, records);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        if (matches < 0) {
+            System.out.println(matches); // keep the loop observable
+        }
+        return (double) best / records.size();
+    }
+
+    private static long run(Predicate<GenericRecord> predicate, List<GenericRecord> records) {
+        long matches = 0;
+        for (GenericRecord r : records) {
+            if (predicate.test(r)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static Schema schema() {
+        Schema location = SchemaBuilder.record("Location").fields()
+                .requiredString("country")
+                .name("city").type().unionOf().nullType().and().stringType().endUnion().nullDefault()
+                .endRecord();
+        Schema tag = SchemaBuilder.record("Tag").fields()
+                .requiredString("label")
+                .requiredDouble("weight")
+                .endRecord();
+        Schema detail = SchemaBuilder.record("Detail").fields()
+                .name("location").type(location).noDefault()
+                .name("tags").type().array().items(tag).noDefault()
+                .name("attributes").type().map().values().stringType().noDefault()
+                .endRecord();
+
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record("Wide").fields()
+                .requiredLong("id")
+                .name("detail").type(detail).noDefault();
+        for (int i = 0; i < FIELDS; i++) {
+            fields = i % 3 == 0 ? fields.optionalLong("f" + i) : fields.requiredString("f" + i);
+        }
+        return fields.endRecord();
+    }
+
+    private static List<GenericRecord> records(Schema schema, int count) {
+        Schema detailSchema = schema.getField("detail").schema();
+        Schema locationSchema = detailSchema.getField("location").schema();
+        Schema tagsSchema = detailSchema.getField("tags").schema();
+
+        List<GenericRecord> records = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            GenericRecord location = new GenericData.Record(locationSchema);
+            location.put("country", "country-" + n % 50);
+            location.put("city", n % 10 == 0 ? null : "city-" + n % 1_000);
+
+            List<GenericRecord> tags = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                GenericRecord tag = new GenericData.Record(tagsSchema.getElementType());
+                tag.put("label", "tag-" + t + "-" + Integer.toHexString(n));
+                tag.put("weight", t * 0.5);
+                tags.add(tag);
+            }
+
+            GenericRecord detail = new GenericData.Record(detailSchema);
+            detail.put("location", location);
+            detail.put("tags", new GenericData.Array<>(tagsSchema, tags));
+            detail.put("attributes", Map.of("k", "v-" + n % 7));
+
+            GenericRecord r = new GenericData.Record(schema);
+            r.put("id", (long) n);
+            r.put("detail", detail);
+            for (int i = 0; i < FIELDS; i++) {
+                r.put("f" + i, i % 3 == 0 ? (Object) (long) (n + i) : "value-" + (n + i) % 100);
+            }
+            records.add(r);
+        }
+        return records;
+    }
+}
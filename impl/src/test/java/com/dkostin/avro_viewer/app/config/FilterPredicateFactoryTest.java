@@ -3,6 +3,12 @@ package com.dkostin.avro_viewer.app.config;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
 import com.dkostin.avro_viewer.app.domain.model.filter.FilterOption;
 import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockBloomFilter;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndex;
+import com.dkostin.avro_viewer.app.service.impl.index.LookupFilter;
+import com.dkostin.avro_viewer.app.service.impl.index.ZoneFilter;
+import com.dkostin.avro_viewer.app.service.impl.index.ZoneMap;
+import com.dkostin.avro_viewer.app.util.BlockFilter;
 import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
@@ -13,11 +19,17 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FilterPredicateFactoryTest {
@@ -328,4 +340,229 @@ class FilterPredicateFactoryTest {
         Predicate<GenericRecord> compiledNullNestedIsNull = factory.compile(List.of(nullNestedIsNullQuery));
         assertTrue(compiledNullNestedIsNull.test(record));
     }
+
+    @Test
+    void testBlockFilterRequiresOnlyLiteralsStoredAsText() {
+        // strings are stored as UTF-8: the literal must appear in the block bytes
+        BlockFilter itemX = factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ALL_FIELDS, MatchOperation.CONTAINS, "itemX")), schema);
+        assertNotNull(itemX);
+        byte[] block = "\u0010\u0002itemX\u0002".getBytes(StandardCharsets.UTF_8);
+        assertTrue(itemX.mayMatch(block, 0, block.length));
+        assertFalse(itemX.mayMatch(block, 3, block.length));
+
+        assertNotNull(factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("region"), MatchOperation.EQUALS, "43")), schema));
+        assertNotNull(factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("id"), MatchOperation.STARTS_WITH, "rue")), schema));
+
+        // a number or boolean in the searched subtree could render the literal without storing it
+        assertNull(factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ALL_FIELDS, MatchOperation.CONTAINS, "43")), schema));
+        assertNull(factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ALL_FIELDS, MatchOperation.CONTAINS, "rue")), schema));
+        assertNull(factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("subContainer.nestedContainer.decimalField"),
+                        MatchOperation.EQUALS, new BigDecimal("0.474320687"))), schema));
+
+        // paths through arrays or maps and non-text operations are not pushed down
+        assertNull(factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("subContainer.detailsContainer.recordsList.name"),
+                        MatchOperation.EQUALS, "itemX")), schema));
+        assertNull(factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("id"), MatchOperation.NOT_NULL, null)), schema));
+    }
+
+    @Test
+    void testBlockFilterIgnoresLiteralsInsideEnumSymbols() {
+        Schema withEnum = SchemaBuilder.record("Tagged").fields()
+                .requiredString("label")
+                .name("kind").type().enumeration("Kind").symbols("PRIMARY", "SECONDARY").noDefault()
+                .endRecord();
+
+        assertNull(factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ALL_FIELDS, MatchOperation.CONTAINS, "PRIM")), withEnum));
+        assertNotNull(factory.compileBlockFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("label"), MatchOperation.CONTAINS, "PRIM")), withEnum));
+    }
+
+    @Test
+    void testRangeOperatorsCompareTypedValues() {
+        Schema timestamp = LogicalTypes.timestampMillis().addToSchema(SchemaBuilder.builder().longType());
+        Schema micros = LogicalTypes.timestampMicros().addToSchema(SchemaBuilder.builder().longType());
+        Schema events = SchemaBuilder.record("Event").fields()
+                .name("ts").type(timestamp).noDefault()
+                .name("tsMicros").type(micros).noDefault()
+                .requiredLong("seq")
+                .optionalDouble("latency")
+                .requiredString("day")
+                .endRecord();
+        GenericRecord event = new GenericData.Record(events);
+        event.put("ts", 1714557720000L);             // 2024-05-01T10:02:00Z
+        event.put("tsMicros", 1714557720000123L);
+        event.put("seq", 42L);
+        event.put("latency", 12.5);
+        event.put("day", "2024-05-01");
+
+        assertTrue(matches(events, event, "ts", MatchOperation.BETWEEN, "2024-05-01T10:00..2024-05-01T10:05"));
+        assertFalse(matches(events, event, "ts", MatchOperation.BETWEEN, "2024-05-01T10:03..2024-05-01T10:05"));
+        assertTrue(matches(events, event, "ts", MatchOperation.GREATER_OR_EQUAL, "2024-05-01T12:02+02:00"));
+        assertFalse(matches(events, event, "ts", MatchOperation.GREATER_THAN, "2024-05-01T12:02+02:00"));
+        assertTrue(matches(events, event, "ts", MatchOperation.LESS_THAN, "2024-05-02"));
+        assertTrue(matches(events, event, "ts", MatchOperation.GREATER_THAN, "1714557719999")); // raw value
+        assertTrue(matches(events, event, "tsMicros", MatchOperation.GREATER_THAN, "2024-05-01T10:02:00.000122Z"));
+        assertFalse(matches(events, event, "tsMicros", MatchOperation.GREATER_THAN, "2024-05-01T10:02:00.000123Z"));
+
+        assertTrue(matches(events, event, "seq", MatchOperation.BETWEEN, "42..42"));
+        assertTrue(matches(events, event, "seq", MatchOperation.BETWEEN, "..42"));
+        assertFalse(matches(events, event, "seq", MatchOperation.LESS_THAN, "42"));
+        assertTrue(matches(events, event, "seq", MatchOperation.LESS_THAN, "42.5"));
+        assertTrue(matches(events, event, "latency", MatchOperation.GREATER_THAN, "12.49"));
+        assertFalse(matches(events, event, "latency", MatchOperation.GREATER_THAN, "12.5"));
+        assertTrue(matches(events, event, "day", MatchOperation.BETWEEN, "2024-05-01..2024-05-31"));
+
+        // a decimal compares by value, not by its text
+        assertTrue(factory.compile(List.of(new FilterCriterion(
+                FilterOption.ofField("subContainer.nestedContainer.decimalField"),
+                MatchOperation.BETWEEN, "0.47..0.48")), schema).test(record));
+        assertFalse(factory.compile(List.of(new FilterCriterion(
+                FilterOption.ofField("subContainer.nestedContainer.decimalField"),
+                MatchOperation.GREATER_THAN, "0.5")), schema).test(record));
+
+        // a missing value is never in range
+        event.put("latency", null);
+        assertFalse(matches(events, event, "latency", MatchOperation.LESS_THAN, "1000"));
+    }
+
+    @Test
+    void testZoneFilterDropsBlocksOutsideTheRange() {
+        Schema timestamp = LogicalTypes.timestampMillis().addToSchema(SchemaBuilder.builder().longType());
+        Schema events = SchemaBuilder.record("Event").fields()
+                .name("ts").type(timestamp).noDefault()
+                .optionalDouble("latency")
+                .requiredString("name")
+                .endRecord();
+        long minute = 60_000L;
+        long start = 1714557600000L; // 2024-05-01T10:00:00Z
+        BlockIndex index = new BlockIndex(new long[]{100, 200, 300, 400, 500}, new long[]{0, 10, 20, 30, 40}, 50, 600)
+                .withZoneMaps(List.of(
+                        new ZoneMap("ts", false,
+                                new long[]{start - 10 * minute, start - 5 * minute, start + 3 * minute, start + 10 * minute},
+                                new long[]{start - 5 * minute, start + minute, start + 8 * minute, start + 20 * minute}),
+                        new ZoneMap("latency", true,
+                                new long[]{Double.doubleToLongBits(1), Double.doubleToLongBits(Double.POSITIVE_INFINITY),
+                                        Double.doubleToLongBits(5), Double.doubleToLongBits(1)},
+                                new long[]{Double.doubleToLongBits(2), Double.doubleToLongBits(Double.NEGATIVE_INFINITY),
+                                        Double.doubleToLongBits(9), Double.doubleToLongBits(3)})));
+
+        ZoneFilter window = factory.compileZoneFilter(List.of(new FilterCriterion(FilterOption.ofField("ts"),
+                MatchOperation.BETWEEN, "2024-05-01T10:00..2024-05-01T10:05")), events);
+        assertNotNull(window);
+        // the 5th block has no zone yet (appended since): it has to be read
+        assertEquals(BitSet.valueOf(new long[]{0b10110}), window.candidates(index));
+
+        ZoneFilter both = factory.compileZoneFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("ts"), MatchOperation.GREATER_OR_EQUAL, "2024-05-01T09:55Z"),
+                new FilterCriterion(FilterOption.ofField("latency"), MatchOperation.LESS_THAN, "4"),
+                new FilterCriterion(FilterOption.ofField("name"), MatchOperation.LESS_THAN, "m")), events);
+        assertEquals(Set.of("ts", "latency"), both.fields());
+        // block 1 has no latency at all, block 2 only higher ones
+        assertEquals(BitSet.valueOf(new long[]{0b11001}), both.candidates(index));
+
+        // only range criteria on numeric top-level fields are pushed down
+        assertNull(factory.compileZoneFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("name"), MatchOperation.GREATER_THAN, "a"),
+                new FilterCriterion(FilterOption.ofField("ts"), MatchOperation.EQUALS, "1"),
+                new FilterCriterion(FilterOption.ALL_FIELDS, MatchOperation.GREATER_THAN, "1")), events));
+        assertNull(factory.compileZoneFilter(List.of(new FilterCriterion(
+                FilterOption.ofField("subContainer.nestedContainer.timestamp"), MatchOperation.GREATER_THAN, "1")), schema));
+    }
+
+    @Test
+    void testLookupFilterKeysValuesLikeEquals() {
+        Schema orders = SchemaBuilder.record("Order").fields()
+                .requiredString("orderId")
+                .optionalLong("customer")
+                .requiredDouble("amount")
+                .endRecord();
+
+        LookupFilter lookup = factory.compileLookupFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("orderId"), MatchOperation.EQUALS, "A-200"),
+                new FilterCriterion(FilterOption.ofField("orderId"), MatchOperation.CONTAINS, "A"),
+                // integers are compared by value: "42.0" looks up 42
+                new FilterCriterion(FilterOption.ofField("customer"), MatchOperation.EQUALS, "42.0")), orders);
+        assertEquals(List.of(
+                new LookupFilter.Condition("orderId", BlockBloomFilter.hash("A-200")),
+                new LookupFilter.Condition("customer", BlockBloomFilter.hash("42"))), lookup.conditions());
+        assertEquals(Set.of("orderId", "customer"), lookup.fields());
+
+        // without Bloom filters nothing is dropped
+        BlockIndex index = new BlockIndex(new long[]{100, 200}, new long[]{0, 10}, 20, 300);
+        assertFalse(lookup.appliesTo(index));
+        assertEquals(2, lookup.candidates(index).cardinality());
+
+        // only equality on string, enum and integer top-level fields, with a key to look up
+        assertNull(factory.compileLookupFilter(List.of(
+                new FilterCriterion(FilterOption.ofField("amount"), MatchOperation.EQUALS, "1.5"),
+                new FilterCriterion(FilterOption.ofField("customer"), MatchOperation.EQUALS, "4.5"),
+                new FilterCriterion(FilterOption.ofField("customer"), MatchOperation.EQUALS, null),
+                new FilterCriterion(FilterOption.ALL_FIELDS, MatchOperation.EQUALS, "A-100"),
+                new FilterCriterion(FilterOption.ofField("orderId"), MatchOperation.STARTS_WITH, "A")), orders));
+    }
+
+    private boolean matches(Schema schema, GenericRecord rec, String field, MatchOperation op, String value) {
+        List<FilterCriterion> criteria = List.of(new FilterCriterion(FilterOption.ofField(field), op, value));
+        boolean compiled = factory.compile(criteria, schema).test(rec);
+        assertEquals(factory.compileSchemaless(criteria).test(rec), compiled, field + " " + op + " " + value);
+        return compiled;
+    }
+
+    @Test
+    void testSchemaCompiledPredicateAgreesWithSchemalessEvaluation() {
+        List<String> fields = List.of("*", "id", "items", "region", "subContainer",
+                "subContainer.nestedContainer.decimalField",
+                "subContainer.nestedContainer.timestamp",
+                "subContainer.nestedContainer.dataMap.keyABC.alpha.metricA",
+                "subContainer.nestedContainer.dataMap.missing.alpha",
+                "subContainer.detailsContainer.recordsList.name",
+                "subContainer.detailsContainer.recordsList.1.name",
+                "subContainer.detailsContainer.recordsList.7.value",
+                "subContainer.nestedContainer.nope",
+                "items.0");
+        List<Object> values = List.of("itemY", "item", "DE000A", "43", "0.474320687", new BigDecimal("0.474320687"),
+                "1765839843630", "0.47432068758609836", "true", "", "0..1", "2025-12-15..2025-12-16");
+
+        Predicate<GenericRecord> adaptive = null;
+        for (String field : fields) {
+            FilterOption option = field.equals("*") ? FilterOption.ALL_FIELDS : FilterOption.ofField(field);
+            for (MatchOperation op : MatchOperation.values()) {
+                for (Object value : values) {
+                    List<FilterCriterion> criteria = List.of(new FilterCriterion(option, op, value));
+                    boolean expected = factory.compileSchemaless(criteria).test(record);
+                    String label = field + " " + op + " " + value;
+                    assertEquals(expected, factory.compile(criteria, schema).test(record), label);
+                    assertEquals(expected, factory.compile(criteria).test(record), label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testAdaptivePredicateRecompilesForAnotherSchema() {
+        Schema other = SchemaBuilder.record("Other").fields()
+                .requiredInt("padding")
+                .requiredString("region")
+                .endRecord();
+        GenericRecord otherRecord = new GenericData.Record(other);
+        otherRecord.put("padding", 7);
+        otherRecord.put("region", "99");
+
+        Predicate<GenericRecord> region = factory.compile(List.of(
+                new FilterCriterion(FilterOption.ofField("region"), MatchOperation.EQUALS, "43")));
+        assertTrue(region.test(record));
+        assertFalse(region.test(otherRecord));
+        otherRecord.put("region", "43");
+        assertTrue(region.test(otherRecord));
+        assertTrue(region.test(record));
+    }
 }
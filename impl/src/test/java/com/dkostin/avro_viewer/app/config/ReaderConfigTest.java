@@ -0,0 +1,30 @@
+package com.dkostin.avro_viewer.app.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReaderConfigTest {
+
+    @Test
+    void testParsesValidProperties() {
+        ReaderConfig config = ReaderConfig.from(" mmap ", "16", true);
+        assertEquals(ReaderConfig.InputMode.MMAP, config.inputMode());
+        assertEquals(16L << 20, config.pageCacheBytes());
+        assertTrue(config.softPageCache());
+    }
+
+    @Test
+    void testBadValuesFallBackToDefaults() {
+        ReaderConfig config = ReaderConfig.from("mmapp", "lots", false);
+        assertEquals(ReaderConfig.InputMode.FILE, config.inputMode());
+        assertEquals(ReaderConfig.DEFAULT_PAGE_CACHE_BYTES, config.pageCacheBytes());
+
+        assertEquals(ReaderConfig.DEFAULT_PAGE_CACHE_BYTES, ReaderConfig.from(null, "-5", false).pageCacheBytes());
+        assertEquals(ReaderConfig.DEFAULT_PAGE_CACHE_BYTES, ReaderConfig.from(null, "0", false).pageCacheBytes());
+        // huge budgets are clamped instead of overflowing
+        assertEquals(Long.MAX_VALUE >> 20 << 20,
+                ReaderConfig.from(null, String.valueOf(Long.MAX_VALUE), false).pageCacheBytes());
+    }
+}
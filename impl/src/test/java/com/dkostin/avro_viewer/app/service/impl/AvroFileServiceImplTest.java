@@ -0,0 +1,771 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.config.FilterPredicateFactory;
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
+import com.dkostin.avro_viewer.app.domain.model.Page;
+import com.dkostin.avro_viewer.app.domain.model.Sample;
+import com.dkostin.avro_viewer.app.domain.model.SearchProgress;
+import com.dkostin.avro_viewer.app.domain.model.SearchResult;
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterOption;
+import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
+import com.dkostin.avro_viewer.app.service.impl.cache.CacheStats;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndexStore;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvroFileServiceImplTest {
+
+    private static final int RECORDS = 1_003;
+    private static final int PAGE_SIZE = 10;
+
+    @TempDir
+    Path cacheDir;
+
+    private Path tempAvroFile;
+    private Dataset dataset;
+    private AvroFileServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir), SeekableInputFactory.FILE);
+        Schema schema = SchemaBuilder.record("Event")
+                .fields()
+                .name("id").type().intType().noDefault()
+                .name("name").type().stringType().noDefault()
+                .endRecord();
+
+        tempAvroFile = Files.createTempFile("test-paging", ".avro");
+        dataset = Dataset.of(tempAvroFile);
+
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.setSyncInterval(128);
+            writer.create(schema, tempAvroFile.toFile());
+            for (int i = 0; i < RECORDS; i++) {
+                GenericRecord r = new GenericData.Record(schema);
+                r.put("id", i);
+                r.put("name", "name-" + i);
+                writer.append(r);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(tempAvroFile);
+    }
+
+    @Test
+    void testSequentialPaging() throws IOException {
+        for (int p = 0; p < 5; p++) {
+            Page page = service.readPage(tempAvroFile, p, PAGE_SIZE);
+            assertPage(page, p, PAGE_SIZE);
+            assertTrue(page.hasNext());
+        }
+    }
+
+    @Test
+    void testJumpForwardAndBack() throws IOException {
+        assertPage(service.readPage(tempAvroFile, 0, PAGE_SIZE), 0, PAGE_SIZE);
+        assertPage(service.readPage(tempAvroFile, 73, PAGE_SIZE), 73, PAGE_SIZE);
+        assertPage(service.readPage(tempAvroFile, 12, PAGE_SIZE), 12, PAGE_SIZE);
+        // sequential Next after a jump continues from the session
+        assertPage(service.readPage(tempAvroFile, 13, PAGE_SIZE), 13, PAGE_SIZE);
+        // Prev far behind the 4-entry cache
+        for (int p = 14; p < 20; p++) {
+            service.readPage(tempAvroFile, p, PAGE_SIZE);
+        }
+        assertPage(service.readPage(tempAvroFile, 1, PAGE_SIZE), 1, PAGE_SIZE);
+    }
+
+    @Test
+    void testReadAheadIsSupersededByPageSizeChange() throws IOException {
+        for (int round = 0; round < 20; round++) {
+            int size = round % 2 == 0 ? PAGE_SIZE : 7;
+            int pageIndex = round * 3;
+            Page page = service.readPage(tempAvroFile, pageIndex, size);
+            assertEquals(size, page.records().size());
+            assertEquals(pageIndex * size, page.records().get(0).get("id"));
+        }
+        service.cancelReadAhead();
+        assertPage(service.readPage(tempAvroFile, 3, PAGE_SIZE), 3, PAGE_SIZE);
+    }
+
+    @Test
+    void testIndexSidecarIsReusedByNewServiceInstance() throws IOException {
+        service.readPage(tempAvroFile, 50, PAGE_SIZE);
+        try (var sidecars = Files.list(cacheDir)) {
+            assertEquals(1, sidecars.count(), "Page jump should persist the block index");
+        }
+
+        AvroFileServiceImpl reopened = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir), SeekableInputFactory.FILE);
+        assertPage(reopened.readPage(tempAvroFile, 99, PAGE_SIZE), 99, PAGE_SIZE);
+    }
+
+    @Test
+    void testProjectedPageDecodesOnlyRequestedFields() throws IOException {
+        Page projected = service.readPage(dataset, 42, PAGE_SIZE, Set.of("id"));
+
+        assertEquals(List.of("id", "name"), projected.schema().getFields().stream().map(Schema.Field::name).toList());
+        assertPage(projected, 42, PAGE_SIZE);
+        assertNull(projected.records().get(0).getSchema().getField("name"));
+
+        Page full = service.readPage(dataset, 43, PAGE_SIZE, null);
+        assertPage(full, 43, PAGE_SIZE);
+        assertEquals("name-430", full.records().get(0).get("name").toString());
+    }
+
+    @Test
+    void testPageCacheIsBoundedByByteBudget() throws IOException {
+        // ~1 page fits: a page of 10 small records encodes to about 250 bytes
+        AvroFileServiceImpl small = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                SeekableInputFactory.FILE, 300, false);
+        for (int p = 0; p < 5; p++) {
+            assertPage(small.readPage(tempAvroFile, p, PAGE_SIZE), p, PAGE_SIZE);
+        }
+        assertPage(small.readPage(tempAvroFile, 0, PAGE_SIZE), 0, PAGE_SIZE);
+
+        CacheStats stats = small.pageCacheStats();
+        assertTrue(stats.evictions() > 0);
+        assertTrue(stats.size() <= 2, "budget must cap the entry count, got " + stats.size());
+
+        // the default budget keeps the page for a repeated request
+        // (background read-ahead may add hits of its own, so only a lower bound is exact)
+        service.readPage(tempAvroFile, 7, PAGE_SIZE);
+        long hits = service.pageCacheStats().hits();
+        service.readPage(tempAvroFile, 7, PAGE_SIZE);
+        assertTrue(service.pageCacheStats().hits() >= hits + 1);
+    }
+
+    @Test
+    void testCancelledReadStopsMidPage() throws IOException {
+        int[] polls = {0};
+        assertNull(service.readPage(dataset, 20, PAGE_SIZE, null, () -> ++polls[0] > 3));
+        assertTrue(polls[0] > 3);
+        assertNull(service.readPage(dataset, 21, PAGE_SIZE, null, () -> true));
+
+        // the reader left mid-page stays usable
+        assertPage(service.readPage(dataset, 20, PAGE_SIZE, null), 20, PAGE_SIZE);
+        assertPage(service.readPage(dataset, 21, PAGE_SIZE, null), 21, PAGE_SIZE);
+    }
+
+    @Test
+    void testConcurrentReadersDoNotInterfere() throws Exception {
+        // a tiny cache budget keeps nearly every read on a pooled reader
+        AvroFileServiceImpl shared = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                SeekableInputFactory.FILE, 1, false);
+        int lastPage = RECORDS / PAGE_SIZE;
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < 6; t++) {
+                int seed = t;
+                Set<String> fields = t % 2 == 0 ? null : Set.of("id");
+                readers.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 60; i++) {
+                        // mix sequential runs with jumps
+                        int p = i % 3 == 0 ? random.nextInt(lastPage) : (seed * 7 + i) % lastPage;
+                        assertPage(shared.readPage(dataset, p, PAGE_SIZE, fields), p, PAGE_SIZE);
+                        long record = random.nextInt(RECORDS);
+                        assertEquals((int) record, shared.readRecord(dataset, record).get("id"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertPage(shared.readPage(dataset, lastPage, PAGE_SIZE, null), lastPage, RECORDS % PAGE_SIZE);
+    }
+
+    @Test
+    void testSampleSpansWholeFileAndReadsFewBlocks() throws IOException {
+        Sample sample = service.sample(dataset, 20, null, 42);
+
+        assertEquals(20, sample.records().size());
+        assertEquals(RECORDS, sample.totalRecords());
+        assertEquals(8, sample.blocksRead());
+        long[] positions = sample.recordIndexes();
+        for (int i = 0; i < positions.length; i++) {
+            assertEquals((int) positions[i], sample.records().get(i).get("id"));
+            if (i > 0) {
+                assertTrue(positions[i - 1] < positions[i], "sample must be in file order");
+            }
+        }
+        assertTrue(positions[positions.length - 1] - positions[0] > RECORDS / 4, "sample should not cluster at the start");
+
+        // same seed, same sample; projection applies
+        Sample again = service.sample(dataset, 20, Set.of("id"), 42);
+        assertArrayEquals(positions, again.recordIndexes());
+        assertNull(again.records().getFirst().getSchema().getField("name"));
+
+        // browsing is unaffected by the reader used for sampling
+        assertPage(service.readPage(dataset, 3, PAGE_SIZE, null), 3, PAGE_SIZE);
+    }
+
+    @Test
+    void testSampleOfDatasetCoversParts(@TempDir Path dir) throws IOException {
+        writeParts(dir, 7, 0, 25, 3, 40);
+        Sample sample = service.sample(new Dataset(dir, "part-*.avro"), 75, null, 7);
+
+        assertEquals(75, sample.totalRecords());
+        long[] positions = sample.recordIndexes();
+        for (int i = 0; i < positions.length; i++) {
+            assertEquals((int) positions[i], sample.records().get(i).get("id"));
+        }
+    }
+
+    @Test
+    void testCountRecordsFromBlockHeaders() throws IOException {
+        assertEquals(RECORDS, service.countRecords(dataset));
+    }
+
+    @Test
+    void testReadRecordByIndexLeavesPagingSessionAlone() throws IOException {
+        assertPage(service.readPage(dataset, 5, PAGE_SIZE, Set.of("id")), 5, PAGE_SIZE);
+
+        GenericRecord first = service.readRecord(dataset, 0);
+        GenericRecord middle = service.readRecord(dataset, 517);
+        GenericRecord last = service.readRecord(dataset, RECORDS - 1);
+        assertEquals(0, first.get("id"));
+        assertEquals("name-517", middle.get("name").toString()); // full record despite the projected pages
+        assertEquals(RECORDS - 1, last.get("id"));
+        assertThrows(IOException.class, () -> service.readRecord(dataset, RECORDS));
+
+        assertPage(service.readPage(dataset, 6, PAGE_SIZE, Set.of("id")), 6, PAGE_SIZE);
+    }
+
+    @Test
+    void testLastPartialPageAndBeyondEnd() throws IOException {
+        int lastPage = RECORDS / PAGE_SIZE;
+        Page last = service.readPage(tempAvroFile, lastPage, PAGE_SIZE);
+        assertPage(last, lastPage, RECORDS % PAGE_SIZE);
+        assertFalse(last.hasNext());
+
+        Page beyond = service.readPage(tempAvroFile, lastPage + 5, PAGE_SIZE);
+        assertTrue(beyond.records().isEmpty());
+        assertFalse(beyond.hasNext());
+    }
+
+    @Test
+    void testDatasetPagesAcrossParts(@TempDir Path dir) throws IOException {
+        writeParts(dir, 7, 0, 25, 3, 40);
+        Dataset parts = new Dataset(dir, "part-*.avro");
+
+        for (int p = 0; p < 8; p++) {
+            assertPage(service.readPage(parts, p, PAGE_SIZE, null), p, Math.min(PAGE_SIZE, 75 - p * PAGE_SIZE));
+        }
+        assertFalse(service.readPage(parts, 7, PAGE_SIZE, null).hasNext());
+
+        // jumps land in the right part, also with a projection
+        assertPage(service.readPage(parts, 3, PAGE_SIZE, Set.of("id")), 3, PAGE_SIZE);
+        assertPage(service.readPage(parts, 1, PAGE_SIZE, null), 1, PAGE_SIZE);
+        assertTrue(service.readPage(parts, 9, PAGE_SIZE, null).records().isEmpty());
+
+        assertEquals(75, service.countRecords(parts));
+        assertEquals(33, service.readRecord(parts, 33).get("id"));
+        assertEquals("name-74", service.readRecord(parts, 74).get("name").toString());
+    }
+
+    @Test
+    void testPartRewrittenInPlaceIsNotServedFromCache(@TempDir Path dir, @TempDir Path other) throws Exception {
+        writeParts(dir, 30, 30);
+        Dataset parts = new Dataset(dir, "part-*.avro");
+        FileTime rootModified = Files.getLastModifiedTime(dir);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), ids(service.readPage(parts, 0, 10, null)));
+
+        // the first part shrinks to 5 records; the directory itself looks unchanged
+        writeParts(other, 5);
+        Files.copy(other.resolve("part-00000.avro"), dir.resolve("part-00000.avro"), StandardCopyOption.REPLACE_EXISTING);
+        Files.setLastModifiedTime(dir.resolve("part-00000.avro"), FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        Files.setLastModifiedTime(dir, rootModified);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 30, 31, 32, 33, 34), ids(service.readPage(parts, 0, 10, null)));
+        assertEquals(35, service.countRecords(parts));
+        assertEquals(30, service.readRecord(parts, 5).get("id"));
+    }
+
+    private static List<Object> ids(Page page) {
+        return page.records().stream().map(r -> r.get("id")).toList();
+    }
+
+    @Test
+    void testDatasetSearchMergesPartsInOrder(@TempDir Path dir) throws Exception {
+        writeParts(dir, 7, 0, 25, 3, 40);
+        Dataset parts = new Dataset(dir, "part-*.avro");
+        FilterCriterion endsWith5 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.ENDS_WITH, "5");
+
+        SearchResult all = service.search(parts, List.of(endsWith5), 100);
+        assertEquals(List.of(5, 15, 25, 35, 45, 55, 65), all.records().stream().map(r -> r.get("id")).toList());
+        assertFalse(all.truncated());
+        assertEquals(75, all.scanned());
+
+        SearchResult firstThree = service.search(parts, List.of(endsWith5), 3);
+        assertEquals(List.of(5, 15, 25), firstThree.records().stream().map(r -> r.get("id")).toList());
+        assertTrue(firstThree.truncated());
+    }
+
+    @Test
+    void testSearchOverBlockRangesMatchesSequentialScan() throws Exception {
+        FilterCriterion endsWith7 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.ENDS_WITH, "7");
+        SearchResult sequential = service.search(dataset, List.of(endsWith7), 1_000);
+
+        // ~1 KB ranges: the file is scanned as dozens of block ranges in parallel
+        AvroFileServiceImpl ranged = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                SeekableInputFactory.FILE);
+        ranged.minSearchRangeBytes = 1_024;
+        SearchResult all = ranged.search(dataset, List.of(endsWith7), 1_000);
+        assertEquals(sequential.records(), all.records());
+        assertEquals(100, all.records().size());
+        assertEquals(RECORDS, all.scanned());
+        assertFalse(all.truncated());
+
+        SearchResult firstFive = ranged.search(dataset, List.of(endsWith7), 5);
+        assertEquals(List.of(7, 17, 27, 37, 47), firstFive.records().stream().map(r -> r.get("id")).toList());
+        assertTrue(firstFive.truncated());
+    }
+
+    @Test
+    void testCancelledSearchStopsWithoutCursorAndIsNotCached() throws Exception {
+        FilterCriterion endsWith7 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.ENDS_WITH, "7");
+        AvroFileServiceImpl ranged = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                SeekableInputFactory.FILE);
+        ranged.minSearchRangeBytes = 1_024;
+        for (AvroFileServiceImpl s : List.of(service, ranged)) {
+            SearchResult cancelled = s.search(dataset, List.of(endsWith7), 1_000, null, _ -> {}, () -> true);
+            assertTrue(cancelled.truncated());
+            assertNull(cancelled.next(), "a cancelled search cannot be resumed");
+            assertTrue(cancelled.records().size() < 100);
+
+            // the partial result is not served to the next search
+            assertEquals(100, s.search(dataset, List.of(endsWith7), 1_000).records().size());
+        }
+    }
+
+    @Test
+    void testBlockFilteredSearchKeepsResultsAndScanCount() throws Exception {
+        FilterCriterion name500 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.CONTAINS, "name-50");
+        List<Integer> expected = List.of(50, 500, 501, 502, 503, 504, 505, 506, 507, 508, 509);
+
+        SearchResult whole = service.search(dataset, List.of(name500), 1_000);
+        assertEquals(expected, whole.records().stream().map(r -> r.get("id")).toList());
+        assertEquals(RECORDS, whole.scanned());
+
+        AvroFileServiceImpl ranged = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                SeekableInputFactory.FILE);
+        ranged.minSearchRangeBytes = 1_024;
+        SearchResult ranges = ranged.search(dataset, List.of(name500), 1_000);
+        assertEquals(whole.records(), ranges.records());
+        assertEquals(RECORDS, ranges.scanned());
+
+        // an int-only criterion cannot be pushed down and still matches
+        FilterCriterion id500 = new FilterCriterion(FilterOption.ofField("id"), MatchOperation.EQUALS, "500");
+        SearchResult both = ranged.search(dataset, List.of(name500, id500), 1_000);
+        assertEquals(List.of(500), both.records().stream().map(r -> r.get("id")).toList());
+    }
+
+    @Test
+    void testProbedSearchReturnsFullyDecodedMatches(@TempDir Path dir) throws Exception {
+        Schema point = SchemaBuilder.record("Point").fields().requiredDouble("x").requiredDouble("y").endRecord();
+        Schema wide = SchemaBuilder.record("Wide").fields()
+                .requiredLong("id")
+                .requiredString("payload")
+                .name("points").type().array().items(point).noDefault()
+                .name("attrs").type().map().values().stringType().noDefault()
+                .optionalString("label")
+                .endRecord();
+
+        for (CodecFactory codec : List.of(CodecFactory.nullCodec(), CodecFactory.deflateCodec(1))) {
+            Path file = dir.resolve("wide-" + codec + ".avro");
+            try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(wide))) {
+                writer.setCodec(codec);
+                writer.setSyncInterval(4_096);
+                writer.create(wide, file.toFile());
+                for (int i = 0; i < 600; i++) {
+                    GenericRecord p = new GenericData.Record(point);
+                    p.put("x", i * 0.5);
+                    p.put("y", -i);
+                    GenericRecord r = new GenericData.Record(wide);
+                    r.put("id", (long) i);
+                    r.put("payload", "payload-" + i + "-" + "x".repeat(i % 300));
+                    r.put("points", List.of(p));
+                    r.put("attrs", java.util.Map.of("k" + i % 3, "v" + i));
+                    r.put("label", i % 5 == 0 ? null : "label-" + i % 40);
+                    writer.append(r);
+                }
+            }
+            Dataset wideDataset = Dataset.of(file);
+
+            // the field criterion is tested on "label" alone; the wildcard one decodes every record in full
+            SearchResult probed = service.search(wideDataset,
+                    List.of(new FilterCriterion(FilterOption.ofField("label"), MatchOperation.EQUALS, "label-7")), 1_000);
+            SearchResult full = service.search(wideDataset,
+                    List.of(new FilterCriterion(FilterOption.ALL_FIELDS, MatchOperation.EQUALS, "label-7")), 1_000);
+
+            assertEquals(15, probed.records().size(), codec.toString());
+            assertEquals(full.records(), probed.records(), codec.toString());
+            assertEquals(600, probed.scanned());
+            assertEquals("payload-47-" + "x".repeat(47), probed.records().get(1).get("payload"));
+        }
+    }
+
+    @Test
+    void testSearchReportsEveryMatchInOrderWhileScanning() throws Exception {
+        FilterCriterion endsWith3 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.ENDS_WITH, "3");
+        AvroFileServiceImpl ranged = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                SeekableInputFactory.FILE);
+        ranged.minSearchRangeBytes = 1_024;
+
+        for (AvroFileServiceImpl s : List.of(service, ranged)) {
+            for (int max : List.of(1_000, 7)) {
+                List<SearchProgress> reports = new ArrayList<>();
+                SearchResult result = s.search(dataset, List.of(endsWith3), max, reports::add);
+
+                List<Object> streamed = reports.stream().flatMap(p -> p.hits().stream()).map(r -> r.get("id")).toList();
+                assertEquals(result.records().stream().map(r -> r.get("id")).toList(), streamed);
+                assertFalse(reports.getFirst().hits().isEmpty(), "no empty report before the first match");
+                if (s == service && max == 1_000) {
+                    // scanned, not served from the search cache
+                    assertEquals(1, reports.getFirst().hits().size(), "the first match is reported on its own");
+                }
+
+                SearchProgress last = reports.getLast();
+                assertEquals(result.records().size(), last.matched());
+                assertEquals(result.scanned(), last.scanned());
+                assertNotNull(reports.getFirst().schema());
+            }
+        }
+    }
+
+    @Test
+    void testResumedSearchPagesThroughAllMatchesOnce(@TempDir Path dir) throws Exception {
+        FilterCriterion endsWith3 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.ENDS_WITH, "3");
+        AvroFileServiceImpl ranged = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                SeekableInputFactory.FILE);
+        ranged.minSearchRangeBytes = 1_024;
+        writeParts(dir, 7, 0, 25, 3, 40);
+        Dataset parts = new Dataset(dir, "part-*.avro");
+
+        for (AvroFileServiceImpl s : List.of(service, ranged)) {
+            for (Dataset d : List.of(dataset, parts)) {
+                SearchResult all = s.search(d, List.of(endsWith3), 1_000);
+                assertNull(all.next());
+
+                List<Object> paged = new ArrayList<>();
+                List<SearchProgress> reports = new ArrayList<>();
+                SearchResult batch = s.search(d, List.of(endsWith3), 7);
+                paged.addAll(batch.records().stream().map(r -> r.get("id")).toList());
+                while (batch.next() != null) {
+                    assertTrue(batch.truncated());
+                    assertEquals(paged.size(), batch.next().matched());
+                    batch = s.search(d, List.of(endsWith3), 7, batch.next(), reports::add);
+                    paged.addAll(batch.records().stream().map(r -> r.get("id")).toList());
+                    assertEquals(paged.size(), reports.getLast().matched());
+                }
+                assertEquals(all.records().stream().map(r -> r.get("id")).toList(), paged);
+                assertFalse(batch.truncated());
+                assertEquals(all.scanned(), batch.scanned(), "the batches together scan the dataset once");
+            }
+        }
+    }
+
+    @Test
+    void testResumingAfterTheFileChangedFails() throws Exception {
+        FilterCriterion endsWith3 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.ENDS_WITH, "3");
+        SearchResult first = service.search(dataset, List.of(endsWith3), 5);
+        assertNotNull(first.next());
+
+        Files.setLastModifiedTime(tempAvroFile, FileTime.fromMillis(
+                first.next().datasetVersion() + 60_000));
+        assertThrows(IllegalStateException.class,
+                () -> service.search(dataset, List.of(endsWith3), 5, first.next(), _ -> {}));
+    }
+
+    @Test
+    void testRepeatedSearchIsServedFromCacheWithoutOpeningFiles() throws Exception {
+        AtomicInteger opened = new AtomicInteger();
+        AvroFileServiceImpl counting = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                file -> {
+                    opened.incrementAndGet();
+                    return SeekableInputFactory.FILE.open(file);
+                });
+        FilterCriterion endsWith3 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.ENDS_WITH, "3");
+        FilterCriterion startsWith1 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.STARTS_WITH, "name-1");
+
+        SearchResult first = counting.search(dataset, List.of(endsWith3, startsWith1), 1_000);
+        int scans = opened.get();
+
+        List<SearchProgress> reports = new ArrayList<>();
+        SearchResult again = counting.search(dataset, List.of(startsWith1, endsWith3, startsWith1), 1_000, reports::add);
+        assertEquals(scans, opened.get(), "criteria in another order hit the cache");
+        assertEquals(first.records(), again.records());
+        assertEquals(first.scanned(), again.scanned());
+        assertEquals(first.truncated(), again.truncated());
+        assertEquals(again.records(), reports.stream().flatMap(p -> p.hits().stream()).toList());
+        assertTrue(counting.searchCacheStats().hits() >= 1);
+
+        Files.setLastModifiedTime(tempAvroFile, FileTime.fromMillis(Files.getLastModifiedTime(tempAvroFile).toMillis() + 60_000));
+        counting.search(dataset, List.of(endsWith3, startsWith1), 1_000);
+        assertTrue(opened.get() > scans, "a modified file is scanned again");
+    }
+
+    @Test
+    void testCachedSearchAnswersNarrowerAndLargerSearchesLikeAScan(@TempDir Path dir) throws Exception {
+        FilterCriterion endsWith3 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.ENDS_WITH, "3");
+        FilterCriterion contains1 = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.CONTAINS, "1");
+        writeParts(dir, 7, 0, 25, 3, 40);
+        Dataset parts = new Dataset(dir, "part-*.avro");
+
+        for (Dataset d : List.of(dataset, parts)) {
+            AvroFileServiceImpl cached = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                    SeekableInputFactory.FILE);
+            cached.minSearchRangeBytes = 1_024;
+            // a truncated entry for the wider criteria
+            cached.search(d, List.of(endsWith3), 4);
+
+            for (int max : List.of(2, 4, 6, 1_000)) {
+                for (List<FilterCriterion> criteria : List.of(List.of(endsWith3), List.of(endsWith3, contains1))) {
+                    AvroFileServiceImpl fresh = new AvroFileServiceImpl(new FilterPredicateFactory(),
+                            new BlockIndexStore(cacheDir), SeekableInputFactory.FILE);
+                    SearchResult expected = fresh.search(d, criteria, max);
+
+                    List<SearchProgress> reports = new ArrayList<>();
+                    SearchResult actual = cached.search(d, criteria, max, reports::add);
+                    String what = d.displayName() + " " + criteria.size() + " criteria, max " + max;
+                    assertEquals(expected.records(), actual.records(), what);
+                    assertEquals(expected.truncated(), actual.truncated(), what);
+                    assertEquals(expected.scanned(), actual.scanned(), what);
+                    assertEquals(expected.next(), actual.next(), what);
+                    assertEquals(actual.records(), reports.stream().flatMap(p -> p.hits().stream()).toList(), what);
+                    assertEquals(actual.records().size(), reports.getLast().matched(), what);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRangeSearchReadsOnlyBlocksInTheTimeWindow(@TempDir Path dir) throws Exception {
+        Schema timestamp = LogicalTypes.timestampMillis().addToSchema(SchemaBuilder.builder().longType());
+        Schema schema = SchemaBuilder.record("Log").fields()
+                .name("ts").type(timestamp).noDefault()
+                .requiredInt("seq")
+                .requiredString("message")
+                .endRecord();
+        int events = 20_000;
+        long start = 1714554000000L; // 2024-05-01T09:00:00Z, one event per second
+        Path log = dir.resolve("events.avro");
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.setSyncInterval(4_096);
+            writer.create(schema, log.toFile());
+            for (int i = 0; i < events; i++) {
+                GenericRecord r = new GenericData.Record(schema);
+                r.put("ts", start + i * 1_000L);
+                r.put("seq", i);
+                r.put("message", "event number " + i + " of the log");
+                writer.append(r);
+            }
+        }
+        Dataset logDataset = Dataset.of(log);
+        List<FilterCriterion> window = List.of(new FilterCriterion(FilterOption.ofField("ts"), MatchOperation.BETWEEN,
+                "2024-05-01T10:00..2024-05-01T10:05"));
+        // a wildcard criterion is not pushed down: the same matches from a full scan
+        SearchResult scanned = service.search(logDataset, List.of(new FilterCriterion(FilterOption.ALL_FIELDS,
+                MatchOperation.BETWEEN, "2024-05-01T10:00..2024-05-01T10:05")), 1_000);
+        assertEquals(301, scanned.records().size());
+
+        // the first range search builds the zone maps, later ones (in a new instance: from the sidecar) use them
+        SearchResult first = service.search(logDataset, window, 1_000);
+        assertEquals(scanned.records(), first.records());
+        assertEquals(events, first.scanned());
+
+        AtomicLong bytesRead = new AtomicLong();
+        AvroFileServiceImpl pruning = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                file -> new CountingInput(SeekableInputFactory.FILE.open(file), bytesRead));
+        SearchResult result = pruning.search(logDataset, window, 1_000);
+        assertEquals(scanned.records(), result.records());
+        assertEquals(events, result.scanned(), "dropped blocks count as scanned");
+        assertFalse(result.truncated());
+        assertTrue(bytesRead.get() < Files.size(log) / 10, bytesRead.get() + " of " + Files.size(log) + " bytes read");
+
+        // resumed batches skip the dropped blocks as well
+        List<Object> paged = new ArrayList<>();
+        SearchResult batch = pruning.search(logDataset, window, 40);
+        paged.addAll(batch.records().stream().map(r -> r.get("seq")).toList());
+        while (batch.next() != null) {
+            batch = pruning.search(logDataset, window, 40, batch.next(), _ -> {});
+            paged.addAll(batch.records().stream().map(r -> r.get("seq")).toList());
+        }
+        assertEquals(scanned.records().stream().map(r -> r.get("seq")).toList(), paged);
+        assertEquals(events, batch.scanned());
+
+        // nothing in range: every block is dropped
+        SearchResult none = pruning.search(logDataset, List.of(new FilterCriterion(FilterOption.ofField("seq"),
+                MatchOperation.LESS_THAN, "0")), 1_000);
+        assertEquals(List.of(), none.records());
+        assertEquals(events, none.scanned());
+    }
+
+    @Test
+    void testLookupReadsOnlyBlocksWhoseBloomFiltersHoldTheValue(@TempDir Path dir) throws Exception {
+        Schema schema = SchemaBuilder.record("Order").fields()
+                .requiredString("orderId")
+                .requiredLong("customer")
+                .requiredString("note")
+                .endRecord();
+        int orders = 20_000;
+        Path file = dir.resolve("orders.avro");
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.setSyncInterval(4_096);
+            writer.create(schema, file.toFile());
+            for (int i = 0; i < orders; i++) {
+                writer.append(order(schema, i));
+            }
+        }
+        Dataset ordersDataset = Dataset.of(file);
+        List<FilterCriterion> lookup = List.of(
+                new FilterCriterion(FilterOption.ofField("orderId"), MatchOperation.EQUALS, "ORD-12345"));
+        SearchResult scanned = service.search(ordersDataset, lookup, 1_000);
+        assertEquals(1, scanned.records().size());
+
+        assertEquals(Set.of("orderId", "customer"),
+                service.indexForLookups(ordersDataset, Set.of("orderId", "customer", "note.length", "missing")));
+
+        AtomicLong bytesRead = new AtomicLong();
+        AvroFileServiceImpl indexed = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                f -> new CountingInput(SeekableInputFactory.FILE.open(f), bytesRead));
+        SearchResult result = indexed.search(ordersDataset, lookup, 1_000);
+        assertEquals(scanned.records(), result.records());
+        assertEquals(orders, result.scanned(), "dropped blocks count as scanned");
+        assertTrue(bytesRead.get() < Files.size(file) / 10, bytesRead.get() + " of " + Files.size(file) + " bytes read");
+
+        // integers are looked up by value, together with other criteria
+        List<FilterCriterion> customer = List.of(
+                new FilterCriterion(FilterOption.ofField("customer"), MatchOperation.EQUALS, "7.0"),
+                new FilterCriterion(FilterOption.ofField("note"), MatchOperation.CONTAINS, "order"));
+        SearchResult byCustomer = indexed.search(ordersDataset, customer, 1_000);
+        assertEquals(orders / 1_000, byCustomer.records().size());
+        assertTrue(byCustomer.records().stream().allMatch(r -> r.get("customer").equals(7L)));
+
+        // blocks appended after indexing are read, and indexed on the way
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(schema))) {
+            writer.setSyncInterval(4_096);
+            writer.appendTo(file.toFile());
+            for (int i = orders; i < orders + 2_000; i++) {
+                writer.append(order(schema, i));
+            }
+        }
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        SearchResult appended = new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(cacheDir),
+                SeekableInputFactory.FILE)
+                .search(ordersDataset, List.of(new FilterCriterion(FilterOption.ofField("orderId"),
+                        MatchOperation.EQUALS, "ORD-21000")), 1_000);
+        assertEquals(List.of("ORD-21000"), appended.records().stream().map(r -> r.get("orderId").toString()).toList());
+        assertEquals(orders + 2_000, appended.scanned());
+    }
+
+    private static GenericRecord order(Schema schema, int i) {
+        GenericRecord r = new GenericData.Record(schema);
+        r.put("orderId", "ORD-" + i);
+        r.put("customer", (long) (i % 1_000));
+        r.put("note", "order " + i + " placed by customer " + (i % 1_000));
+        return r;
+    }
+
+    /**
+     * Writes part-00000.avro ... with the given record counts; ids continue across parts.
+     */
+    private static void writeParts(Path dir, int... counts) throws IOException {
+        Schema schema = SchemaBuilder.record("Event")
+                .fields()
+                .name("id").type().intType().noDefault()
+                .name("name").type().stringType().noDefault()
+                .endRecord();
+        int id = 0;
+        for (int p = 0; p < counts.length; p++) {
+            try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+                writer.setSyncInterval(64);
+                writer.create(schema, dir.resolve(String.format("part-%05d.avro", p)).toFile());
+                for (int i = 0; i < counts[p]; i++, id++) {
+                    GenericRecord r = new GenericData.Record(schema);
+                    r.put("id", id);
+                    r.put("name", "name-" + id);
+                    writer.append(r);
+                }
+            }
+        }
+        Files.writeString(dir.resolve("_SUCCESS"), ""); // marker files are not parts
+    }
+
+    /**
+     * Adds the bytes read through it to {@code total}.
+     */
+    private record CountingInput(SeekableInput delegate, AtomicLong total) implements SeekableInput {
+        @Override
+        public void seek(long p) throws IOException {
+            delegate.seek(p);
+        }
+
+        @Override
+        public long tell() throws IOException {
+            return delegate.tell();
+        }
+
+        @Override
+        public long length() throws IOException {
+            return delegate.length();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = delegate.read(b, off, len);
+            total.addAndGet(Math.max(n, 0));
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static void assertPage(Page page, int pageIndex, int expectedSize) {
+        assertEquals(expectedSize, page.records().size());
+        assertEquals((long) pageIndex * PAGE_SIZE, page.firstRecord());
+        for (int i = 0; i < expectedSize; i++) {
+            assertEquals(pageIndex * PAGE_SIZE + i, page.records().get(i).get("id"));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.config.FilterPredicateFactory;
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterOption;
+import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
+import com.dkostin.avro_viewer.app.service.api.RecordProvider;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetRecordProviderTest {
+
+    @TempDir
+    Path dir;
+
+    private final FilterPredicateFactory predicateFactory = new FilterPredicateFactory();
+
+    @Test
+    void testReadsPartsConcurrentlyInOrder() throws IOException {
+        List<Path> parts = writeParts(300, 0, 2_000, 1, 700);
+        List<String> json = new ArrayList<>();
+        try (RecordProvider provider = new DatasetRecordProvider(parts, List.of(), predicateFactory, SeekableInputFactory.FILE, 3)) {
+            while (provider.hasNext()) {
+                json.add(provider.nextJsonRecord());
+            }
+        }
+        assertEquals(3_001, json.size());
+        for (int i = 0; i < json.size(); i++) {
+            assertTrue(json.get(i).contains("\"id\":" + i + ","), json.get(i));
+        }
+    }
+
+    @Test
+    void testAppliesCriteriaPerPart() throws IOException {
+        List<Path> parts = writeParts(10, 10, 10);
+        FilterCriterion criterion = new FilterCriterion(FilterOption.ofField("name"), MatchOperation.ENDS_WITH, "7");
+        List<String> json = new ArrayList<>();
+        try (RecordProvider provider = new DatasetRecordProvider(parts, List.of(criterion), predicateFactory, SeekableInputFactory.FILE)) {
+            while (provider.hasNext()) {
+                json.add(provider.nextJsonRecord());
+            }
+        }
+        assertEquals(3, json.size());
+        assertTrue(json.get(2).contains("\"name\":\"name-27\""));
+    }
+
+    @Test
+    void testEarlyCloseStopsProducers() throws IOException {
+        List<Path> parts = writeParts(5_000, 5_000, 5_000);
+        RecordProvider provider = new DatasetRecordProvider(parts, List.of(), predicateFactory, SeekableInputFactory.FILE, 3);
+        assertTrue(provider.hasNext());
+        provider.nextJsonRecord();
+        provider.close();
+
+        assertFalse(provider.hasNext());
+        assertDoesNotThrow(provider::close);
+    }
+
+    @Test
+    void testUnreadablePartIsReported() throws IOException {
+        List<Path> parts = new ArrayList<>(writeParts(5));
+        parts.add(Files.writeString(dir.resolve("broken.avro"), "not avro"));
+        try (RecordProvider provider = new DatasetRecordProvider(parts, List.of(), predicateFactory, SeekableInputFactory.FILE)) {
+            for (int i = 0; i < 5; i++) {
+                provider.nextJsonRecord();
+            }
+            assertTrue(provider.hasNext());
+            assertThrows(IOException.class, provider::nextJsonRecord);
+        }
+    }
+
+    private List<Path> writeParts(int... counts) throws IOException {
+        Schema schema = SchemaBuilder.record("Event")
+                .fields()
+                .name("id").type().intType().noDefault()
+                .name("name").type().stringType().noDefault()
+                .endRecord();
+        List<Path> parts = new ArrayList<>();
+        int id = 0;
+        for (int p = 0; p < counts.length; p++) {
+            Path part = dir.resolve(String.format("part-%05d.avro", p));
+            try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+                writer.create(schema, part.toFile());
+                for (int i = 0; i < counts[p]; i++, id++) {
+                    GenericRecord r = new GenericData.Record(schema);
+                    r.put("id", id);
+                    r.put("name", "name-" + id);
+                    writer.append(r);
+                }
+            }
+            parts.add(part);
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,95 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedSeekableInputTest {
+
+    private Path tempFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempFile = Files.createTempFile("test-mmap", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void testReadsAcrossChunkBoundaries() throws IOException {
+        byte[] data = new byte[10_000];
+        new Random(42).nextBytes(data);
+        Files.write(tempFile, data);
+
+        try (MappedSeekableInput in = new MappedSeekableInput(tempFile, 1_000)) {
+            assertEquals(data.length, in.length());
+
+            Random rnd = new Random(7);
+            for (int i = 0; i < 200; i++) {
+                int pos = rnd.nextInt(data.length);
+                int len = 1 + rnd.nextInt(3_000);
+                in.seek(pos);
+
+                byte[] buf = new byte[len];
+                int n = in.read(buf, 0, len);
+                int expected = Math.min(len, data.length - pos);
+                assertEquals(expected, n);
+                assertArrayEquals(Arrays.copyOfRange(data, pos, pos + expected), Arrays.copyOf(buf, n));
+                assertEquals(pos + expected, in.tell());
+            }
+
+            in.seek(data.length);
+            assertEquals(-1, in.read(new byte[1], 0, 1));
+        }
+    }
+
+    @Test
+    void testDataFileReaderOverMappedInput() throws IOException {
+        Schema schema = SchemaBuilder.record("Row")
+                .fields()
+                .name("id").type().longType().noDefault()
+                .name("text").type().stringType().noDefault()
+                .endRecord();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.create(schema, tempFile.toFile());
+            for (long i = 0; i < 500; i++) {
+                GenericRecord r = new GenericData.Record(schema);
+                r.put("id", i);
+                r.put("text", "text-" + i);
+                writer.append(r);
+            }
+        }
+
+        // Tiny chunks force nearly every buffered read to span several mappings
+        try (DataFileReader<GenericRecord> reader = new DataFileReader<>(
+                new MappedSeekableInput(tempFile, 97), new GenericDatumReader<>())) {
+            long expected = 0;
+            while (reader.hasNext()) {
+                GenericRecord r = reader.next();
+                assertEquals(expected, r.get("id"));
+                assertEquals("text-" + expected, r.get("text").toString());
+                expected++;
+            }
+            assertEquals(500, expected);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndex;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndexer;
+import com.dkostin.avro_viewer.app.util.BlockFilter;
+import com.dkostin.avro_viewer.app.util.BytePattern;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelBlockReaderTest {
+
+    @TempDir
+    Path dir;
+
+    private final Schema schema = SchemaBuilder.record("Row").fields()
+            .requiredLong("id")
+            .requiredString("name")
+            .endRecord();
+
+    @Test
+    void testMatchesSequentialReadOfCompressedFile() throws IOException {
+        Path file = write("deflate.avro", 20_000, CodecFactory.deflateCodec(6));
+
+        List<String> expected = new ArrayList<>();
+        try (DataFileReader<GenericRecord> reader = new DataFileReader<>(file.toFile(), new GenericDatumReader<>())) {
+            reader.forEach(r -> expected.add(r.toString()));
+        }
+
+        for (SeekableInputFactory factory : List.of(SeekableInputFactory.FILE, SeekableInputFactory.MMAP)) {
+            List<String> actual = new ArrayList<>();
+            try (RecordStream stream = RecordStream.open(factory, file)) {
+                assertInstanceOf(ParallelBlockReader.class, stream);
+                assertEquals(schema, stream.getSchema());
+                GenericRecord reuse = null;
+                while (stream.hasNext()) {
+                    reuse = stream.next(reuse);
+                    actual.add(reuse.toString());
+                }
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void testUncompressedFileIsReadDirectly() throws IOException {
+        Path file = write("plain.avro", 100, CodecFactory.nullCodec());
+        try (RecordStream stream = RecordStream.open(SeekableInputFactory.FILE, file)) {
+            assertFalse(stream instanceof ParallelBlockReader);
+            long count = 0;
+            while (stream.hasNext()) {
+                stream.next(null);
+                count++;
+            }
+            assertEquals(100, count);
+        }
+    }
+
+    @Test
+    void testEarlyCloseStopsPipeline() throws IOException {
+        Path file = write("large.avro", 50_000, CodecFactory.deflateCodec(1));
+        RecordStream stream = RecordStream.open(SeekableInputFactory.FILE, file);
+        assertTrue(stream.hasNext());
+        assertEquals(0L, stream.next(null).get("id"));
+        stream.close();
+
+        assertFalse(stream.hasNext());
+        assertDoesNotThrow(stream::close);
+    }
+
+    @Test
+    void testInterruptEndsStreamAndKeepsFlag() throws IOException {
+        Path file = write("interrupted.avro", 5_000, CodecFactory.deflateCodec(1));
+        try (RecordStream stream = RecordStream.open(SeekableInputFactory.FILE, file)) {
+            assertTrue(stream.hasNext());
+            stream.next(null);
+
+            Thread.currentThread().interrupt();
+            long read = 0;
+            while (stream.hasNext()) {
+                stream.next(null);
+                read++;
+            }
+            assertTrue(Thread.interrupted());
+            assertTrue(read < 4_999, "stream should stop before draining the file");
+        }
+    }
+
+    @Test
+    void testBlockFilterSkipsBlocksWithoutDecoding() throws IOException {
+        BlockFilter name777 = new BlockFilter(List.of(new BytePattern("name-777".getBytes(StandardCharsets.UTF_8))));
+        for (CodecFactory codec : List.of(CodecFactory.nullCodec(), CodecFactory.deflateCodec(1))) {
+            Path file = write("filtered-" + codec + ".avro", 5_000, codec);
+            List<Long> ids = new ArrayList<>();
+            long decoded = 0;
+            try (RecordStream stream = RecordStream.open(SeekableInputFactory.FILE, file, _ -> name777)) {
+                GenericRecord reuse = null;
+                while (stream.hasNext()) {
+                    reuse = stream.next(reuse);
+                    decoded++;
+                    if (reuse.get("name").toString().equals("name-777")) {
+                        ids.add((Long) reuse.get("id"));
+                    }
+                }
+                assertEquals(5_000, decoded + stream.skippedRecords());
+                assertTrue(stream.skippedRecords() > 4_000, "blocks without the literal are skipped: " + codec);
+            }
+            assertEquals(List.of(777L), ids);
+        }
+    }
+
+    @Test
+    void testRangeStopsAtRecordLimit() throws IOException {
+        Path file = write("range.avro", 1_000, CodecFactory.nullCodec());
+        BlockIndex index = BlockIndexer.build(file);
+        long records = index.recordCount(1) + index.recordCount(2);
+
+        try (RecordStream stream = RecordStream.range(SeekableInputFactory.FILE, file, index.blockOffset(1), records, 0, _ -> null)) {
+            assertEquals(index.firstRecord(1), stream.next(null).get("id"));
+            long read = 1;
+            while (stream.hasNext()) {
+                stream.next(null);
+                read++;
+            }
+            assertEquals(records, read);
+        }
+    }
+
+    private Path write(String name, int count, CodecFactory codec) throws IOException {
+        Path file = dir.resolve(name);
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.setCodec(codec);
+            writer.setSyncInterval(2_048);
+            writer.create(schema, file.toFile());
+            for (int i = 0; i < count; i++) {
+                GenericRecord r = new GenericData.Record(schema);
+                r.put("id", (long) i);
+                r.put("name", "name-" + i);
+                writer.append(r);
+            }
+        }
+        return file;
+    }
+}
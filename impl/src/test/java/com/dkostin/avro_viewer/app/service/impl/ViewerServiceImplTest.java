@@ -0,0 +1,253 @@
+package com.dkostin.avro_viewer.app.service.impl;
+
+import com.dkostin.avro_viewer.app.config.FilterPredicateFactory;
+import com.dkostin.avro_viewer.app.domain.model.FollowUpdate;
+import com.dkostin.avro_viewer.app.domain.model.Page;
+import com.dkostin.avro_viewer.app.domain.model.PageRequest;
+import com.dkostin.avro_viewer.app.domain.model.RecordSummary;
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterCriterion;
+import com.dkostin.avro_viewer.app.domain.model.filter.FilterOption;
+import com.dkostin.avro_viewer.app.domain.model.filter.MatchOperation;
+import com.dkostin.avro_viewer.app.domain.state.ViewerState;
+import com.dkostin.avro_viewer.app.service.impl.index.BlockIndexStore;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ViewerServiceImplTest {
+
+    private static final int RECORDS = 500;
+
+    @TempDir
+    Path dir;
+
+    private final Schema schema = SchemaBuilder.record("Event").fields().requiredInt("id").endRecord();
+
+    private Path file;
+    private ViewerServiceImpl viewer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = dir.resolve("events.avro");
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.setSyncInterval(256);
+            writer.create(schema, file.toFile());
+            for (int i = 0; i < RECORDS; i++) {
+                GenericRecord r = new GenericData.Record(schema);
+                r.put("id", i);
+                writer.append(r);
+            }
+        }
+
+        FilterPredicateFactory predicateFactory = new FilterPredicateFactory();
+        AvroFileServiceImpl fileService = new AvroFileServiceImpl(predicateFactory, new BlockIndexStore(dir.resolve("index")),
+                SeekableInputFactory.FILE);
+        viewer = new ViewerServiceImpl(fileService, null, new ViewerState(), predicateFactory, SeekableInputFactory.FILE);
+        viewer.setPageSize(50);
+        viewer.openFile(file);
+    }
+
+    @Test
+    void testJsonExportReadsSummaryRowsInFull() throws Exception {
+        Schema nested = SchemaBuilder.record("Order").fields()
+                .requiredInt("id")
+                .name("tags").type().array().items().stringType().noDefault()
+                .endRecord();
+        Path orders = dir.resolve("orders.avro");
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(nested))) {
+            writer.create(nested, orders.toFile());
+            for (int i = 0; i < 20; i++) {
+                GenericRecord r = new GenericData.Record(nested);
+                r.put("id", i);
+                r.put("tags", List.of("tag-" + i, "x".repeat(600)));
+                writer.append(r);
+            }
+        }
+        ViewerServiceImpl exporting = new ViewerServiceImpl(
+                new AvroFileServiceImpl(new FilterPredicateFactory(), new BlockIndexStore(dir.resolve("index")),
+                        SeekableInputFactory.FILE),
+                new ExportServiceImpl(), new ViewerState(), new FilterPredicateFactory(), SeekableInputFactory.FILE);
+        exporting.openFile(orders);
+
+        // table rows of records 3, 4 and 9 with the tags column hidden
+        ObservableList<Map<String, Object>> rows = FXCollections.observableArrayList();
+        for (long index : new long[]{3, 4, 9}) {
+            RecordSummary row = new RecordSummary(1, index);
+            row.put("id", (int) index);
+            rows.add(row);
+        }
+        rows.add(Map.of("id", 42)); // a search match is already complete
+
+        Path out = dir.resolve("export.json");
+        exporting.exportToJson(out, rows);
+        String json = Files.readString(out);
+        assertTrue(json.contains("tag-3") && json.contains("tag-4") && json.contains("tag-9"), json);
+        assertTrue(json.contains("x".repeat(600)), "nested values are not cut");
+        assertFalse(json.contains("tag-5"));
+        assertTrue(json.contains("42"));
+    }
+
+    @Test
+    void testOnlyLatestNavigationIsApplied() throws Exception {
+        PageRequest first = viewer.nextPage();
+        PageRequest second = viewer.nextPage();
+        PageRequest third = viewer.nextPage();
+        assertEquals(3, viewer.getPageIndex());
+
+        assertNull(viewer.loadPage(first));
+        assertNull(viewer.loadPage(second));
+
+        Page page = viewer.loadPage(third);
+        assertTrue(viewer.applyPage(third, page));
+        assertEquals(150L, page.firstRecord());
+        assertEquals(150, page.records().getFirst().get("id"));
+    }
+
+    @Test
+    void testStalePageIsNotApplied() throws Exception {
+        PageRequest next = viewer.nextPage();
+        Page loaded = viewer.loadPage(next);
+        assertNotNull(loaded);
+
+        PageRequest back = viewer.prevPage();
+        assertFalse(viewer.applyPage(next, loaded));
+        assertTrue(viewer.applyPage(back, viewer.loadPage(back)));
+        assertEquals(0, viewer.getPageIndex());
+        assertTrue(viewer.hasNextPage());
+    }
+
+    @Test
+    void testNextStopsAtKnownPageCount() throws Exception {
+        viewer.countRecords();
+        PageRequest last = null;
+        for (int i = 0; i < 20; i++) {
+            PageRequest request = viewer.nextPage();
+            if (request != null) {
+                last = request;
+            }
+        }
+        assertNotNull(last);
+        assertEquals(9, viewer.getPageIndex());
+        assertFalse(viewer.hasNextPage());
+
+        Page page = viewer.loadPage(last);
+        assertTrue(viewer.applyPage(last, page));
+        assertEquals(50, page.records().size());
+    }
+
+    @Test
+    void testGoToLastPageBeforeCountIsKnown() throws Exception {
+        PageRequest last = viewer.goToLastPage();
+        assertEquals(PageRequest.LAST_PAGE, last.pageIndex());
+
+        Page page = viewer.loadPage(last);
+        assertTrue(viewer.applyPage(last, page));
+        assertEquals(9, viewer.getPageIndex());
+        assertEquals(450L, page.firstRecord());
+        assertFalse(viewer.hasNextPage());
+    }
+
+    @Test
+    void testGoToPageAndRecord() throws Exception {
+        PageRequest page4 = viewer.goToPage(3);
+        assertEquals(150, viewer.loadPage(page4).records().getFirst().get("id"));
+
+        viewer.countRecords();
+        viewer.goToPage(1_000);
+        assertEquals(9, viewer.getPageIndex());
+
+        PageRequest record = viewer.goToRecord(217);
+        assertEquals(4, record.pageIndex());
+        Page page = viewer.loadPage(record);
+        assertEquals(217, page.records().get(17).get("id"));
+
+        assertThrows(IllegalArgumentException.class, () -> viewer.goToRecord(RECORDS));
+        assertThrows(IllegalArgumentException.class, () -> viewer.goToRecord(-1));
+    }
+
+    @Test
+    void testFollowReportsOnlyAppendedRecords() throws Exception {
+        viewer.startFollowing(RECORDS);
+        assertNull(viewer.pollAppended(), "nothing appended yet");
+
+        append(RECORDS, 120);
+        FollowUpdate update = viewer.pollAppended();
+        assertNotNull(update);
+        assertEquals(RECORDS, update.firstRecord());
+        assertEquals(120, update.records().size());
+        assertEquals(RECORDS, update.records().getFirst().get("id"));
+        assertEquals(RECORDS + 120L, update.totalRecords());
+        assertTrue(update.matches().isEmpty());
+
+        assertTrue(viewer.applyFollowUpdate(update));
+        assertFalse(viewer.applyFollowUpdate(update), "an update is applied once");
+        assertEquals(RECORDS + 120L, viewer.getTotalRecords());
+        assertNull(viewer.pollAppended());
+
+        viewer.stopFollowing();
+        append(RECORDS + 120, 10);
+        assertNull(viewer.pollAppended());
+    }
+
+    @Test
+    void testFollowFromEndSkipsExistingRecords() throws Exception {
+        viewer.startFollowing(-1);
+        FollowUpdate baseline = viewer.pollAppended();
+        assertTrue(baseline.records().isEmpty());
+        assertTrue(viewer.applyFollowUpdate(baseline));
+
+        append(RECORDS, 5);
+        FollowUpdate update = viewer.pollAppended();
+        assertEquals(RECORDS, update.firstRecord());
+        assertEquals(5, update.records().size());
+    }
+
+    @Test
+    void testFollowMatchesAppendedRecordsAgainstActiveSearch() throws Exception {
+        List<FilterCriterion> criteria = List.of(new FilterCriterion(FilterOption.ofField("id"), MatchOperation.STARTS_WITH, "55"));
+        viewer.search(criteria, 1_000);
+        viewer.startFollowing(RECORDS);
+
+        append(RECORDS, 120); // ids 500..619, of which 550..559 match
+        FollowUpdate update = viewer.pollAppended();
+        assertEquals(120, update.records().size());
+        assertEquals(10, update.matches().size());
+        assertEquals(550, update.matches().getFirst().get("id"));
+    }
+
+    @Test
+    void testFolderCannotBeFollowed() throws Exception {
+        viewer.openDataset(new Dataset(dir, "*.avro"));
+        assertThrows(IllegalStateException.class, () -> viewer.startFollowing(0));
+        assertFalse(viewer.isFollowing());
+    }
+
+    private void append(int firstId, int count) throws IOException {
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.setSyncInterval(256);
+            writer.appendTo(file.toFile());
+            for (int i = 0; i < count; i++) {
+                GenericRecord r = new GenericData.Record(schema);
+                r.put("id", firstId + i);
+                writer.append(r);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.dkostin.avro_viewer.app.service.impl.cache;
+
+import com.dkostin.avro_viewer.app.domain.model.Page;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncodedPageTest {
+
+    private final Schema schema = SchemaBuilder.record("Blob").fields()
+            .name("id").type().intType().noDefault()
+            .name("data").type().bytesType().noDefault()
+            .endRecord();
+
+    @Test
+    void testRoundTripKeepsRecordsAndPosition() throws IOException {
+        List<GenericRecord> records = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            records.add(blob(schema, i, 8));
+        }
+        Page page = new Page(schema, records, true, 1_200);
+
+        Page decoded = EncodedPage.encode(page).decode();
+
+        assertEquals(records, decoded.records());
+        assertEquals(schema, decoded.schema());
+        assertTrue(decoded.hasNext());
+        assertEquals(1_200, decoded.firstRecord());
+        assertNotSame(decoded.records().getFirst(), EncodedPage.encode(page).decode().records().getFirst(),
+                "every hit decodes fresh records");
+    }
+
+    @Test
+    void testRecordsWithDifferentSchemasKeepTheirOwn() throws IOException {
+        Schema other = SchemaBuilder.record("Blob").fields()
+                .name("id").type().intType().noDefault()
+                .endRecord();
+        GenericRecord narrow = new GenericData.Record(other);
+        narrow.put("id", 7);
+        Page page = new Page(schema, List.of(blob(schema, 1, 4), narrow, blob(schema, 2, 4)), false, 0);
+
+        List<GenericRecord> decoded = EncodedPage.encode(page).decode().records();
+
+        assertEquals(page.records(), decoded);
+        assertEquals(other, decoded.get(1).getSchema());
+    }
+
+    @Test
+    void testWeightFollowsEncodedSize() throws IOException {
+        EncodedPage small = EncodedPage.encode(new Page(schema, List.of(blob(schema, 1, 16)), false, 0));
+        EncodedPage large = EncodedPage.encode(new Page(schema, List.of(blob(schema, 1, 1 << 20)), false, 0));
+
+        assertTrue(large.weight() - small.weight() >= (1 << 20) - 16);
+        assertTrue(small.weight() < 256);
+        assertEquals(0, EncodedPage.encode(new Page(schema, List.of(), false, 0)).decode().records().size());
+    }
+
+    private static GenericRecord blob(Schema schema, int id, int size) {
+        GenericRecord r = new GenericData.Record(schema);
+        r.put("id", id);
+        r.put("data", ByteBuffer.wrap(new byte[size]));
+        return r;
+    }
+}
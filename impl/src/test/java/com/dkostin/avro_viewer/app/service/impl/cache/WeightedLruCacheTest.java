@@ -0,0 +1,52 @@
+package com.dkostin.avro_viewer.app.service.impl.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedLruCacheTest {
+
+    @Test
+    void testEvictsLeastRecentlyUsedUntilWithinBudget() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, String::length, false);
+        cache.put("a", "xxxx");
+        cache.put("b", "xxxx");
+        assertNotNull(cache.get("a"));   // "b" is now the eldest
+        cache.put("c", "xxxx");          // 12 > 10 -> evict "b"
+
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("c"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(3, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.size());
+        assertEquals(8, stats.weightBytes());
+    }
+
+    @Test
+    void testKeepsNewestEntryEvenIfOverBudget() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(3, String::length, false);
+        cache.put("small", "xx");
+        cache.put("huge", "x".repeat(100));
+
+        assertNull(cache.get("small"));
+        assertNotNull(cache.get("huge"));
+        assertEquals(1, cache.stats().size());
+    }
+
+    @Test
+    void testReplacingKeyAdjustsWeight() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(100, String::length, true);
+        cache.put("k", "x".repeat(40));
+        cache.put("k", "x".repeat(10));
+
+        assertEquals(10, cache.stats().weightBytes());
+        assertEquals(1, cache.stats().size());
+        assertEquals("x".repeat(10), cache.get("k"));
+        cache.clear();
+        assertEquals(0, cache.stats().weightBytes());
+    }
+}
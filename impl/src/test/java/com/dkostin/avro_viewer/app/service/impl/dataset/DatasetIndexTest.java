@@ -0,0 +1,64 @@
+package com.dkostin.avro_viewer.app.service.impl.dataset;
+
+import com.dkostin.avro_viewer.app.domain.model.Dataset;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testFindPartSkipsEmptyParts() {
+        List<Path> parts = List.of(dir.resolve("a"), dir.resolve("b"), dir.resolve("c"), dir.resolve("d"));
+        DatasetIndex index = new DatasetIndex(parts, new long[]{5, 0, 0, 3});
+
+        assertEquals(8, index.totalRecords());
+        assertEquals(0, index.findPart(0));
+        assertEquals(0, index.findPart(4));
+        assertEquals(3, index.findPart(5)); // parts 1 and 2 are empty
+        assertEquals(3, index.findPart(7));
+        assertEquals(-1, index.findPart(8));
+        assertEquals(-1, index.findPart(-1));
+        assertEquals(5, index.firstRecord(3));
+        assertEquals(0, index.recordCount(1));
+    }
+
+    @Test
+    void testResolvePartsByGlobInNameOrder() throws IOException {
+        Files.createFile(dir.resolve("part-00002.avro"));
+        Files.createFile(dir.resolve("part-00000.avro"));
+        Files.createFile(dir.resolve("part-00001.avro"));
+        Files.createFile(dir.resolve("_SUCCESS"));
+        Files.createDirectories(dir.resolve("nested"));
+        Files.createFile(dir.resolve("nested/part-00003.avro"));
+
+        List<Path> top = DatasetParts.resolve(new Dataset(dir, "part-*.avro"));
+        assertEquals(List.of("part-00000.avro", "part-00001.avro", "part-00002.avro"),
+                top.stream().map(p -> p.getFileName().toString()).toList());
+
+        assertEquals(4, DatasetParts.resolve(new Dataset(dir, "**.avro")).size());
+        assertEquals(3, DatasetParts.resolve(Dataset.of(dir)).size());
+    }
+
+    @Test
+    void testResolveFailsWhenNothingMatches() {
+        assertThrows(IOException.class, () -> DatasetParts.resolve(new Dataset(dir, "*.avro")));
+    }
+
+    @Test
+    void testSingleFileIsItsOwnPart() throws IOException {
+        Path file = Files.createFile(dir.resolve("one.avro"));
+        Dataset dataset = Dataset.of(file);
+        assertTrue(dataset.isSingleFile());
+        assertEquals(List.of(file.toAbsolutePath().normalize()), DatasetParts.resolve(dataset));
+    }
+}
@@ -0,0 +1,119 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockIndexStoreTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private BlockIndexStore store;
+    private FileIdentity identity;
+    private BlockIndex index;
+
+    @BeforeEach
+    void setUp() {
+        store = new BlockIndexStore(cacheDir);
+        identity = new FileIdentity(Path.of("/data/events.avro").toAbsolutePath(), 123_456_789L, 1_700_000_000_000L);
+        index = new BlockIndex(
+                new long[]{512, 70_000, 140_123, 9_000_000_000L},
+                new long[]{0, 1_000, 2_000, 2_500},
+                3_100,
+                9_000_065_000L);
+    }
+
+    @Test
+    void testRoundTrip() {
+        store.save(identity, index);
+
+        BlockIndex loaded = store.load(identity).orElseThrow();
+        assertEquals(index.blockCount(), loaded.blockCount());
+        assertEquals(index.totalRecords(), loaded.totalRecords());
+        assertEquals(index.dataEnd(), loaded.dataEnd());
+        for (int i = 0; i < index.blockCount(); i++) {
+            assertEquals(index.blockOffset(i), loaded.blockOffset(i));
+            assertEquals(index.firstRecord(i), loaded.firstRecord(i));
+        }
+    }
+
+    @Test
+    void testRoundTripKeepsZoneMaps() {
+        ZoneMap times = new ZoneMap("ts",
+                false, new long[]{1_700_000_000_000L, Long.MAX_VALUE, 1_700_000_060_000L, -5},
+                new long[]{1_700_000_059_999L, Long.MIN_VALUE, 1_700_000_119_999L, 7});
+        ZoneMap prices = new ZoneMap("price", false, new long[4], new long[4]);
+        ZoneMap ratios = new ZoneMap("ratio", true,
+                new long[]{Double.doubleToLongBits(-0.5), 0, 0, 0},
+                new long[]{Double.doubleToLongBits(2.25), 0, 0, 0});
+        store.save(identity, index.withZoneMaps(List.of(times, prices)).withZoneMaps(List.of(ratios)));
+
+        BlockIndex loaded = store.load(identity).orElseThrow();
+        assertEquals(3, loaded.zoneMaps().size());
+        for (ZoneMap zone : List.of(times, prices, ratios)) {
+            ZoneMap read = loaded.zoneMap(zone.field());
+            assertEquals(zone.floating(), read.floating());
+            assertEquals(zone.blockCount(), read.blockCount());
+            for (int b = 0; b < zone.blockCount(); b++) {
+                assertEquals(zone.hasValues(b), read.hasValues(b), zone.field() + " block " + b);
+                assertEquals(zone.min(b), read.min(b));
+                assertEquals(zone.max(b), read.max(b));
+            }
+        }
+        assertFalse(loaded.zoneMap("ts").hasValues(1));
+        assertEquals(2.25, loaded.zoneMap("ratio").max(0));
+        assertEquals(4, loaded.blockCount());
+    }
+
+    @Test
+    void testRoundTripKeepsBloomFilters() {
+        long[] first = new long[2];
+        long[] third = new long[1];
+        BlockBloomFilter.add(first, BlockBloomFilter.hash("order-1"));
+        BlockBloomFilter.add(first, BlockBloomFilter.hash("order-2"));
+        BlockBloomFilter.add(third, BlockBloomFilter.hash("order-3"));
+        // the second block holds no value, the fourth is not covered yet
+        BlockBloomFilter orders = new BlockBloomFilter("orderId", new int[]{0, 2, 2, 3},
+                new long[]{first[0], first[1], third[0]});
+        store.save(identity, index.withBloomFilters(List.of(orders)));
+
+        BlockBloomFilter loaded = store.load(identity).orElseThrow().bloomFilter("orderId");
+        assertEquals(3, loaded.blockCount());
+        assertTrue(loaded.mightContain(0, BlockBloomFilter.hash("order-1")));
+        assertTrue(loaded.mightContain(0, BlockBloomFilter.hash("order-2")));
+        assertFalse(loaded.mightContain(1, BlockBloomFilter.hash("order-1")));
+        assertTrue(loaded.mightContain(2, BlockBloomFilter.hash("order-3")));
+        assertEquals(orders.byteSize(), loaded.byteSize());
+    }
+
+    @Test
+    void testChangedFileIsCacheMiss() {
+        store.save(identity, index);
+
+        FileIdentity modified = new FileIdentity(identity.file(), identity.size() + 100, identity.lastModified() + 1);
+        assertEquals(Optional.empty(), store.load(modified));
+    }
+
+    @Test
+    void testCorruptSidecarIsCacheMiss() throws IOException {
+        store.save(identity, index);
+        Files.write(store.sidecarFor(identity), new byte[]{1, 2, 3});
+
+        assertEquals(Optional.empty(), store.load(identity));
+    }
+
+    @Test
+    void testMissingDirectoryIsCacheMiss() {
+        BlockIndexStore missing = new BlockIndexStore(cacheDir.resolve("does-not-exist"));
+        assertEquals(Optional.empty(), missing.load(identity));
+    }
+}
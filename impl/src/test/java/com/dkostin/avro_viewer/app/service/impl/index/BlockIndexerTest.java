@@ -0,0 +1,171 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableFileInput;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockIndexerTest {
+
+    private static final int RECORDS = 1_000;
+
+    private Path tempAvroFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Schema schema = SchemaBuilder.record("Event")
+                .fields()
+                .name("id").type().intType().noDefault()
+                .name("payload").type().stringType().noDefault()
+                .endRecord();
+
+        tempAvroFile = Files.createTempFile("test-blocks", ".avro");
+
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.setCodec(CodecFactory.deflateCodec(6));
+            writer.setSyncInterval(256); // force many small blocks
+            writer.create(schema, tempAvroFile.toFile());
+            for (int i = 0; i < RECORDS; i++) {
+                GenericRecord r = new GenericData.Record(schema);
+                r.put("id", i);
+                r.put("payload", "payload-" + i);
+                writer.append(r);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(tempAvroFile);
+    }
+
+    @Test
+    void testIndexCountsAllRecords() throws IOException {
+        BlockIndex index = BlockIndexer.build(tempAvroFile);
+
+        assertTrue(index.blockCount() > 10, "Small sync interval should produce many blocks");
+        assertEquals(RECORDS, index.totalRecords());
+        assertEquals(Files.size(tempAvroFile), index.dataEnd());
+    }
+
+    @Test
+    void testBlockOffsetsAreSeekableSyncPoints() throws IOException {
+        BlockIndex index = BlockIndexer.build(tempAvroFile);
+
+        try (DataFileReader<GenericRecord> reader = new DataFileReader<>(tempAvroFile.toFile(), new GenericDatumReader<>())) {
+            for (int b = 0; b < index.blockCount(); b++) {
+                reader.seek(index.blockOffset(b));
+                assertTrue(reader.hasNext());
+                assertEquals(index.recordCount(b), reader.getBlockCount());
+                assertEquals((int) index.firstRecord(b), reader.next().get("id"));
+            }
+        }
+    }
+
+    @Test
+    void testFindBlock() throws IOException {
+        BlockIndex index = BlockIndexer.build(tempAvroFile);
+
+        for (long r = 0; r < RECORDS; r += 37) {
+            int b = index.findBlock(r);
+            assertTrue(index.firstRecord(b) <= r && r < index.firstRecord(b) + index.recordCount(b));
+        }
+        assertEquals(-1, index.findBlock(RECORDS));
+        assertEquals(-1, index.findBlock(-1));
+
+        for (int b = 0; b < index.blockCount(); b++) {
+            assertEquals(b, index.findBlockAt(index.blockOffset(b)));
+        }
+        assertEquals(-1, index.findBlockAt(index.blockOffset(1) - 1));
+        assertEquals(-1, index.findBlockAt(index.dataEnd()));
+    }
+
+    @Test
+    void testTruncatedTailBlockIsIgnored() throws IOException {
+        BlockIndex full = BlockIndexer.build(tempAvroFile);
+        long lastBlock = full.blockOffset(full.blockCount() - 1);
+
+        // Simulate a writer that has not finished flushing its last block
+        byte[] bytes = Files.readAllBytes(tempAvroFile);
+        Files.write(tempAvroFile, java.util.Arrays.copyOf(bytes, (int) lastBlock + 5));
+
+        BlockIndex partial = BlockIndexer.build(tempAvroFile);
+        assertEquals(full.blockCount() - 1, partial.blockCount());
+        assertEquals(full.firstRecord(full.blockCount() - 1), partial.totalRecords());
+        assertEquals(lastBlock, partial.dataEnd());
+    }
+
+    @Test
+    void testExtendIndexesOnlyAppendedBlocks() throws IOException {
+        BlockIndex before = BlockIndexer.build(tempAvroFile);
+
+        Schema schema = readSchema();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.setSyncInterval(256);
+            writer.appendTo(tempAvroFile.toFile());
+            for (int i = RECORDS; i < RECORDS + 300; i++) {
+                GenericRecord r = new GenericData.Record(schema);
+                r.put("id", i);
+                r.put("payload", "payload-" + i);
+                writer.append(r);
+            }
+        }
+
+        BlockIndex extended;
+        try (SeekableFileInput input = new SeekableFileInput(tempAvroFile.toFile())) {
+            extended = BlockIndexer.extend(input, before);
+        }
+        BlockIndex rebuilt = BlockIndexer.build(tempAvroFile);
+
+        assertEquals(RECORDS + 300, extended.totalRecords());
+        assertEquals(rebuilt.blockCount(), extended.blockCount());
+        assertEquals(rebuilt.dataEnd(), extended.dataEnd());
+        for (int b = 0; b < rebuilt.blockCount(); b++) {
+            assertEquals(rebuilt.blockOffset(b), extended.blockOffset(b));
+            assertEquals(rebuilt.firstRecord(b), extended.firstRecord(b));
+        }
+    }
+
+    @Test
+    void testExtendRejectsRewrittenFile() throws IOException {
+        BlockIndex before = BlockIndexer.build(tempAvroFile);
+
+        // Same content written again: a new random sync marker, so the old offsets mean nothing
+        Schema schema = readSchema();
+        try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+            writer.setSyncInterval(256);
+            writer.create(schema, tempAvroFile.toFile());
+            for (int i = 0; i < RECORDS * 2; i++) {
+                GenericRecord r = new GenericData.Record(schema);
+                r.put("id", i);
+                r.put("payload", "payload-" + i);
+                writer.append(r);
+            }
+        }
+
+        try (SeekableFileInput input = new SeekableFileInput(tempAvroFile.toFile())) {
+            assertThrows(IOException.class, () -> BlockIndexer.extend(input, before));
+        }
+    }
+
+    private Schema readSchema() throws IOException {
+        try (DataFileReader<GenericRecord> reader = new DataFileReader<>(tempAvroFile.toFile(), new GenericDatumReader<>())) {
+            return reader.getSchema();
+        }
+    }
+}
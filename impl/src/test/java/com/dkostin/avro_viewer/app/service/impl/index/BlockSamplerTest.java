@@ -0,0 +1,45 @@
+package com.dkostin.avro_viewer.app.service.impl.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockSamplerTest {
+
+    @Test
+    void testPicksDistinctBlocksInFileOrder() {
+        long[] counts = new long[100];
+        Arrays.fill(counts, 10);
+        int[] blocks = BlockSampler.choose(counts, 8, new SplittableRandom(1));
+
+        assertEquals(8, blocks.length);
+        for (int i = 1; i < blocks.length; i++) {
+            assertTrue(blocks[i - 1] < blocks[i]);
+        }
+    }
+
+    @Test
+    void testSkipsEmptyBlocksAndTakesAllWhenFew() {
+        long[] counts = {5, 0, 7, 0, 1};
+        assertArrayEquals(new int[]{0, 2, 4}, BlockSampler.choose(counts, 10, new SplittableRandom(2)));
+        assertEquals(0, BlockSampler.choose(counts, 0, new SplittableRandom(2)).length);
+    }
+
+    @Test
+    void testPickRateFollowsRecordCount() {
+        long[] counts = {1, 1, 1, 1, 96}; // the big block holds 96% of the records
+        SplittableRandom random = new SplittableRandom(3);
+        int big = 0;
+        int rounds = 10_000;
+        for (int i = 0; i < rounds; i++) {
+            int[] blocks = BlockSampler.choose(counts, 1, random);
+            if (blocks[0] == 4) {
+                big++;
+            }
+        }
+        assertEquals(0.96, big / (double) rounds, 0.01);
+    }
+}
@@ -12,6 +12,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class AvroNormalizerTest {
 
@@ -67,4 +68,32 @@ class AvroNormalizerTest {
         assertInstanceOf(java.util.Collection.class, listOut);
         assertEquals(2, ((java.util.Collection<?>) listOut).size());
     }
+
+    @Test
+    void testSummarizeMatchesFormattedNormalizeForNestedValues() {
+        Schema inner = SchemaBuilder.record("Inner").fields()
+                .name("tags").type().array().items().stringType().noDefault()
+                .name("attrs").type().map().values().intType().noDefault()
+                .endRecord();
+        GenericRecord rec = new GenericData.Record(inner);
+        rec.put("tags", java.util.List.of("a", "b"));
+        rec.put("attrs", Map.of("k", 1));
+
+        Object summary = AvroNormalizer.summarize(rec, inner);
+        assertEquals(PresentationFormatter.formatValue(AvroNormalizer.normalize(rec, inner)), summary);
+        assertEquals("{tags=[a, b], attrs={k=1}}", summary);
+
+        // scalars stay typed values
+        assertEquals(7L, AvroNormalizer.summarize(7L, Schema.create(Schema.Type.LONG)));
+        assertEquals("", PresentationFormatter.formatValue(AvroNormalizer.summarize(null, null)));
+    }
+
+    @Test
+    void testSummarizeTruncatesLargeNestedValues() {
+        java.util.List<Integer> big = java.util.stream.IntStream.range(0, 100_000).boxed().toList();
+        String summary = (String) AvroNormalizer.summarize(big, Schema.createArray(Schema.create(Schema.Type.INT)));
+        assertEquals(AvroNormalizer.SUMMARY_TEXT_LIMIT + 1, summary.length());
+        assertTrue(summary.startsWith("[0, 1, 2"));
+        assertTrue(summary.endsWith("…"));
+    }
 }
@@ -0,0 +1,72 @@
+package com.dkostin.avro_viewer.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BytePatternTest {
+
+    @Test
+    void testFindsFirstOccurrenceWithinBounds() {
+        byte[] data = "xxabcabcxx".getBytes(StandardCharsets.UTF_8);
+        BytePattern abc = new BytePattern("abc".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2, abc.indexIn(data, 0, data.length));
+        assertEquals(5, abc.indexIn(data, 3, data.length));
+        assertEquals(-1, abc.indexIn(data, 6, data.length));
+        assertEquals(-1, abc.indexIn(data, 0, 4), "match crossing the upper bound");
+        assertEquals(3, abc.length());
+    }
+
+    @Test
+    void testAgreesWithNaiveSearch() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            byte[] data = new byte[random.nextInt(200)];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) ("abÿ".charAt(random.nextInt(3))); // small alphabet: many partial matches
+            }
+            byte[] pattern = new byte[1 + random.nextInt(4)];
+            for (int i = 0; i < pattern.length; i++) {
+                pattern[i] = (byte) ("abÿ".charAt(random.nextInt(3)));
+            }
+            int from = data.length == 0 ? 0 : random.nextInt(data.length);
+            assertEquals(naiveIndexOf(data, pattern, from), new BytePattern(pattern).indexIn(data, from, data.length));
+        }
+    }
+
+    @Test
+    void testBlockFilterRequiresEveryPattern() {
+        BlockFilter filter = new BlockFilter(List.of(
+                new BytePattern("foo".getBytes(StandardCharsets.UTF_8)),
+                new BytePattern("bar".getBytes(StandardCharsets.UTF_8))));
+
+        byte[] both = "..bar..foo..".getBytes(StandardCharsets.UTF_8);
+        byte[] one = "..foo..".getBytes(StandardCharsets.UTF_8);
+        assertTrue(filter.mayMatch(both, 0, both.length));
+        assertFalse(filter.mayMatch(one, 0, one.length));
+        assertFalse(filter.mayMatch(both, 5, both.length));
+    }
+
+    @Test
+    void testRejectsEmptyPattern() {
+        assertThrows(IllegalArgumentException.class, () -> new BytePattern(new byte[0]));
+    }
+
+    private static int naiveIndexOf(byte[] data, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i + pattern.length <= data.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,36 @@
+package com.dkostin.avro_viewer.app.util;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaProjectorTest {
+
+    private final Schema writer = SchemaBuilder.record("Event").namespace("com.example")
+            .fields()
+            .requiredLong("id")
+            .requiredString("type")
+            .name("payload").type().map().values().stringType().noDefault()
+            .optionalString("note")
+            .endRecord();
+
+    @Test
+    void testProjectionKeepsWriterOrderAndFullName() {
+        Schema projected = SchemaProjector.project(writer, Set.of("note", "id"));
+
+        assertEquals("com.example.Event", projected.getFullName());
+        assertEquals(List.of("id", "note"), projected.getFields().stream().map(Schema.Field::name).toList());
+        assertEquals(writer.getField("note").schema(), projected.getField("note").schema());
+    }
+
+    @Test
+    void testNoProjectionReturnsWriter() {
+        assertSame(writer, SchemaProjector.project(writer, null));
+        assertSame(writer, SchemaProjector.project(writer, Set.of("id", "type", "payload", "note")));
+    }
+}